@@ -0,0 +1,300 @@
+package org.apache.maven.archiver;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+import org.apache.maven.shared.utils.io.IOUtil;
+import org.codehaus.plexus.archiver.ArchiveEntry;
+import org.codehaus.plexus.archiver.ArchiverException;
+import org.codehaus.plexus.archiver.ResourceIterator;
+import org.codehaus.plexus.archiver.jar.JarArchiver;
+import org.codehaus.plexus.archiver.jar.Manifest;
+
+/**
+ * The digest of everything that goes into an archive, recorded next to the build output, so that an archive whose
+ * inputs didn't change since it was created doesn't have to be packed again.
+ * <p/>
+ * The digest covers the name, mode and content of every entry, the manifest, the archive configuration and the
+ * classpath. Unlike a comparison of timestamps, it also notices removed and reverted files. The record is only an
+ * optimization: a missing, unreadable or outdated record just means the archive is created.
+ */
+final class ArchiveInputs
+{
+    private static final String FORMAT = "maven-archiver-inputs-1";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final File recordFile;
+
+    ArchiveInputs( File recordFile )
+    {
+        this.recordFile = recordFile;
+    }
+
+    /**
+     * @param buildDirectory The build directory of the project.
+     * @param archiveFile The archive.
+     * @return The record of the inputs of the archive.
+     */
+    static ArchiveInputs forArchive( File buildDirectory, File archiveFile )
+    {
+        return new ArchiveInputs( new File( buildDirectory, "maven-archiver/" + archiveFile.getName() + ".inputs" ) );
+    }
+
+    /**
+     * Computes the digest of the inputs of an archive. The archiver must have been fully configured.
+     *
+     * @param archiver The archiver.
+     * @param manifest The manifest added to the configured one.
+     * @param config The archive configuration.
+     * @param classpath The classpath elements indexed by the archiver.
+     * @return The digest, as hexadecimal digits.
+     * @throws IOException if an entry can't be read.
+     * @throws ArchiverException if the entries of the archive can't be listed.
+     */
+    static String digest( JarArchiver archiver, Manifest manifest, MavenArchiveConfiguration config,
+                          List<String> classpath )
+        throws IOException, ArchiverException
+    {
+        MessageDigest md;
+        try
+        {
+            md = MessageDigest.getInstance( "SHA-1" );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( "SHA-1 is a required algorithm: " + e.getMessage() );
+        }
+
+        DataOutputStream out = new DataOutputStream( new DigestOutputStream( new OutputStream()
+        {
+            @Override
+            public void write( int b )
+            {
+                // only digested
+            }
+
+            @Override
+            public void write( byte[] b, int off, int len )
+            {
+                // only digested
+            }
+        }, md ) );
+
+        writeString( out, FORMAT );
+        writeString( out, archiver.getDestFile().getAbsolutePath() );
+        out.writeBoolean( config.isCompress() );
+        out.writeBoolean( config.isRecompressAddedZips() );
+        out.writeBoolean( config.isIndex() );
+        out.writeBoolean( config.isReproducible() );
+        out.writeLong( config.getOutputTimestamp() != null ? config.getOutputTimestamp().getTime() : 0L );
+
+        StringWriter manifestText = new StringWriter();
+        manifest.write( new PrintWriter( manifestText ) );
+        writeString( out, manifestText.toString() );
+
+        File manifestFile = config.getManifestFile();
+        if ( manifestFile != null )
+        {
+            writeString( out, manifestFile.getAbsolutePath() );
+            writeContent( out, new FileInputStream( manifestFile ) );
+        }
+
+        if ( classpath != null )
+        {
+            out.writeInt( classpath.size() );
+            for ( String element : classpath )
+            {
+                File file = new File( element );
+                writeString( out, element );
+                out.writeLong( file.length() );
+                out.writeLong( file.lastModified() );
+            }
+        }
+
+        ResourceIterator resources = archiver.getResources();
+        while ( resources.hasNext() )
+        {
+            ArchiveEntry entry = resources.next();
+            writeString( out, entry.getName() );
+            out.writeInt( entry.getType() );
+            out.writeInt( entry.getMode() );
+            if ( entry.getType() == ArchiveEntry.FILE )
+            {
+                writeContent( out, entry.getInputStream() );
+            }
+        }
+
+        out.flush();
+        StringBuilder hex = new StringBuilder();
+        for ( byte b : md.digest() )
+        {
+            hex.append( Character.forDigit( ( b >> 4 ) & 0xF, 16 ) ).append( Character.forDigit( b & 0xF, 16 ) );
+        }
+        return hex.toString();
+    }
+
+    /**
+     * @param digest The digest of the current inputs.
+     * @param archiveFile The archive.
+     * @return true if the archive exists and was created from inputs with the same digest.
+     */
+    boolean isUpToDate( String digest, File archiveFile )
+    {
+        String[] record = read();
+        return record != null && record[0].equals( digest ) && archiveFile.isFile()
+            && record[1].equals( String.valueOf( archiveFile.length() ) );
+    }
+
+    /**
+     * @return true if there is a record of a previous archive, whether or not it is still up to date.
+     */
+    boolean isRecorded()
+    {
+        return read() != null;
+    }
+
+    /**
+     * Records the digest of the inputs the archive was just created from. Failures are ignored, they only mean the
+     * archive will be created again.
+     *
+     * @param digest The digest of the inputs.
+     * @param archiveFile The archive.
+     */
+    void record( String digest, File archiveFile )
+    {
+        File parent = recordFile.getParentFile();
+        if ( !parent.isDirectory() && !parent.mkdirs() )
+        {
+            return;
+        }
+
+        Writer writer = null;
+        File tempFile = null;
+        try
+        {
+            tempFile = File.createTempFile( recordFile.getName(), ".tmp", parent );
+            writer = new FileWriter( tempFile );
+            writer.write( FORMAT + "\n" + digest + "\n" + archiveFile.length() + "\n" );
+            writer.close();
+            writer = null;
+
+            if ( recordFile.exists() && !recordFile.delete() )
+            {
+                return;
+            }
+            tempFile.renameTo( recordFile );
+        }
+        catch ( IOException e )
+        {
+            // the archive will be created next time
+            recordFile.delete();
+        }
+        finally
+        {
+            IOUtil.close( writer );
+            if ( tempFile != null )
+            {
+                tempFile.delete();
+            }
+        }
+    }
+
+    /**
+     * @return The digest and the archive length of the record, or null if there is no usable record.
+     */
+    private String[] read()
+    {
+        if ( !recordFile.isFile() )
+        {
+            return null;
+        }
+
+        BufferedReader reader = null;
+        try
+        {
+            reader = new BufferedReader( new FileReader( recordFile ) );
+            String format = reader.readLine();
+            String digest = reader.readLine();
+            String length = reader.readLine();
+            reader.close();
+            reader = null;
+
+            if ( !FORMAT.equals( format ) || digest == null || length == null )
+            {
+                return null;
+            }
+            return new String[] { digest, length };
+        }
+        catch ( IOException e )
+        {
+            return null;
+        }
+        finally
+        {
+            IOUtil.close( reader );
+        }
+    }
+
+    private static void writeString( DataOutputStream out, String value )
+        throws IOException
+    {
+        byte[] bytes = value.getBytes( "UTF-8" );
+        out.writeInt( bytes.length );
+        out.write( bytes );
+    }
+
+    private static void writeContent( DataOutputStream out, InputStream in )
+        throws IOException
+    {
+        try
+        {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long length = 0;
+            for ( int n = in.read( buffer ); n >= 0; n = in.read( buffer ) )
+            {
+                out.write( buffer, 0, n );
+                length += n;
+            }
+            // terminates the content, so that it can't run into the next entry
+            out.writeLong( length );
+        }
+        finally
+        {
+            IOUtil.close( in );
+        }
+    }
+}
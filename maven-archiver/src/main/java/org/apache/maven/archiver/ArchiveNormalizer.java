@@ -0,0 +1,174 @@
+package org.apache.maven.archiver;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.maven.shared.utils.io.FileUtils;
+import org.apache.maven.shared.utils.io.IOUtil;
+
+/**
+ * Rewrites an archive so that it only depends on the contents of its entries: the entries are sorted by name, with the
+ * manifest first, and they all get the same timestamp. Extra fields and comments are dropped, the compression method
+ * and unix mode of each entry are kept.
+ */
+final class ArchiveNormalizer
+{
+    /**
+     * The timestamp used if none is configured, 1980-01-01T00:00:02Z, the earliest a ZIP file can hold.
+     */
+    static final long DEFAULT_TIMESTAMP = 315532802000L;
+
+    private static final String ENCODING = "UTF8";
+
+    private static final String META_INF = "META-INF/";
+
+    private static final String MANIFEST = "META-INF/MANIFEST.MF";
+
+    private static final Comparator<ZipArchiveEntry> ENTRY_ORDER = new Comparator<ZipArchiveEntry>()
+    {
+        public int compare( ZipArchiveEntry entry1, ZipArchiveEntry entry2 )
+        {
+            int rank1 = rank( entry1.getName() );
+            int rank2 = rank( entry2.getName() );
+            if ( rank1 != rank2 )
+            {
+                return rank1 < rank2 ? -1 : 1;
+            }
+            return entry1.getName().compareTo( entry2.getName() );
+        }
+
+        private int rank( String name )
+        {
+            // JarInputStream only finds the manifest among the first entries
+            if ( META_INF.equals( name ) )
+            {
+                return 0;
+            }
+            return MANIFEST.equalsIgnoreCase( name ) ? 1 : 2;
+        }
+    };
+
+    private ArchiveNormalizer()
+    {
+    }
+
+    /**
+     * Normalizes the archive in place. If it is already normalized, it is left untouched, keeping its timestamp.
+     *
+     * @param archiveFile The archive.
+     * @param timestamp The timestamp of all entries, in milliseconds since the epoch.
+     * @throws IOException if the archive can't be read or replaced.
+     */
+    static void normalize( File archiveFile, long timestamp )
+        throws IOException
+    {
+        File normalizedFile = File.createTempFile( archiveFile.getName(), ".tmp", archiveFile.getParentFile() );
+        try
+        {
+            write( archiveFile, normalizedFile, timestamp );
+
+            if ( !FileUtils.contentEquals( archiveFile, normalizedFile ) )
+            {
+                if ( !archiveFile.delete() || !normalizedFile.renameTo( archiveFile ) )
+                {
+                    throw new IOException( "Could not replace " + archiveFile + " with " + normalizedFile );
+                }
+            }
+        }
+        finally
+        {
+            if ( normalizedFile.exists() && !normalizedFile.delete() )
+            {
+                normalizedFile.deleteOnExit();
+            }
+        }
+    }
+
+    private static void write( File archiveFile, File normalizedFile, long timestamp )
+        throws IOException
+    {
+        // DOS time is local time, keep the stored fields the same in every time zone
+        long time = timestamp - TimeZone.getDefault().getOffset( timestamp );
+
+        ZipFile zipFile = new ZipFile( archiveFile, ENCODING );
+        ZipArchiveOutputStream out = null;
+        try
+        {
+            List<ZipArchiveEntry> entries = new ArrayList<ZipArchiveEntry>();
+            for ( Enumeration<ZipArchiveEntry> e = zipFile.getEntries(); e.hasMoreElements(); )
+            {
+                entries.add( e.nextElement() );
+            }
+            Collections.sort( entries, ENTRY_ORDER );
+
+            out = new ZipArchiveOutputStream( normalizedFile );
+            out.setEncoding( ENCODING );
+            for ( ZipArchiveEntry entry : entries )
+            {
+                ZipArchiveEntry normalized = new ZipArchiveEntry( entry.getName() );
+                normalized.setTime( time );
+                normalized.setMethod( entry.getMethod() );
+                if ( entry.getPlatform() == ZipArchiveEntry.PLATFORM_UNIX )
+                {
+                    normalized.setUnixMode( entry.getUnixMode() );
+                }
+                if ( entry.getMethod() == ZipArchiveEntry.STORED )
+                {
+                    normalized.setSize( entry.getSize() );
+                    normalized.setCrc( entry.getCrc() );
+                }
+
+                out.putArchiveEntry( normalized );
+                if ( !entry.isDirectory() )
+                {
+                    InputStream in = zipFile.getInputStream( entry );
+                    try
+                    {
+                        IOUtil.copy( in, out );
+                    }
+                    finally
+                    {
+                        IOUtil.close( in );
+                    }
+                }
+                out.closeArchiveEntry();
+            }
+            out.close();
+            out = null;
+        }
+        finally
+        {
+            IOUtil.close( out );
+            ZipFile.closeQuietly( zipFile );
+        }
+    }
+}
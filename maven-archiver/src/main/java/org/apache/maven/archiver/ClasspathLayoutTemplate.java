@@ -0,0 +1,262 @@
+package org.apache.maven.archiver;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.handler.ArtifactHandler;
+import org.apache.maven.shared.utils.StringUtils;
+
+/**
+ * A classpath layout split into literal text and artifact expressions, so that the Class-Path entry of each artifact
+ * can be filled in directly instead of being interpolated through reflection.
+ * <p/>
+ * The template gives the same result as the interpolation in {@link MavenArchiver}, or none at all: a layout with an
+ * expression the template doesn't know can't be compiled, and an artifact is left to the interpolator if one of its
+ * values is missing, could be interpolated further, or would be shadowed by a getter of its implementation class.
+ */
+final class ClasspathLayoutTemplate
+{
+    private static final String START_EXPR = "${";
+
+    private static final String END_EXPR = "}";
+
+    private static final String ARTIFACT_PREFIX = "artifact.";
+
+    private static final int ARTIFACT_ID = 0;
+
+    private static final int GROUP_ID = 1;
+
+    private static final int VERSION = 2;
+
+    private static final int BASE_VERSION = 3;
+
+    private static final int CLASSIFIER = 4;
+
+    private static final int TYPE = 5;
+
+    private static final int EXTENSION = 6;
+
+    private static final int GROUP_ID_PATH = 7;
+
+    private static final int DASH_CLASSIFIER = 8;
+
+    private static final Map<String, Integer> EXPRESSIONS = new HashMap<String, Integer>();
+
+    static
+    {
+        EXPRESSIONS.put( "artifactId", ARTIFACT_ID );
+        EXPRESSIONS.put( "groupId", GROUP_ID );
+        EXPRESSIONS.put( "version", VERSION );
+        EXPRESSIONS.put( "baseVersion", BASE_VERSION );
+        EXPRESSIONS.put( "classifier", CLASSIFIER );
+        EXPRESSIONS.put( "type", TYPE );
+        EXPRESSIONS.put( "extension", EXTENSION );
+        EXPRESSIONS.put( "groupIdPath", GROUP_ID_PATH );
+        EXPRESSIONS.put( "dashClassifier", DASH_CLASSIFIER );
+        EXPRESSIONS.put( "dashClassifier?", DASH_CLASSIFIER );
+    }
+
+    /**
+     * The literal text around the expressions, one more than there are expressions.
+     */
+    private final String[] literals;
+
+    private final int[] expressions;
+
+    /**
+     * Whether a class declares a getter that would take precedence over a value of the artifact handler or the extra
+     * expressions, by class and property name.
+     */
+    private final Map<Class<?>, Map<String, Boolean>> getters = new HashMap<Class<?>, Map<String, Boolean>>();
+
+    private ClasspathLayoutTemplate( String[] literals, int[] expressions )
+    {
+        this.literals = literals;
+        this.expressions = expressions;
+    }
+
+    /**
+     * @param layout The classpath layout.
+     * @return The compiled layout, or <code>null</code> if it holds an expression the template doesn't know.
+     */
+    static ClasspathLayoutTemplate compile( String layout )
+    {
+        List<String> literals = new ArrayList<String>();
+        List<Integer> expressions = new ArrayList<Integer>();
+
+        // split the same way as the StringSearchInterpolator
+        StringBuilder literal = new StringBuilder();
+        int startIdx;
+        int endIdx = -1;
+        while ( ( startIdx = layout.indexOf( START_EXPR, endIdx + 1 ) ) > -1 )
+        {
+            literal.append( layout, endIdx + 1, startIdx );
+
+            endIdx = layout.indexOf( END_EXPR, startIdx + 1 );
+            if ( endIdx < 0 )
+            {
+                break;
+            }
+
+            String expression = layout.substring( startIdx + START_EXPR.length(), endIdx );
+            if ( expression.startsWith( ARTIFACT_PREFIX ) )
+            {
+                expression = expression.substring( ARTIFACT_PREFIX.length() );
+            }
+            Integer index = EXPRESSIONS.get( expression );
+            if ( index == null )
+            {
+                return null;
+            }
+
+            literals.add( literal.toString() );
+            literal.setLength( 0 );
+            expressions.add( index );
+        }
+        if ( endIdx == -1 && startIdx > -1 )
+        {
+            literal.append( layout, startIdx, layout.length() );
+        }
+        else if ( endIdx < layout.length() )
+        {
+            literal.append( layout, endIdx + 1, layout.length() );
+        }
+        literals.add( literal.toString() );
+
+        int[] indices = new int[expressions.size()];
+        for ( int i = 0; i < indices.length; i++ )
+        {
+            indices[i] = expressions.get( i );
+        }
+        return new ClasspathLayoutTemplate( literals.toArray( new String[literals.size()] ), indices );
+    }
+
+    /**
+     * Appends the path of an artifact.
+     *
+     * @param classpath The classpath to append to.
+     * @param artifact The artifact.
+     * @return <code>true</code> if the path was appended, <code>false</code> if the artifact has to be interpolated.
+     */
+    boolean appendTo( StringBuilder classpath, Artifact artifact )
+    {
+        // same side effect on the base version as the interpolation
+        artifact.isSnapshot();
+
+        String[] values = new String[expressions.length];
+        for ( int i = 0; i < expressions.length; i++ )
+        {
+            values[i] = getValue( artifact, expressions[i] );
+            if ( values[i] == null || values[i].contains( START_EXPR ) )
+            {
+                return false;
+            }
+        }
+
+        for ( int i = 0; i < expressions.length; i++ )
+        {
+            classpath.append( literals[i] ).append( values[i] );
+        }
+        classpath.append( literals[expressions.length] );
+        return true;
+    }
+
+    private String getValue( Artifact artifact, int expression )
+    {
+        // the artifact is asked first, then its handler, then the extra expressions
+        switch ( expression )
+        {
+            case ARTIFACT_ID:
+                return artifact.getArtifactId();
+            case GROUP_ID:
+                return artifact.getGroupId();
+            case VERSION:
+                return artifact.getVersion();
+            case BASE_VERSION:
+                return artifact.getBaseVersion();
+            case CLASSIFIER:
+                return artifact.getClassifier();
+            case TYPE:
+                return artifact.getType();
+            case EXTENSION:
+                ArtifactHandler handler = artifact.getArtifactHandler();
+                if ( handler == null || hasGetter( artifact.getClass(), "extension" ) )
+                {
+                    return null;
+                }
+                return handler.getExtension();
+            case GROUP_ID_PATH:
+                if ( isShadowed( artifact, "groupIdPath" ) )
+                {
+                    return null;
+                }
+                return artifact.getGroupId().replace( '.', '/' );
+            case DASH_CLASSIFIER:
+                if ( isShadowed( artifact, "dashClassifier" ) )
+                {
+                    return null;
+                }
+                return StringUtils.isNotEmpty( artifact.getClassifier() ) ? "-" + artifact.getClassifier() : "";
+            default:
+                throw new IllegalStateException( "Unknown expression " + expression );
+        }
+    }
+
+    private boolean isShadowed( Artifact artifact, String property )
+    {
+        ArtifactHandler handler = artifact.getArtifactHandler();
+        return hasGetter( artifact.getClass(), property )
+            || ( handler != null && hasGetter( handler.getClass(), property ) );
+    }
+
+    private boolean hasGetter( Class<?> type, String property )
+    {
+        Map<String, Boolean> properties = getters.get( type );
+        if ( properties == null )
+        {
+            properties = new HashMap<String, Boolean>();
+            getters.put( type, properties );
+        }
+
+        Boolean result = properties.get( property );
+        if ( result == null )
+        {
+            String suffix = Character.toUpperCase( property.charAt( 0 ) ) + property.substring( 1 );
+            result = Boolean.FALSE;
+            for ( Method method : type.getMethods() )
+            {
+                if ( method.getParameterTypes().length == 0
+                    && ( method.getName().equals( "get" + suffix ) || method.getName().equals( "is" + suffix ) ) )
+                {
+                    result = Boolean.TRUE;
+                    break;
+                }
+            }
+            properties.put( property, result );
+        }
+        return result;
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.maven.archiver;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -60,6 +61,16 @@ public class MavenArchiveConfiguration
      */
     private File pomPropertiesFile;
 
+    /**
+     * @since 3.0.1
+     */
+    private boolean reproducible;
+
+    /**
+     * @since 3.0.1
+     */
+    private Date outputTimestamp;
+
     /**
      * @return {@link #compress}
      */
@@ -254,6 +265,11 @@ public class MavenArchiveConfiguration
      * An archiver doesn't necessarily support checks for uptodate. If so, setting this option to true will simply be
      * ignored.
      * </p>
+     * <p>
+     * If the project has a build directory, {@link MavenArchiver} also records a digest of the archive's inputs there.
+     * As long as the digest doesn't change, the archive is left alone without comparing any timestamps; once it does,
+     * the archive is recreated, even if no timestamp is newer.
+     * </p>
      *
      * @return True, if the target archive should always be created; false otherwise
      * @see #setForced(boolean)
@@ -304,4 +320,48 @@ public class MavenArchiveConfiguration
     {
         this.pomPropertiesFile = pomPropertiesFile;
     }
+
+    /**
+     * Returns, whether the archive is made reproducible: the entries are sorted by name, with the manifest first, and
+     * all get the same timestamp, so that the same inputs always give a byte for byte identical archive.
+     *
+     * @return True, if the archive should be reproducible; false otherwise (default)
+     * @see #getOutputTimestamp()
+     */
+    public boolean isReproducible()
+    {
+        return reproducible;
+    }
+
+    /**
+     * Sets, whether the archive is made reproducible.
+     *
+     * @param reproducible True, if the archive should be reproducible; false otherwise
+     * @see #isReproducible()
+     */
+    public void setReproducible( boolean reproducible )
+    {
+        this.reproducible = reproducible;
+    }
+
+    /**
+     * Returns the timestamp of all entries of a reproducible archive. May be null, in which case a fixed default is
+     * used.
+     *
+     * @return The timestamp of the entries, or null.
+     */
+    public Date getOutputTimestamp()
+    {
+        return outputTimestamp;
+    }
+
+    /**
+     * Sets the timestamp of all entries of a reproducible archive. May be null, in which case a fixed default is used.
+     *
+     * @param outputTimestamp The timestamp of the entries, or null.
+     */
+    public void setOutputTimestamp( Date outputTimestamp )
+    {
+        this.outputTimestamp = outputTimestamp;
+    }
 }
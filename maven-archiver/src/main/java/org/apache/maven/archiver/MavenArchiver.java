@@ -41,6 +41,8 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -247,16 +249,22 @@ public class MavenArchiver
             List<String> artifacts = project.getRuntimeClasspathElements();
             String classpathPrefix = config.getClasspathPrefix();
             String layoutType = config.getClasspathLayoutType();
-            String layout = config.getCustomClasspathLayout();
 
             Interpolator interpolator = new StringSearchInterpolator();
+            Map<File, Artifact> artifactsByFile = null;
+            String effectiveLayout = null;
+            ClasspathLayoutTemplate template = null;
 
             for ( String artifactFile : artifacts )
             {
                 File f = new File( artifactFile );
                 if ( f.getAbsoluteFile().isFile() )
                 {
-                    Artifact artifact = findArtifactWithFile( project.getArtifacts(), f );
+                    if ( artifactsByFile == null )
+                    {
+                        artifactsByFile = indexArtifactsByFile( project.getArtifacts() );
+                    }
+                    Artifact artifact = artifactsByFile.get( f );
 
                     if ( classpath.length() > 0 )
                     {
@@ -272,104 +280,15 @@ public class MavenArchiver
                     }
                     else
                     {
-                        List<ValueSource> valueSources = new ArrayList<ValueSource>();
-
-                        valueSources.add( new PrefixedObjectValueSource( ARTIFACT_EXPRESSION_PREFIXES, artifact,
-                                                                         true ) );
-                        valueSources.add( new PrefixedObjectValueSource( ARTIFACT_EXPRESSION_PREFIXES,
-                                                                         artifact.getArtifactHandler(), true ) );
-
-                        Properties extraExpressions = new Properties();
-                        // FIXME: This query method SHOULD NOT affect the internal
-                        // state of the artifact version, but it does.
-                        if ( !artifact.isSnapshot() )
+                        if ( effectiveLayout == null )
                         {
-                            extraExpressions.setProperty( "baseVersion", artifact.getVersion() );
+                            effectiveLayout = getClasspathLayout( config );
+                            template = ClasspathLayoutTemplate.compile( effectiveLayout );
                         }
 
-                        extraExpressions.setProperty( "groupIdPath", artifact.getGroupId().replace( '.', '/' ) );
-                        if ( StringUtils.isNotEmpty( artifact.getClassifier() ) )
+                        if ( template == null || !template.appendTo( classpath, artifact ) )
                         {
-                            extraExpressions.setProperty( "dashClassifier", "-" + artifact.getClassifier() );
-                            extraExpressions.setProperty( "dashClassifier?", "-" + artifact.getClassifier() );
-                        }
-                        else
-                        {
-                            extraExpressions.setProperty( "dashClassifier", "" );
-                            extraExpressions.setProperty( "dashClassifier?", "" );
-                        }
-                        valueSources.add( new PrefixedPropertiesValueSource( ARTIFACT_EXPRESSION_PREFIXES,
-                                                                             extraExpressions, true ) );
-
-                        for ( ValueSource vs : valueSources )
-                        {
-                            interpolator.addValueSource( vs );
-                        }
-
-                        RecursionInterceptor recursionInterceptor =
-                            new PrefixAwareRecursionInterceptor( ARTIFACT_EXPRESSION_PREFIXES );
-
-                        try
-                        {
-                            if ( ManifestConfiguration.CLASSPATH_LAYOUT_TYPE_SIMPLE.equals( layoutType ) )
-                            {
-                                if ( config.isUseUniqueVersions() )
-                                {
-                                    classpath.append( interpolator.interpolate( SIMPLE_LAYOUT, recursionInterceptor ) );
-                                }
-                                else
-                                {
-                                    classpath.append( interpolator.interpolate( SIMPLE_LAYOUT_NONUNIQUE,
-                                                                                recursionInterceptor ) );
-                                }
-                            }
-                            else if ( ManifestConfiguration.CLASSPATH_LAYOUT_TYPE_REPOSITORY.equals( layoutType ) )
-                            {
-                                // we use layout /$groupId[0]/../${groupId[n]/$artifactId/$version/{fileName}
-                                // here we must find the Artifact in the project Artifacts to generate the maven layout
-                                if ( config.isUseUniqueVersions() )
-                                {
-                                    classpath.append( interpolator.interpolate( REPOSITORY_LAYOUT,
-                                                                                recursionInterceptor ) );
-                                }
-                                else
-                                {
-                                    classpath.append( interpolator.interpolate( REPOSITORY_LAYOUT_NONUNIQUE,
-                                                                                recursionInterceptor ) );
-                                }
-                            }
-                            else if ( ManifestConfiguration.CLASSPATH_LAYOUT_TYPE_CUSTOM.equals( layoutType ) )
-                            {
-                                if ( layout == null )
-                                {
-                                    throw new ManifestException( ManifestConfiguration.CLASSPATH_LAYOUT_TYPE_CUSTOM
-                                        + " layout type was declared, but custom layout expression was not"
-                                        + " specified. Check your <archive><manifest><customLayout/> element." );
-                                }
-
-                                classpath.append( interpolator.interpolate( layout, recursionInterceptor ) );
-                            }
-                            else
-                            {
-                                throw new ManifestException( "Unknown classpath layout type: '" + layoutType
-                                    + "'. Check your <archive><manifest><layoutType/> element." );
-                            }
-                        }
-                        catch ( InterpolationException e )
-                        {
-                            ManifestException error =
-                                new ManifestException( "Error interpolating artifact path for classpath entry: "
-                                    + e.getMessage() );
-
-                            error.initCause( e );
-                            throw error;
-                        }
-                        finally
-                        {
-                            for ( ValueSource vs : valueSources )
-                            {
-                                interpolator.removeValuesSource( vs );
-                            }
+                            classpath.append( interpolateClasspathLayout( interpolator, effectiveLayout, artifact ) );
                         }
                     }
                 }
@@ -566,7 +485,8 @@ public class MavenArchiver
                 File dir = new File( workingProject.getBuild().getDirectory(), "maven-archiver" );
                 pomPropertiesFile = new File( dir, "pom.properties" );
             }
-            new PomPropertiesUtil().createPomProperties( workingProject, archiver, pomPropertiesFile, forced );
+            new PomPropertiesUtil().createPomProperties( workingProject, archiver, pomPropertiesFile, forced,
+                                                         archiveConfiguration.isReproducible() );
         }
 
         // ----------------------------------------------------------------------
@@ -594,9 +514,10 @@ public class MavenArchiver
         archiver.setDestFile( archiveFile );
 
         // make the archiver index the jars on the classpath, if we are adding that to the manifest
+        List<String> artifacts = null;
         if ( archiveConfiguration.getManifest().isAddClasspath() )
         {
-            List<String> artifacts = project.getRuntimeClasspathElements();
+            artifacts = project.getRuntimeClasspathElements();
             for ( String artifact : artifacts )
             {
                 File f = new File( artifact );
@@ -612,8 +533,38 @@ public class MavenArchiver
             // "Forced build is disabled, but disabling the forced mode isn't supported by the archiver." );
         }
 
+        // skip the archive if its inputs didn't change since it was created
+        ArchiveInputs inputs = null;
+        String inputsDigest = null;
+        if ( !forced && workingProject.getBuild() != null && workingProject.getBuild().getDirectory() != null )
+        {
+            inputs = ArchiveInputs.forArchive( new File( workingProject.getBuild().getDirectory() ), archiveFile );
+            inputsDigest = ArchiveInputs.digest( archiver, manifest, archiveConfiguration, artifacts );
+            if ( inputs.isUpToDate( inputsDigest, archiveFile ) )
+            {
+                return;
+            }
+            if ( inputs.isRecorded() )
+            {
+                // the inputs changed, possibly without a newer timestamp
+                archiver.setForced( true );
+            }
+        }
+
         // create archive
         archiver.createArchive();
+
+        if ( archiveConfiguration.isReproducible() )
+        {
+            Date outputTimestamp = archiveConfiguration.getOutputTimestamp();
+            ArchiveNormalizer.normalize( archiveFile, outputTimestamp != null ? outputTimestamp.getTime()
+                            : ArchiveNormalizer.DEFAULT_TIMESTAMP );
+        }
+
+        if ( inputs != null )
+        {
+            inputs.record( inputsDigest, archiveFile );
+        }
     }
 
     private void addCreatedByEntry( MavenSession session, Manifest m, Map<String, String> entries )
@@ -631,19 +582,110 @@ public class MavenArchiver
         addManifestAttribute( m, entries, "Created-By", createdBy );
     }
 
-    private Artifact findArtifactWithFile( Set<Artifact> artifacts, File file )
+    private String getClasspathLayout( ManifestConfiguration config )
+        throws ManifestException
     {
+        String layoutType = config.getClasspathLayoutType();
+        if ( ManifestConfiguration.CLASSPATH_LAYOUT_TYPE_SIMPLE.equals( layoutType ) )
+        {
+            return config.isUseUniqueVersions() ? SIMPLE_LAYOUT : SIMPLE_LAYOUT_NONUNIQUE;
+        }
+        else if ( ManifestConfiguration.CLASSPATH_LAYOUT_TYPE_REPOSITORY.equals( layoutType ) )
+        {
+            // we use layout /$groupId[0]/../${groupId[n]/$artifactId/$version/{fileName}
+            // here we must find the Artifact in the project Artifacts to generate the maven layout
+            return config.isUseUniqueVersions() ? REPOSITORY_LAYOUT : REPOSITORY_LAYOUT_NONUNIQUE;
+        }
+        else if ( ManifestConfiguration.CLASSPATH_LAYOUT_TYPE_CUSTOM.equals( layoutType ) )
+        {
+            String layout = config.getCustomClasspathLayout();
+            if ( layout == null )
+            {
+                throw new ManifestException( ManifestConfiguration.CLASSPATH_LAYOUT_TYPE_CUSTOM
+                    + " layout type was declared, but custom layout expression was not"
+                    + " specified. Check your <archive><manifest><customLayout/> element." );
+            }
+            return layout;
+        }
+        else
+        {
+            throw new ManifestException( "Unknown classpath layout type: '" + layoutType
+                + "'. Check your <archive><manifest><layoutType/> element." );
+        }
+    }
+
+    private String interpolateClasspathLayout( Interpolator interpolator, String layout, Artifact artifact )
+        throws ManifestException
+    {
+        List<ValueSource> valueSources = new ArrayList<ValueSource>();
+
+        valueSources.add( new PrefixedObjectValueSource( ARTIFACT_EXPRESSION_PREFIXES, artifact, true ) );
+        valueSources.add( new PrefixedObjectValueSource( ARTIFACT_EXPRESSION_PREFIXES, artifact.getArtifactHandler(),
+                                                         true ) );
+
+        Properties extraExpressions = new Properties();
+        // FIXME: This query method SHOULD NOT affect the internal
+        // state of the artifact version, but it does.
+        if ( !artifact.isSnapshot() )
+        {
+            extraExpressions.setProperty( "baseVersion", artifact.getVersion() );
+        }
+
+        extraExpressions.setProperty( "groupIdPath", artifact.getGroupId().replace( '.', '/' ) );
+        if ( StringUtils.isNotEmpty( artifact.getClassifier() ) )
+        {
+            extraExpressions.setProperty( "dashClassifier", "-" + artifact.getClassifier() );
+            extraExpressions.setProperty( "dashClassifier?", "-" + artifact.getClassifier() );
+        }
+        else
+        {
+            extraExpressions.setProperty( "dashClassifier", "" );
+            extraExpressions.setProperty( "dashClassifier?", "" );
+        }
+        valueSources.add( new PrefixedPropertiesValueSource( ARTIFACT_EXPRESSION_PREFIXES, extraExpressions, true ) );
+
+        for ( ValueSource vs : valueSources )
+        {
+            interpolator.addValueSource( vs );
+        }
+
+        RecursionInterceptor recursionInterceptor = new PrefixAwareRecursionInterceptor( ARTIFACT_EXPRESSION_PREFIXES );
+
+        try
+        {
+            return interpolator.interpolate( layout, recursionInterceptor );
+        }
+        catch ( InterpolationException e )
+        {
+            ManifestException error =
+                new ManifestException( "Error interpolating artifact path for classpath entry: " + e.getMessage() );
+
+            error.initCause( e );
+            throw error;
+        }
+        finally
+        {
+            for ( ValueSource vs : valueSources )
+            {
+                interpolator.removeValuesSource( vs );
+            }
+        }
+    }
+
+    /**
+     * Indexes the artifacts by their file. If several artifacts share a file, the first one wins.
+     */
+    private static Map<File, Artifact> indexArtifactsByFile( Set<Artifact> artifacts )
+    {
+        Map<File, Artifact> artifactsByFile = new HashMap<File, Artifact>();
         for ( Artifact artifact : artifacts )
         {
             // normally not null but we can check
-            if ( artifact.getFile() != null )
+            if ( artifact.getFile() != null && !artifactsByFile.containsKey( artifact.getFile() ) )
             {
-                if ( artifact.getFile().equals( file ) )
-                {
-                    return artifact;
-                }
+                artifactsByFile.put( artifact.getFile(), artifact );
             }
         }
-        return null;
+        return artifactsByFile;
     }
 }
@@ -19,6 +19,7 @@ package org.apache.maven.archiver;
  * under the License.
  */
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -68,7 +69,8 @@ public class PomPropertiesUtil
         }
     }
 
-    private void createPropertyFile( Properties properties, File outputFile, boolean forceCreation )
+    private void createPropertyFile( Properties properties, File outputFile, boolean forceCreation,
+                                     boolean reproducible )
         throws IOException
     {
         File outputDir = outputFile.getParentFile();
@@ -83,7 +85,14 @@ public class PomPropertiesUtil
         OutputStream os = new FileOutputStream( outputFile );
         try
         {
-            properties.store( os, GENERATED_BY_MAVEN );
+            if ( reproducible )
+            {
+                os.write( storeWithoutDate( properties ) );
+            }
+            else
+            {
+                properties.store( os, GENERATED_BY_MAVEN );
+            }
             os.close(); // stream is flushed but not closed by Properties.store()
             os = null;
         }
@@ -93,6 +102,20 @@ public class PomPropertiesUtil
         }
     }
 
+    /**
+     * Properties.store() adds the current date as a comment, which would change the file on every build.
+     */
+    private static byte[] storeWithoutDate( Properties properties )
+        throws IOException
+    {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        properties.store( buffer, GENERATED_BY_MAVEN );
+        String text = buffer.toString( "ISO-8859-1" );
+        int dateStart = text.indexOf( '\n' ) + 1;
+        text = text.substring( 0, dateStart ) + text.substring( text.indexOf( '\n', dateStart ) + 1 );
+        return text.getBytes( "ISO-8859-1" );
+    }
+
     /**
      * Creates the pom.properties file.
      * @param project {@link MavenProject}
@@ -105,6 +128,24 @@ public class PomPropertiesUtil
     public void createPomProperties( MavenProject project, Archiver archiver, File pomPropertiesFile,
                                      boolean forceCreation )
         throws ArchiverException, IOException
+    {
+        createPomProperties( project, archiver, pomPropertiesFile, forceCreation, false );
+    }
+
+    /**
+     * Creates the pom.properties file.
+     * @param project {@link MavenProject}
+     * @param archiver {@link Archiver}
+     * @param pomPropertiesFile The pom properties file.
+     * @param forceCreation force creation true/false.
+     * @param reproducible leave out the date comment, so the file only changes with its properties.
+     * @throws ArchiverException archiver exception.
+     * @throws IOException IO exception.
+     * @since 3.0.1
+     */
+    public void createPomProperties( MavenProject project, Archiver archiver, File pomPropertiesFile,
+                                     boolean forceCreation, boolean reproducible )
+        throws ArchiverException, IOException
     {
         final String artifactId = project.getArtifactId();
         final String groupId = project.getGroupId();
@@ -117,7 +158,7 @@ public class PomPropertiesUtil
 
         p.setProperty( "version", project.getVersion() );
 
-        createPropertyFile( p, pomPropertiesFile, forceCreation );
+        createPropertyFile( p, pomPropertiesFile, forceCreation, reproducible );
 
         archiver.addFile( pomPropertiesFile, "META-INF/maven/" + groupId + "/" + artifactId + "/pom.properties" );
     }
@@ -1,20 +1,27 @@
 package org.apache.maven.archiver;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.TimeZone;
 import java.util.TreeSet;
 import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
 
@@ -34,6 +41,7 @@ import org.apache.maven.model.Organization;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.shared.utils.StringUtils;
 import org.apache.maven.shared.utils.io.FileUtils;
+import org.apache.maven.shared.utils.io.IOUtil;
 import org.codehaus.plexus.PlexusContainer;
 import org.codehaus.plexus.archiver.jar.JarArchiver;
 import org.codehaus.plexus.archiver.jar.ManifestException;
@@ -819,6 +827,154 @@ public class MavenArchiverTest
         assertEquals( "org/apache/dummy/bar/dummy3/2.0/TEST-dummy3-2.0.jar", classPathEntries[2] );
     }
 
+    public void testCustomClassPathValue_WithUnknownExpression()
+        throws Exception
+    {
+        MavenSession session = getDummySession();
+        MavenProject project = getDummyProject();
+        MavenArchiver archiver = getMavenArchiver( new JarArchiver() );
+
+        MavenArchiveConfiguration config = new MavenArchiveConfiguration();
+        config.getManifest().setAddClasspath( true );
+        config.getManifest().setClasspathLayoutType( ManifestConfiguration.CLASSPATH_LAYOUT_TYPE_CUSTOM );
+        config.getManifest().setCustomClasspathLayout(
+            "${artifact.groupIdPath}/${artifact.unknown}/${artifactId}-${artifact.version}.${artifact.extension}" );
+        Manifest manifest = archiver.getManifest( session, project, config );
+        String[] classPathEntries =
+            StringUtils.split( new String( manifest.getMainAttributes().getValue( "Class-Path" ).getBytes() ), " " );
+        assertEquals( "org/apache/dummy/${artifact.unknown}/dummy1-1.0.jar", classPathEntries[0] );
+        assertEquals( "org/apache/dummy/foo/${artifact.unknown}/dummy2-1.5.jar", classPathEntries[1] );
+        assertEquals( "org/apache/dummy/bar/${artifact.unknown}/dummy3-2.0.jar", classPathEntries[2] );
+    }
+
+    public void testReproducibleArchive()
+        throws Exception
+    {
+        MavenSession session = getDummySession();
+        MavenProject project = getDummyProject();
+        File jarFile = new File( "target/test/dummy.jar" );
+        File inputFile = new File( "target/test/reproducible/input.txt" );
+        inputFile.getParentFile().mkdirs();
+        FileUtils.fileWrite( inputFile.getPath(), "UTF-8", "some content" );
+
+        MavenArchiveConfiguration config = new MavenArchiveConfiguration();
+        config.setReproducible( true );
+        config.setOutputTimestamp( new Date( 1000000000000L ) );
+
+        JarArchiver jarArchiver = getCleanJarArciver( jarFile );
+        jarArchiver.addFile( inputFile, "z/input.txt" );
+        getMavenArchiver( jarArchiver ).createArchive( session, project, config );
+        byte[] first = readBytes( jarFile );
+
+        inputFile.setLastModified( System.currentTimeMillis() - 120000L );
+        jarArchiver = getCleanJarArciver( jarFile );
+        jarArchiver.addFile( inputFile, "z/input.txt" );
+        getMavenArchiver( jarArchiver ).createArchive( session, project, config );
+        byte[] second = readBytes( jarFile );
+
+        assertTrue( Arrays.equals( first, second ) );
+
+        JarFile jar = new JarFile( jarFile );
+        try
+        {
+            List<String> names = new ArrayList<String>();
+            for ( Enumeration<JarEntry> entries = jar.entries(); entries.hasMoreElements(); )
+            {
+                JarEntry entry = entries.nextElement();
+                names.add( entry.getName() );
+                Calendar time = Calendar.getInstance();
+                time.setTimeInMillis( entry.getTime() );
+                Calendar expected = Calendar.getInstance( TimeZone.getTimeZone( "UTC" ) );
+                expected.setTime( config.getOutputTimestamp() );
+                assertEquals( entry.getName(), expected.get( Calendar.HOUR_OF_DAY ),
+                              time.get( Calendar.HOUR_OF_DAY ) );
+            }
+            assertEquals( "META-INF/", names.get( 0 ) );
+            assertEquals( "META-INF/MANIFEST.MF", names.get( 1 ) );
+            List<String> sorted = new ArrayList<String>( names.subList( 2, names.size() ) );
+            Collections.sort( sorted );
+            assertEquals( sorted, names.subList( 2, names.size() ) );
+            assertEquals( "z/input.txt", names.get( names.size() - 1 ) );
+        }
+        finally
+        {
+            jar.close();
+        }
+    }
+
+    public void testPomPropertiesDateComment()
+        throws Exception
+    {
+        MavenProject project = getDummyProject();
+        File pomPropertiesFile = new File( "target/test/pom-properties/pom.properties" );
+        JarArchiver jarArchiver = getCleanJarArciver( new File( "target/test/dummy.jar" ) );
+
+        new PomPropertiesUtil().createPomProperties( project, jarArchiver, pomPropertiesFile, true );
+        String[] lines = FileUtils.fileRead( pomPropertiesFile, "ISO-8859-1" ).split( "\r?\n" );
+        assertEquals( "#Generated by Apache Maven", lines[0] );
+        assertTrue( lines[1].startsWith( "#" ) );
+
+        new PomPropertiesUtil().createPomProperties( project, jarArchiver, pomPropertiesFile, true, true );
+        lines = FileUtils.fileRead( pomPropertiesFile, "ISO-8859-1" ).split( "\r?\n" );
+        assertEquals( "#Generated by Apache Maven", lines[0] );
+        assertFalse( lines[1].startsWith( "#" ) );
+        assertEquals( 4, lines.length );
+    }
+
+    public void testSkipWhenInputsUnchanged()
+        throws Exception
+    {
+        MavenSession session = getDummySession();
+        MavenProject project = getDummyProject();
+        File jarFile = new File( "target/test/dummy.jar" );
+        File inputFile = new File( "target/test/inputs/input.txt" );
+        inputFile.getParentFile().mkdirs();
+        FileUtils.fileWrite( inputFile.getPath(), "UTF-8", "some content" );
+        FileUtils.deleteDirectory( "target/maven-archiver" );
+
+        MavenArchiveConfiguration config = new MavenArchiveConfiguration();
+        config.setForced( false );
+
+        JarArchiver jarArchiver = getCleanJarArciver( jarFile );
+        jarArchiver.addFile( inputFile, "input.txt" );
+        getMavenArchiver( jarArchiver ).createArchive( session, project, config );
+        assertTrue( jarFile.exists() );
+        long time = System.currentTimeMillis() - 60000L;
+        jarFile.setLastModified( time );
+        time = jarFile.lastModified();
+
+        // a newer timestamp alone doesn't recreate the archive
+        inputFile.setLastModified( System.currentTimeMillis() );
+        jarArchiver = new JarArchiver();
+        jarArchiver.setDestFile( jarFile );
+        jarArchiver.addFile( inputFile, "input.txt" );
+        getMavenArchiver( jarArchiver ).createArchive( session, project, config );
+        assertEquals( time, jarFile.lastModified() );
+
+        // changed content does, even with an older timestamp
+        FileUtils.fileWrite( inputFile.getPath(), "UTF-8", "other content" );
+        inputFile.setLastModified( time - 60000L );
+        jarArchiver = new JarArchiver();
+        jarArchiver.setDestFile( jarFile );
+        jarArchiver.addFile( inputFile, "input.txt" );
+        getMavenArchiver( jarArchiver ).createArchive( session, project, config );
+        assertTrue( jarFile.lastModified() > time );
+    }
+
+    private static byte[] readBytes( File file )
+        throws IOException
+    {
+        InputStream in = new FileInputStream( file );
+        try
+        {
+            return IOUtil.toByteArray( in );
+        }
+        finally
+        {
+            IOUtil.close( in );
+        }
+    }
+
     private JarArchiver getCleanJarArciver( File jarFile )
     {
         deleteAndAssertNotPresent( jarFile );
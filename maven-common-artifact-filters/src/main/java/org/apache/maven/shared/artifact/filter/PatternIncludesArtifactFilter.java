@@ -46,6 +46,10 @@ public class PatternIncludesArtifactFilter
 
     private final List<String> negativePatterns;
 
+    private final List<ArtifactPattern> positiveMatchers;
+
+    private final List<ArtifactPattern> negativeMatchers;
+
     private final boolean actTransitively;
 
     private final Set<String> patternsTriggered = new HashSet<String>();
@@ -86,6 +90,18 @@ public class PatternIncludesArtifactFilter
 
         positivePatterns = pos;
         negativePatterns = neg;
+        positiveMatchers = compile( pos );
+        negativeMatchers = compile( neg );
+    }
+
+    private static List<ArtifactPattern> compile( final List<String> patterns )
+    {
+        final List<ArtifactPattern> matchers = new ArrayList<ArtifactPattern>( patterns.size() );
+        for ( String pattern : patterns )
+        {
+            matchers.add( new ArtifactPattern( pattern ) );
+        }
+        return matchers;
     }
 
     /** {@inheritDoc} */
@@ -120,13 +136,13 @@ public class PatternIncludesArtifactFilter
 
     private Boolean negativeMatch( final Artifact artifact )
     {
-        if ( negativePatterns == null || negativePatterns.isEmpty() )
+        if ( negativeMatchers.isEmpty() )
         {
             return null;
         }
         else
         {
-            return match( artifact, negativePatterns );
+            return match( new ArtifactIds( artifact ), negativeMatchers );
         }
     }
 
@@ -136,46 +152,48 @@ public class PatternIncludesArtifactFilter
      */
     protected Boolean positiveMatch( final Artifact artifact )
     {
-        if ( positivePatterns == null || positivePatterns.isEmpty() )
+        if ( positiveMatchers.isEmpty() )
         {
             return null;
         }
         else
         {
-            return match( artifact, positivePatterns );
+            return positiveMatch( new ArtifactIds( artifact ) );
         }
     }
 
-    private boolean match( final Artifact artifact, final List<String> patterns )
+    private boolean positiveMatch( final ArtifactIds ids )
     {
-        final String shortId = ArtifactUtils.versionlessKey( artifact );
-        final String id = artifact.getDependencyConflictId();
-        final String wholeId = artifact.getId();
+        return match( ids, positiveMatchers );
+    }
 
-        if ( matchAgainst( wholeId, patterns, false ) )
+    private boolean match( final ArtifactIds ids, final List<ArtifactPattern> patterns )
+    {
+        if ( matchAgainst( ids.wholeId, ids.wholeIdTokens, patterns, false ) )
         {
             return true;
         }
 
-        if ( matchAgainst( id, patterns, false ) )
+        if ( matchAgainst( ids.id, ids.idTokens, patterns, false ) )
         {
             return true;
         }
 
-        if ( matchAgainst( shortId, patterns, false ) )
+        if ( matchAgainst( ids.shortId, ids.shortIdTokens, patterns, false ) )
         {
             return true;
         }
 
         if ( actTransitively )
         {
-            final List<String> depTrail = artifact.getDependencyTrail();
+            final List<String> depTrail = ids.getDependencyTrail();
 
             if ( depTrail != null && depTrail.size() > 1 )
             {
-                for ( String trailItem : depTrail )
+                final String[][] trailTokens = ids.getDependencyTrailTokens();
+                for ( int i = 0; i < trailTokens.length; i++ )
                 {
-                    if ( matchAgainst( trailItem, patterns, true ) )
+                    if ( matchAgainst( depTrail.get( i ), trailTokens[i], patterns, true ) )
                     {
                         return true;
                     }
@@ -186,136 +204,263 @@ public class PatternIncludesArtifactFilter
         return false;
     }
 
-    private boolean matchAgainst( final String value, final List<String> patterns, final boolean regionMatch )
+    private boolean matchAgainst( final String value, final String[] tokens, final List<ArtifactPattern> patterns,
+                                  final boolean regionMatch )
     {
-        final String[] tokens = value.split( ":" );
-        for ( String pattern : patterns )
+        for ( ArtifactPattern pattern : patterns )
         {
-            final String[] patternTokens = pattern.split( ":" );
-
-            // fail immediately if pattern tokens outnumber tokens to match
-            boolean matched = patternTokens.length <= tokens.length;
-
-            for ( int i = 0; matched && i < patternTokens.length; i++ )
+            if ( pattern.matches( tokens ) || ( regionMatch && value.contains( pattern.pattern ) ) )
             {
-                matched = matches( tokens[i], patternTokens[i] );
+                patternsTriggered.add( pattern.pattern );
+                return true;
             }
+        }
+        return false;
+    }
 
-            // case of starting '*' like '*:jar:*'
-            // This really only matches from the end instead.....
-            if ( !matched && patternTokens.length < tokens.length && isFirstPatternWildcard( patternTokens ) )
-            {
-                matched = true;
-                int tokenOffset = tokens.length - patternTokens.length;
-                for ( int i = 0; matched && i < patternTokens.length; i++ )
-                {
-                    matched = matches( tokens[i + tokenOffset], patternTokens[i] );
-                }
-            }
+    /**
+     * The ids of an artifact, split into their tokens once for all patterns.
+     */
+    private static final class ArtifactIds
+    {
+        private final Artifact artifact;
+
+        private final String wholeId;
+
+        private final String[] wholeIdTokens;
+
+        private final String id;
+
+        private final String[] idTokens;
 
-            if ( matched )
+        private final String shortId;
+
+        private final String[] shortIdTokens;
+
+        private List<String> dependencyTrail;
+
+        private String[][] dependencyTrailTokens;
+
+        ArtifactIds( final Artifact artifact )
+        {
+            this.artifact = artifact;
+            this.wholeId = artifact.getId();
+            this.wholeIdTokens = wholeId.split( ":" );
+            this.id = artifact.getDependencyConflictId();
+            this.idTokens = id.split( ":" );
+            this.shortId = ArtifactUtils.versionlessKey( artifact );
+            this.shortIdTokens = shortId.split( ":" );
+        }
+
+        List<String> getDependencyTrail()
+        {
+            if ( dependencyTrail == null )
             {
-                patternsTriggered.add( pattern );
-                return true;
+                dependencyTrail = artifact.getDependencyTrail();
             }
+            return dependencyTrail;
+        }
 
-            if ( regionMatch && value.contains( pattern ) )
+        String[][] getDependencyTrailTokens()
+        {
+            if ( dependencyTrailTokens == null )
             {
-                patternsTriggered.add( pattern );
-                return true;
+                final List<String> trail = getDependencyTrail();
+                dependencyTrailTokens = new String[trail.size()][];
+                for ( int i = 0; i < dependencyTrailTokens.length; i++ )
+                {
+                    dependencyTrailTokens[i] = trail.get( i ).split( ":" );
+                }
             }
-
+            return dependencyTrailTokens;
         }
-        return false;
-
-    }
-
-    private boolean isFirstPatternWildcard( String[] patternTokens )
-    {
-        return patternTokens.length > 0 && "*".equals( patternTokens[0] );
     }
 
     /**
-     * Gets whether the specified token matches the specified pattern segment.
-     * 
-     * @param token the token to check
-     * @param pattern the pattern segment to match, as defined above
-     * @return <code>true</code> if the specified token is matched by the specified pattern segment
+     * A pattern split into its segments, each compiled into a {@link TokenMatcher}.
      */
-    private boolean matches( final String token, final String pattern )
+    private static final class ArtifactPattern
     {
-        boolean matches;
+        private final String pattern;
 
-        // support full wildcard and implied wildcard
-        if ( "*".equals( pattern ) || pattern.length() == 0 )
+        private final TokenMatcher[] matchers;
+
+        private final boolean firstWildcard;
+
+        ArtifactPattern( final String pattern )
         {
-            matches = true;
+            this.pattern = pattern;
+            final String[] patternTokens = pattern.split( ":" );
+            this.matchers = new TokenMatcher[patternTokens.length];
+            for ( int i = 0; i < patternTokens.length; i++ )
+            {
+                matchers[i] = TokenMatcher.compile( patternTokens[i] );
+            }
+            this.firstWildcard = patternTokens.length > 0 && "*".equals( patternTokens[0] );
         }
-        // support contains wildcard
-        else if ( pattern.startsWith( "*" ) && pattern.endsWith( "*" ) )
-        {
-            final String contains = pattern.substring( 1, pattern.length() - 1 );
 
-            matches = token.contains( contains );
-        }
-        // support leading wildcard
-        else if ( pattern.startsWith( "*" ) )
+        boolean matches( final String[] tokens )
         {
-            final String suffix = pattern.substring( 1, pattern.length() );
+            // fail immediately if pattern tokens outnumber tokens to match
+            if ( matchers.length > tokens.length )
+            {
+                return false;
+            }
 
-            matches = token.endsWith( suffix );
-        }
-        // support trailing wildcard
-        else if ( pattern.endsWith( "*" ) )
-        {
-            final String prefix = pattern.substring( 0, pattern.length() - 1 );
+            if ( matches( tokens, 0 ) )
+            {
+                return true;
+            }
 
-            matches = token.startsWith( prefix );
+            // case of starting '*' like '*:jar:*'
+            // This really only matches from the end instead.....
+            return firstWildcard && matchers.length < tokens.length
+                && matches( tokens, tokens.length - matchers.length );
         }
-        // support wildcards in the middle of a pattern segment
-        else if ( pattern.indexOf( '*' ) > -1 )
-        {
-            String[] parts = pattern.split( "\\*" );
-            int lastPartEnd = -1;
-            boolean match = true;
 
-            for ( String part : parts )
+        private boolean matches( final String[] tokens, final int tokenOffset )
+        {
+            for ( int i = 0; i < matchers.length; i++ )
             {
-                int idx = token.indexOf( part );
-                if ( idx <= lastPartEnd )
+                if ( !matchers[i].matches( tokens[i + tokenOffset] ) )
                 {
-                    match = false;
-                    break;
+                    return false;
                 }
-
-                lastPartEnd = idx + part.length();
             }
-
-            matches = match;
-        }
-        // support versions range
-        else if ( pattern.startsWith( "[" ) || pattern.startsWith( "(" ) )
-        {
-            matches = isVersionIncludedInRange( token, pattern );
-        }
-        // support exact match
-        else
-        {
-            matches = token.equals( pattern );
+            return true;
         }
-
-        return matches;
     }
 
-    private boolean isVersionIncludedInRange( final String version, final String range )
+    /**
+     * Gets whether a token matches a pattern segment. The segment is classified once, when the pattern is compiled.
+     */
+    private abstract static class TokenMatcher
     {
-        try
+        private static final TokenMatcher ANY = new TokenMatcher()
         {
-            return VersionRange.createFromVersionSpec( range ).containsVersion( new DefaultArtifactVersion( version ) );
-        }
-        catch ( final InvalidVersionSpecificationException e )
+            @Override
+            boolean matches( final String token )
+            {
+                return true;
+            }
+        };
+
+        /**
+         * @param token the token to check
+         * @return <code>true</code> if the specified token is matched by the pattern segment
+         */
+        abstract boolean matches( String token );
+
+        static TokenMatcher compile( final String pattern )
         {
-            return false;
+            // support full wildcard and implied wildcard
+            if ( "*".equals( pattern ) || pattern.length() == 0 )
+            {
+                return ANY;
+            }
+            // support contains wildcard
+            else if ( pattern.startsWith( "*" ) && pattern.endsWith( "*" ) )
+            {
+                final String contains = pattern.substring( 1, pattern.length() - 1 );
+                return new TokenMatcher()
+                {
+                    @Override
+                    boolean matches( final String token )
+                    {
+                        return token.contains( contains );
+                    }
+                };
+            }
+            // support leading wildcard
+            else if ( pattern.startsWith( "*" ) )
+            {
+                final String suffix = pattern.substring( 1 );
+                return new TokenMatcher()
+                {
+                    @Override
+                    boolean matches( final String token )
+                    {
+                        return token.endsWith( suffix );
+                    }
+                };
+            }
+            // support trailing wildcard
+            else if ( pattern.endsWith( "*" ) )
+            {
+                final String prefix = pattern.substring( 0, pattern.length() - 1 );
+                return new TokenMatcher()
+                {
+                    @Override
+                    boolean matches( final String token )
+                    {
+                        return token.startsWith( prefix );
+                    }
+                };
+            }
+            // support wildcards in the middle of a pattern segment
+            else if ( pattern.indexOf( '*' ) > -1 )
+            {
+                final String[] parts = pattern.split( "\\*" );
+                return new TokenMatcher()
+                {
+                    @Override
+                    boolean matches( final String token )
+                    {
+                        int lastPartEnd = -1;
+                        for ( String part : parts )
+                        {
+                            int idx = token.indexOf( part );
+                            if ( idx <= lastPartEnd )
+                            {
+                                return false;
+                            }
+
+                            lastPartEnd = idx + part.length();
+                        }
+                        return true;
+                    }
+                };
+            }
+            // support versions range
+            else if ( pattern.startsWith( "[" ) || pattern.startsWith( "(" ) )
+            {
+                final VersionRange range;
+                try
+                {
+                    range = VersionRange.createFromVersionSpec( pattern );
+                }
+                catch ( final InvalidVersionSpecificationException e )
+                {
+                    return new TokenMatcher()
+                    {
+                        @Override
+                        boolean matches( final String token )
+                        {
+                            return false;
+                        }
+                    };
+                }
+                return new TokenMatcher()
+                {
+                    @Override
+                    boolean matches( final String token )
+                    {
+                        return range.containsVersion( new DefaultArtifactVersion( token ) );
+                    }
+                };
+            }
+            // support exact match
+            else
+            {
+                return new TokenMatcher()
+                {
+                    @Override
+                    boolean matches( final String token )
+                    {
+                        return token.equals( pattern );
+                    }
+                };
+            }
         }
     }
 
@@ -429,6 +429,32 @@ public abstract class AbstractPatternArtifactFilterTest
         verify( mac.getMock() );
     }
 
+    public void testShouldIncludeWhenVersionIsInRange()
+    {
+        final ArtifactMockAndControl mac = new ArtifactMockAndControl( "group", "artifact" );
+
+        replay( mac.getMock() );
+
+        final ArtifactFilter filter = createFilter( Collections.singletonList( "group:artifact:jar:(,1.0]" ) );
+
+        assertEquals( isInclusionExpected(), filter.include( mac.artifact ) );
+
+        verify( mac.getMock() );
+    }
+
+    public void testShouldNotIncludeWhenVersionRangeIsInvalid()
+    {
+        final ArtifactMockAndControl mac = new ArtifactMockAndControl( "group", "artifact" );
+
+        replay( mac.getMock() );
+
+        final ArtifactFilter filter = createFilter( Collections.singletonList( "group:artifact:jar:[1.0" ) );
+
+        assertEquals( !isInclusionExpected(), filter.include( mac.artifact ) );
+
+        verify( mac.getMock() );
+    }
+
     public void testShouldIncludeTransitiveDependencyWhenWildcardMatchesButDoesntMatchParent()
     {
         final String groupId = "group";
@@ -19,9 +19,14 @@ package org.apache.maven.shared.artifact.filter;
  * under the License.
  */
 
+import java.util.Collections;
 import java.util.List;
 
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
 import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.artifact.versioning.VersionRange;
 
 public class PatternIncludesArtifactFilterTest
     extends AbstractPatternArtifactFilterTest
@@ -43,4 +48,33 @@ public class PatternIncludesArtifactFilterTest
     {
         return true;
     }
+
+    public void testPatternMatchesUsesOverriddenPositiveMatch()
+    {
+        final Artifact artifact =
+            new DefaultArtifact( "group", "artifact", VersionRange.createFromVersion( "1.0" ), "compile", "jar", null,
+                                 new DefaultArtifactHandler() );
+
+        final ArtifactFilter includeAll =
+            new PatternIncludesArtifactFilter( Collections.singletonList( "other:other" ) )
+            {
+                @Override
+                protected Boolean positiveMatch( final Artifact a )
+                {
+                    return Boolean.TRUE;
+                }
+            };
+        final ArtifactFilter includeNone =
+            new PatternIncludesArtifactFilter( Collections.singletonList( "group:artifact" ) )
+            {
+                @Override
+                protected Boolean positiveMatch( final Artifact a )
+                {
+                    return Boolean.FALSE;
+                }
+            };
+
+        assertTrue( includeAll.include( artifact ) );
+        assertFalse( includeNone.include( artifact ) );
+    }
 }
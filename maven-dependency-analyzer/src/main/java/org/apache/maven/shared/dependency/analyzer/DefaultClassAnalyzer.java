@@ -19,7 +19,9 @@ package org.apache.maven.shared.dependency.analyzer;
  * under the License.
  */
 
+import java.io.File;
 import java.io.IOException;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.Set;
 import java.util.zip.ZipException;
@@ -36,10 +38,66 @@ import org.codehaus.plexus.component.annotations.Component;
 public class DefaultClassAnalyzer
     implements ClassAnalyzer
 {
+    // fields -----------------------------------------------------------------
+
+    private JarClassesCache jarClassesCache;
+
     // ClassAnalyzer methods --------------------------------------------------
 
     public Set<String> analyze( URL url )
         throws IOException
+    {
+        JarClassesCache cache = jarClassesCache;
+        File jar = cache == null ? null : toJarFile( url );
+        if ( jar == null )
+        {
+            return collectClasses( url );
+        }
+
+        Set<String> classes = cache.get( jar );
+        if ( classes == null )
+        {
+            classes = collectClasses( url );
+            cache.put( jar, classes );
+        }
+        return classes;
+    }
+
+    // public methods ---------------------------------------------------------
+
+    /**
+     * Sets the directory to cache the classes contained in jars in, so a jar is only read again when its path, size or
+     * modification time changed. No cache is used by default.
+     *
+     * @param cacheDirectory the cache directory, or <code>null</code> to read every jar
+     */
+    public void setCacheDirectory( File cacheDirectory )
+    {
+        this.jarClassesCache = cacheDirectory == null ? null : new JarClassesCache( cacheDirectory );
+    }
+
+    // private methods --------------------------------------------------------
+
+    private static File toJarFile( URL url )
+    {
+        if ( !url.getProtocol().equalsIgnoreCase( "file" ) || !url.getPath().endsWith( ".jar" ) )
+        {
+            return null;
+        }
+
+        try
+        {
+            File file = new File( url.toURI() );
+            return file.isFile() ? file : null;
+        }
+        catch ( URISyntaxException exception )
+        {
+            return null;
+        }
+    }
+
+    private Set<String> collectClasses( URL url )
+        throws IOException
     {
         CollectorClassFileVisitor visitor = new CollectorClassFileVisitor();
 
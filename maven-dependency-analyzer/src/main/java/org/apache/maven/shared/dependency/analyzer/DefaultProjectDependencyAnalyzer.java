@@ -21,14 +21,21 @@ package org.apache.maven.shared.dependency.analyzer;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.net.URL;
 import java.util.Collections;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
@@ -59,6 +66,21 @@ public class DefaultProjectDependencyAnalyzer
     @Requirement
     private DependencyAnalyzer dependencyAnalyzer;
 
+    /**
+     * The maximum number of artifacts indexed concurrently.
+     */
+    private int parallelism = 1;
+
+    /**
+     * The cache of the classes contained in dependency jars, if any.
+     */
+    private JarClassesCache jarClassesCache;
+
+    /**
+     * Whether a subclass overrides {@link #findArtifactForClassName(Map, String)}, so the lookup goes through it.
+     */
+    private final boolean findArtifactForClassNameOverridden = overridesFindArtifactForClassName( getClass() );
+
     // ProjectDependencyAnalyzer methods --------------------------------------
 
     /*
@@ -95,6 +117,45 @@ public class DefaultProjectDependencyAnalyzer
         }
     }
 
+    // public methods ---------------------------------------------------------
+
+    /**
+     * @return the maximum number of artifacts indexed concurrently
+     */
+    public int getParallelism()
+    {
+        return parallelism;
+    }
+
+    /**
+     * Sets the maximum number of artifacts indexed concurrently, <code>1</code> by default. With a value greater than
+     * <code>1</code> the {@link ClassAnalyzer} is called from several threads. The analysis result doesn't depend on
+     * the parallelism.
+     *
+     * @param parallelism the maximum number of artifacts indexed concurrently, at least <code>1</code>
+     * @see org.apache.maven.shared.dependency.analyzer.asm.ASMDependencyAnalyzer#setParallelism(int)
+     */
+    public void setParallelism( int parallelism )
+    {
+        if ( parallelism < 1 )
+        {
+            throw new IllegalArgumentException( "parallelism must be at least 1: " + parallelism );
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sets the directory to cache the classes contained in dependency jars in, so a jar is only read again when its
+     * path, size or modification time changed. No cache is used by default.
+     *
+     * @param cacheDirectory the cache directory, or <code>null</code> to read every jar
+     * @see DefaultClassAnalyzer#setCacheDirectory(File)
+     */
+    public void setCacheDirectory( File cacheDirectory )
+    {
+        this.jarClassesCache = cacheDirectory == null ? null : new JarClassesCache( cacheDirectory );
+    }
+
     /**
      * This method defines a new way to remove the artifacts by using the conflict id. We don't care about the version
      * here because there can be only 1 for a given artifact anyway.
@@ -105,22 +166,18 @@ public class DefaultProjectDependencyAnalyzer
      */
     private Set<Artifact> removeAll( Set<Artifact> start, Set<Artifact> remove )
     {
-        Set<Artifact> results = new LinkedHashSet<Artifact>( start.size() );
+        Set<String> removeConflictIds = new HashSet<String>( remove.size() * 2 );
 
-        for ( Artifact artifact : start )
+        for ( Artifact artifact : remove )
         {
-            boolean found = false;
+            removeConflictIds.add( artifact.getDependencyConflictId() );
+        }
 
-            for ( Artifact artifact2 : remove )
-            {
-                if ( artifact.getDependencyConflictId().equals( artifact2.getDependencyConflictId() ) )
-                {
-                    found = true;
-                    break;
-                }
-            }
+        Set<Artifact> results = new LinkedHashSet<Artifact>( start.size() );
 
-            if ( !found )
+        for ( Artifact artifact : start )
+        {
+            if ( !removeConflictIds.contains( artifact.getDependencyConflictId() ) )
             {
                 results.add( artifact );
             }
@@ -139,56 +196,196 @@ public class DefaultProjectDependencyAnalyzer
         @SuppressWarnings( "unchecked" )
         Set<Artifact> dependencyArtifacts = project.getArtifacts();
 
+        if ( parallelism > 1 && dependencyArtifacts.size() > 1 )
+        {
+            return buildArtifactClassMapConcurrently( dependencyArtifacts );
+        }
+
         for ( Artifact artifact : dependencyArtifacts )
         {
-            File file = artifact.getFile();
+            Set<String> classes = buildArtifactClasses( artifact.getFile() );
 
-            if ( file != null && file.getName().endsWith( ".jar" ) )
+            if ( classes != null )
             {
-                // optimized solution for the jar case
-                JarFile jarFile = new JarFile( file );
+                artifactClassMap.put( artifact, classes );
+            }
+        }
 
-                try
-                {
-                    Enumeration<JarEntry> jarEntries = jarFile.entries();
+        return artifactClassMap;
+    }
 
-                    Set<String> classes = new HashSet<String>();
+    /*
+     * Each artifact is indexed by its own task, the results are put in the map in artifact order so the map is the
+     * same as the one built sequentially.
+     */
+    private Map<Artifact, Set<String>> buildArtifactClassMapConcurrently( Set<Artifact> dependencyArtifacts )
+        throws IOException
+    {
+        Map<Artifact, Set<String>> artifactClassMap = new LinkedHashMap<Artifact, Set<String>>();
 
-                    while ( jarEntries.hasMoreElements() )
+        ExecutorService executor = Executors.newFixedThreadPool( Math.min( parallelism, dependencyArtifacts.size() ) );
+        try
+        {
+            Map<Artifact, Future<Set<String>>> results = new LinkedHashMap<Artifact, Future<Set<String>>>();
+
+            for ( final Artifact artifact : dependencyArtifacts )
+            {
+                results.put( artifact, executor.submit( new Callable<Set<String>>()
+                {
+                    public Set<String> call()
+                        throws IOException
                     {
-                        String entry = jarEntries.nextElement().getName();
-                        if ( entry.endsWith( ".class" ) )
-                        {
-                            String className = entry.replace( '/', '.' );
-                            className = className.substring( 0, className.length() - ".class".length() );
-                            classes.add( className );
-                        }
+                        return buildArtifactClasses( artifact.getFile() );
                     }
+                } ) );
+            }
+
+            for ( Map.Entry<Artifact, Future<Set<String>>> result : results.entrySet() )
+            {
+                Set<String> classes = getResult( result.getValue() );
 
-                    artifactClassMap.put( artifact, classes );
+                if ( classes != null )
+                {
+                    artifactClassMap.put( result.getKey(), classes );
                 }
-                finally
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        return artifactClassMap;
+    }
+
+    private static <T> T getResult( Future<T> future )
+        throws IOException
+    {
+        try
+        {
+            return future.get();
+        }
+        catch ( InterruptedException exception )
+        {
+            Thread.currentThread().interrupt();
+            InterruptedIOException e = new InterruptedIOException( "Interrupted while analyzing dependencies" );
+            e.initCause( exception );
+            throw e;
+        }
+        catch ( ExecutionException exception )
+        {
+            Throwable cause = exception.getCause();
+            if ( cause instanceof IOException )
+            {
+                throw (IOException) cause;
+            }
+            if ( cause instanceof RuntimeException )
+            {
+                throw (RuntimeException) cause;
+            }
+            if ( cause instanceof Error )
+            {
+                throw (Error) cause;
+            }
+            IOException e = new IOException( "Cannot analyze dependencies" );
+            e.initCause( cause );
+            throw e;
+        }
+    }
+
+    /**
+     * @param file the file of an artifact
+     * @return the classes contained in the artifact, or <code>null</code> if it is neither a jar nor a directory
+     * @throws IOException if the artifact can't be read
+     */
+    private Set<String> buildArtifactClasses( File file )
+        throws IOException
+    {
+        if ( file != null && file.getName().endsWith( ".jar" ) )
+        {
+            JarClassesCache cache = jarClassesCache;
+            Set<String> classes = cache == null ? null : cache.get( file );
+            if ( classes == null )
+            {
+                classes = buildJarClasses( file );
+                if ( cache != null )
                 {
-                    try
-                    {
-                        jarFile.close();
-                    }
-                    catch ( IOException ignore )
-                    {
-                        // ingore
-                    }
+                    cache.put( file, classes );
                 }
             }
-            else if ( file != null && file.isDirectory() )
+            return classes;
+        }
+        else if ( file != null && file.isDirectory() )
+        {
+            URL url = file.toURI().toURL();
+
+            return classAnalyzer.analyze( url );
+        }
+
+        return null;
+    }
+
+    private Set<String> buildJarClasses( File file )
+        throws IOException
+    {
+        // optimized solution for the jar case
+        JarFile jarFile = new JarFile( file );
+
+        try
+        {
+            Enumeration<JarEntry> jarEntries = jarFile.entries();
+
+            Set<String> classes = new HashSet<String>();
+
+            while ( jarEntries.hasMoreElements() )
             {
-                URL url = file.toURI().toURL();
-                Set<String> classes = classAnalyzer.analyze( url );
+                String entry = jarEntries.nextElement().getName();
+                if ( entry.endsWith( ".class" ) )
+                {
+                    String className = entry.replace( '/', '.' );
+                    className = className.substring( 0, className.length() - ".class".length() );
+                    classes.add( className );
+                }
+            }
 
-                artifactClassMap.put( artifact, classes );
+            return classes;
+        }
+        finally
+        {
+            try
+            {
+                jarFile.close();
+            }
+            catch ( IOException ignore )
+            {
+                // ingore
             }
         }
+    }
 
-        return artifactClassMap;
+    /**
+     * Inverts the artifact class map, so the artifact of a class is found with a single lookup. A class contained in
+     * several artifacts is mapped to the first of them, as {@link #findArtifactForClassName(Map, String)} does.
+     *
+     * @param artifactClassMap the classes of each artifact
+     * @return the artifact of each class
+     */
+    private static Map<String, Artifact> buildClassArtifactMap( Map<Artifact, Set<String>> artifactClassMap )
+    {
+        Map<String, Artifact> classArtifactMap = new HashMap<String, Artifact>();
+
+        for ( Map.Entry<Artifact, Set<String>> entry : artifactClassMap.entrySet() )
+        {
+            for ( String className : entry.getValue() )
+            {
+                if ( !classArtifactMap.containsKey( className ) )
+                {
+                    classArtifactMap.put( className, entry.getKey() );
+                }
+            }
+        }
+
+        return classArtifactMap;
     }
 
     protected Set<String> buildDependencyClasses( MavenProject project )
@@ -226,14 +423,25 @@ public class DefaultProjectDependencyAnalyzer
         return declaredArtifacts;
     }
 
-    private Set<Artifact> buildUsedArtifacts( Map<Artifact, Set<String>> artifactClassMap,
-                                              Set<String> dependencyClasses )
+    /**
+     * Finds the artifacts of the referenced classes with a single lookup per class in the inverted artifact class map,
+     * unless a subclass overrides {@link #findArtifactForClassName(Map, String)}, which is then asked for every class.
+     *
+     * @param artifactClassMap the classes of each artifact
+     * @param dependencyClasses the referenced classes
+     * @return the artifacts containing any of the referenced classes
+     */
+    Set<Artifact> buildUsedArtifacts( Map<Artifact, Set<String>> artifactClassMap, Set<String> dependencyClasses )
     {
+        Map<String, Artifact> classArtifactMap =
+            findArtifactForClassNameOverridden ? null : buildClassArtifactMap( artifactClassMap );
+
         Set<Artifact> usedArtifacts = new HashSet<Artifact>();
 
         for ( String className : dependencyClasses )
         {
-            Artifact artifact = findArtifactForClassName( artifactClassMap, className );
+            Artifact artifact = classArtifactMap != null ? classArtifactMap.get( className )
+                            : findArtifactForClassName( artifactClassMap, className );
 
             if ( artifact != null )
             {
@@ -244,6 +452,14 @@ public class DefaultProjectDependencyAnalyzer
         return usedArtifacts;
     }
 
+    /**
+     * Finds the artifact containing a class, the first one in the map if several do. The analysis only calls this when
+     * a subclass overrides it, otherwise it looks the classes up in an inverted index giving the same result.
+     *
+     * @param artifactClassMap the classes of each artifact
+     * @param className the class to look up
+     * @return the artifact containing the class, or <code>null</code> if none does
+     */
     protected Artifact findArtifactForClassName( Map<Artifact, Set<String>> artifactClassMap, String className )
     {
         for ( Map.Entry<Artifact, Set<String>> entry : artifactClassMap.entrySet() )
@@ -256,4 +472,21 @@ public class DefaultProjectDependencyAnalyzer
 
         return null;
     }
+
+    private static boolean overridesFindArtifactForClassName( Class<?> type )
+    {
+        for ( Class<?> c = type; c != DefaultProjectDependencyAnalyzer.class; c = c.getSuperclass() )
+        {
+            try
+            {
+                c.getDeclaredMethod( "findArtifactForClassName", Map.class, String.class );
+                return true;
+            }
+            catch ( NoSuchMethodException e )
+            {
+                // not overridden at this level
+            }
+        }
+        return false;
+    }
 }
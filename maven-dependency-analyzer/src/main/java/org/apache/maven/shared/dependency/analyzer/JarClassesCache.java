@@ -0,0 +1,190 @@
+package org.apache.maven.shared.dependency.analyzer;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * Stores the class names contained in jar files, so a jar which didn't change since it was indexed doesn't have to
+ * be read again. A jar is considered unchanged as long as its path, size and modification time are the same, which
+ * always holds for the released artifacts of a local repository. Jars modified less than two seconds before being
+ * indexed are not cached, as a file system with a coarse timestamp resolution could not tell a later change.
+ * <p/>
+ * Each jar gets its own small binary file holding its sorted class names. The files are replaced atomically, so the
+ * cache can be shared by concurrent builds. An unreadable or outdated file is treated as missing.
+ *
+ * @see #get(File)
+ * @see #put(File, Set)
+ */
+final class JarClassesCache
+{
+    // constants --------------------------------------------------------------
+
+    private static final int MAGIC = 0x4A434943;
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final long TIMESTAMP_GRANULARITY = 2000L;
+
+    // fields -----------------------------------------------------------------
+
+    private final File directory;
+
+    // constructors -----------------------------------------------------------
+
+    /**
+     * @param directory the directory the cache files are stored in, created when needed
+     */
+    JarClassesCache( File directory )
+    {
+        this.directory = directory;
+    }
+
+    // public methods ---------------------------------------------------------
+
+    /**
+     * @param jar the jar file
+     * @return the names of the classes contained in the jar, or <code>null</code> if the cache doesn't hold them
+     */
+    Set<String> get( File jar )
+    {
+        File cacheFile = getCacheFile( jar );
+        if ( !cacheFile.isFile() )
+        {
+            return null;
+        }
+
+        DataInputStream in = null;
+        try
+        {
+            in = new DataInputStream( new BufferedInputStream( new FileInputStream( cacheFile ) ) );
+            if ( in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION
+                || !in.readUTF().equals( jar.getAbsolutePath() ) || in.readLong() != jar.length()
+                || in.readLong() != jar.lastModified() )
+            {
+                return null;
+            }
+
+            int count = in.readInt();
+            if ( count < 0 )
+            {
+                return null;
+            }
+
+            Set<String> classes = new HashSet<String>( count * 4 / 3 + 1 );
+            for ( int i = 0; i < count; i++ )
+            {
+                classes.add( in.readUTF() );
+            }
+            return classes;
+        }
+        catch ( IOException exception )
+        {
+            // unreadable or truncated, index the jar again
+            return null;
+        }
+        finally
+        {
+            IOUtil.close( in );
+        }
+    }
+
+    /**
+     * Stores the class names of a jar. Failing to write the cache is not an error, the jar will be indexed again.
+     *
+     * @param jar the jar file
+     * @param classes the names of the classes contained in the jar
+     */
+    void put( File jar, Set<String> classes )
+    {
+        if ( System.currentTimeMillis() - jar.lastModified() < TIMESTAMP_GRANULARITY )
+        {
+            return;
+        }
+
+        if ( !directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory() )
+        {
+            return;
+        }
+
+        String[] sortedClasses = classes.toArray( new String[classes.size()] );
+        Arrays.sort( sortedClasses );
+
+        File tempFile = null;
+        DataOutputStream out = null;
+        try
+        {
+            tempFile = File.createTempFile( "classes", ".tmp", directory );
+            out = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( tempFile ) ) );
+            out.writeInt( MAGIC );
+            out.writeInt( FORMAT_VERSION );
+            out.writeUTF( jar.getAbsolutePath() );
+            out.writeLong( jar.length() );
+            out.writeLong( jar.lastModified() );
+            out.writeInt( sortedClasses.length );
+            for ( String className : sortedClasses )
+            {
+                out.writeUTF( className );
+            }
+            out.close();
+            out = null;
+
+            File cacheFile = getCacheFile( jar );
+            if ( !tempFile.renameTo( cacheFile ) )
+            {
+                // some platforms can't rename over an existing file
+                cacheFile.delete();
+                tempFile.renameTo( cacheFile );
+            }
+        }
+        catch ( IOException exception )
+        {
+            // the cache is only an optimization
+        }
+        finally
+        {
+            IOUtil.close( out );
+            if ( tempFile != null && tempFile.exists() )
+            {
+                tempFile.delete();
+            }
+        }
+    }
+
+    // private methods --------------------------------------------------------
+
+    private File getCacheFile( File jar )
+    {
+        String path = jar.getAbsolutePath();
+        return new File( directory, jar.getName() + '-' + Integer.toHexString( path.hashCode() ) + ".classes" );
+    }
+}
@@ -22,6 +22,8 @@ package org.apache.maven.shared.dependency.analyzer.asm;
 import java.io.IOException;
 import java.net.URL;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.apache.maven.shared.dependency.analyzer.ClassFileVisitorUtils;
 import org.apache.maven.shared.dependency.analyzer.DependencyAnalyzer;
@@ -37,6 +39,12 @@ import org.codehaus.plexus.component.annotations.Component;
 public class ASMDependencyAnalyzer
     implements DependencyAnalyzer
 {
+    // fields -----------------------------------------------------------------
+
+    private int parallelism = 1;
+
+    private AnalysisLevel analysisLevel = AnalysisLevel.FULL;
+
     // DependencyAnalyzer methods ---------------------------------------------
 
     /*
@@ -45,10 +53,76 @@ public class ASMDependencyAnalyzer
     public Set<String> analyze( URL url )
         throws IOException
     {
-        DependencyClassFileVisitor visitor = new DependencyClassFileVisitor();
+        if ( parallelism > 1 )
+        {
+            ExecutorService executor = Executors.newFixedThreadPool( parallelism );
+            try
+            {
+                ParallelDependencyClassFileVisitor visitor =
+                    new ParallelDependencyClassFileVisitor( executor, analysisLevel );
+
+                ClassFileVisitorUtils.accept( url, visitor );
+
+                return visitor.getDependencies();
+            }
+            finally
+            {
+                executor.shutdownNow();
+            }
+        }
+
+        DependencyClassFileVisitor visitor = new DependencyClassFileVisitor( analysisLevel );
 
         ClassFileVisitorUtils.accept( url, visitor );
 
         return visitor.getDependencies();
     }
+
+    // public methods ---------------------------------------------------------
+
+    /**
+     * @return how thoroughly class files are analyzed
+     */
+    public AnalysisLevel getAnalysisLevel()
+    {
+        return analysisLevel;
+    }
+
+    /**
+     * Sets how thoroughly class files are analyzed, {@link AnalysisLevel#FULL} by default. A lower level is faster but
+     * may miss classes only mentioned in the parts of the class files it skips.
+     *
+     * @param analysisLevel how thoroughly class files are analyzed
+     */
+    public void setAnalysisLevel( AnalysisLevel analysisLevel )
+    {
+        if ( analysisLevel == null )
+        {
+            throw new IllegalArgumentException( "analysisLevel cannot be null" );
+        }
+        this.analysisLevel = analysisLevel;
+    }
+
+    /**
+     * @return the maximum number of class files analyzed concurrently
+     */
+    public int getParallelism()
+    {
+        return parallelism;
+    }
+
+    /**
+     * Sets the maximum number of class files analyzed concurrently, <code>1</code> by default. The class files are
+     * still read one after the other, only their analysis is spread over the threads.
+     *
+     * @param parallelism the maximum number of class files analyzed concurrently, at least <code>1</code>
+     */
+    public void setParallelism( int parallelism )
+    {
+        if ( parallelism < 1 )
+        {
+            throw new IllegalArgumentException( "parallelism must be at least 1: " + parallelism );
+        }
+        this.parallelism = parallelism;
+    }
 }
@@ -0,0 +1,47 @@
+package org.apache.maven.shared.dependency.analyzer.asm;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * How thoroughly class files are analyzed for the classes they reference. The cheaper levels may miss classes which
+ * are only mentioned in the parts of a class file they skip, in exchange for a faster analysis.
+ *
+ * @see ASMDependencyAnalyzer#setAnalysisLevel(AnalysisLevel)
+ */
+public enum AnalysisLevel
+{
+    /**
+     * Only reads the constant pool: the classes instantiated, extended, implemented, cast to, or whose members are
+     * accessed, as well as string constants and method types. The class file is not parsed any further.
+     */
+    CONSTANT_POOL,
+
+    /**
+     * Also reads the declarations of the class, its fields and methods: their descriptors, generic signatures and
+     * annotations. The method bodies are skipped.
+     */
+    SIGNATURES,
+
+    /**
+     * Also reads the method bodies, including the types of fields accessed and of local variables. This is the
+     * default.
+     */
+    FULL
+}
@@ -22,9 +22,7 @@ package org.apache.maven.shared.dependency.analyzer.asm;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
 
 /**
@@ -64,8 +62,14 @@ public class ConstantPoolParser
 
     public static final byte CONSTANT_METHOD_TYPE = 16;
 
+    public static final byte CONSTANT_DYNAMIC = 17;
+
     public static final byte CONSTANT_INVOKE_DYNAMIC = 18;
 
+    public static final byte CONSTANT_MODULE = 19;
+
+    public static final byte CONSTANT_PACKAGE = 20;
+
     private static final int OXF0 = 0xf0;
 
     private static final int OXE0 = 0xe0;
@@ -77,6 +81,10 @@ public class ConstantPoolParser
         return parseConstantPoolClassRefereces( ByteBuffer.wrap( b ) );
     }
 
+    /*
+     * The constant pool is walked once, recording the position of each UTF8 entry and the entries referenced as class,
+     * string or method type. Only the referenced UTF8 entries are decoded afterwards.
+     */
     static Set<String> parseConstantPoolClassRefereces( ByteBuffer buf )
     {
         if ( buf.order( ByteOrder.BIG_ENDIAN )
@@ -85,9 +93,11 @@ public class ConstantPoolParser
             return Collections.emptySet();
         }
         buf.getChar() ; buf.getChar(); // minor + ver
-        Set<Integer> classes = new HashSet<Integer>();
-        Map<Integer, String> stringConstants = new HashMap<Integer, String>();
-        for ( int ix = 1, num = buf.getChar(); ix < num; ix++ )
+        int num = buf.getChar();
+        int[] utf8Positions = new int[num];
+        int[] references = new int[num];
+        int referenceCount = 0;
+        for ( int ix = 1; ix < num; ix++ )
         {
             byte tag = buf.get();
             switch ( tag )
@@ -95,50 +105,58 @@ public class ConstantPoolParser
                 default:
                     throw new RuntimeException( "Unknown constant pool type" );
                 case CONSTANT_UTF8:
-                    stringConstants.put( ix, decodeString( buf ) );
+                    utf8Positions[ix] = buf.position();
+                    skip( buf, buf.getChar() );
                     continue;
                 case CONSTANT_CLASS:
                 case CONSTANT_STRING:
                 case CONSTANT_METHOD_TYPE:
-                    classes.add( (int) buf.getChar() );
+                    references[referenceCount++] = buf.getChar();
+                    break;
+                case CONSTANT_MODULE:
+                case CONSTANT_PACKAGE:
+                    skip( buf, 2 );
                     break;
                 case CONSTANT_FIELDREF:
                 case CONSTANT_METHODREF:
                 case CONSTANT_INTERFACEMETHODREF:
                 case CONSTANT_NAME_AND_TYPE:
-                    buf.getChar();
-                    buf.getChar();
-                    break;
                 case CONSTANT_INTEGER:
-                    buf.getInt();
-                    break;
                 case CONSTANT_FLOAT:
-                    buf.getFloat();
+                case CONSTANT_DYNAMIC:
+                case CONSTANT_INVOKE_DYNAMIC:
+                    skip( buf, 4 );
                     break;
                 case CONSTANT_DOUBLE:
-                    buf.getDouble();
-                    break;
                 case CONSTANT_LONG:
-                    buf.getLong();
+                    skip( buf, 8 );
+                    ix++; // takes two entries
                     break;
                 case CONSTANT_METHODHANDLE:
-                    buf.get();
-                    buf.getChar();
-                    break;
-                case CONSTANT_INVOKE_DYNAMIC:
-                    buf.getChar();
-                    buf.getChar();
+                    skip( buf, 3 );
                     break;
             }
         }
-        Set<String> result = new HashSet<String>();
-        for ( Integer aClass : classes )
+        Set<String> result = new HashSet<String>( referenceCount * 2 );
+        for ( int i = 0; i < referenceCount; i++ )
         {
-            result.add( stringConstants.get( aClass ) );
+            int utf8 = references[i];
+            if ( utf8 < num && utf8Positions[utf8] > 0 )
+            {
+                buf.position( utf8Positions[utf8] );
+                result.add( decodeString( buf ) );
+                // decode an entry referenced several times only once
+                utf8Positions[utf8] = 0;
+            }
         }
         return result;
     }
 
+    private static void skip( ByteBuffer buf, int length )
+    {
+        buf.position( buf.position() + length );
+    }
+
     private static String decodeString( ByteBuffer buf )
     {
         int size = buf.getChar(), oldLimit = buf.limit();
@@ -20,6 +20,7 @@ package org.apache.maven.shared.dependency.analyzer.asm;
  */
 
 import org.apache.maven.shared.dependency.analyzer.ClassFileVisitor;
+import org.codehaus.plexus.util.IOUtil;
 import org.objectweb.asm.AnnotationVisitor;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassVisitor;
@@ -44,12 +45,33 @@ public class DependencyClassFileVisitor
 {
     // fields -----------------------------------------------------------------
 
-    private final ResultCollector resultCollector = new ResultCollector();
+    private final ResultCollector resultCollector;
+
+    private final AnalysisLevel analysisLevel;
 
     // constructors -----------------------------------------------------------
 
     public DependencyClassFileVisitor()
     {
+        this( AnalysisLevel.FULL );
+    }
+
+    /**
+     * @param analysisLevel how thoroughly the class files are analyzed
+     */
+    public DependencyClassFileVisitor( AnalysisLevel analysisLevel )
+    {
+        this( new SymbolTable(), analysisLevel );
+    }
+
+    /**
+     * @param symbolTable the table of class names shared by all the visitors of an analysis
+     * @param analysisLevel how thoroughly the class files are analyzed
+     */
+    DependencyClassFileVisitor( SymbolTable symbolTable, AnalysisLevel analysisLevel )
+    {
+        this.resultCollector = new ResultCollector( symbolTable );
+        this.analysisLevel = analysisLevel;
     }
 
     // ClassFileVisitor methods -----------------------------------------------
@@ -62,14 +84,21 @@ public class DependencyClassFileVisitor
     {
         try
         {
-            ClassReader reader = new ClassReader( in );
+            byte[] classFile = IOUtil.toByteArray( in );
 
-            final Set<String> constantPoolClassRefs = ConstantPoolParser.getConstantPoolClassReferences( reader.b );
+            final Set<String> constantPoolClassRefs = ConstantPoolParser.getConstantPoolClassReferences( classFile );
             for ( String string : constantPoolClassRefs )
             {
                 resultCollector.addName( string );
             }
 
+            if ( analysisLevel == AnalysisLevel.CONSTANT_POOL )
+            {
+                return;
+            }
+
+            ClassReader reader = new ClassReader( classFile );
+
             AnnotationVisitor annotationVisitor = new DefaultAnnotationVisitor( resultCollector );
             SignatureVisitor signatureVisitor = new DefaultSignatureVisitor( resultCollector );
             FieldVisitor fieldVisitor = new DefaultFieldVisitor( annotationVisitor, resultCollector );
@@ -77,7 +106,7 @@ public class DependencyClassFileVisitor
             ClassVisitor classVisitor =
                 new DefaultClassVisitor( signatureVisitor, annotationVisitor, fieldVisitor, mv, resultCollector );
 
-            reader.accept( classVisitor, 0 );
+            reader.accept( classVisitor, analysisLevel == AnalysisLevel.SIGNATURES ? ClassReader.SKIP_CODE : 0 );
         }
         catch ( IOException exception )
         {
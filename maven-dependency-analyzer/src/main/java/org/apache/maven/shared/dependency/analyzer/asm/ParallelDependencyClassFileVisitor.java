@@ -0,0 +1,180 @@
+package org.apache.maven.shared.dependency.analyzer.asm;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.maven.shared.dependency.analyzer.ClassFileVisitor;
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * Computes the set of classes referenced by visited class files like {@link DependencyClassFileVisitor}, but analyzes
+ * the class files on an executor. The visited class files are read by the calling thread and handed out in batches,
+ * each batch being analyzed by its own {@link DependencyClassFileVisitor}, so no collector is shared between threads.
+ * Only the {@link SymbolTable} is shared. The results of the batches are merged by {@link #getDependencies()}.
+ *
+ * @see #getDependencies()
+ */
+class ParallelDependencyClassFileVisitor
+    implements ClassFileVisitor
+{
+    // constants --------------------------------------------------------------
+
+    private static final int BATCH_SIZE = 64;
+
+    // fields -----------------------------------------------------------------
+
+    private final ExecutorService executor;
+
+    private final AnalysisLevel analysisLevel;
+
+    private final SymbolTable symbolTable = new SymbolTable();
+
+    private final List<Future<Set<String>>> results = new ArrayList<Future<Set<String>>>();
+
+    private List<ClassFile> batch = new ArrayList<ClassFile>( BATCH_SIZE );
+
+    // constructors -----------------------------------------------------------
+
+    /**
+     * @param executor the executor to analyze the class files on
+     * @param analysisLevel how thoroughly the class files are analyzed
+     */
+    ParallelDependencyClassFileVisitor( ExecutorService executor, AnalysisLevel analysisLevel )
+    {
+        this.executor = executor;
+        this.analysisLevel = analysisLevel;
+    }
+
+    // ClassFileVisitor methods -----------------------------------------------
+
+    /*
+     * @see org.apache.maven.shared.dependency.analyzer.ClassFileVisitor#visitClass(java.lang.String,
+     *      java.io.InputStream)
+     */
+    public void visitClass( String className, InputStream in )
+    {
+        try
+        {
+            batch.add( new ClassFile( className, IOUtil.toByteArray( in ) ) );
+        }
+        catch ( IOException exception )
+        {
+            exception.printStackTrace();
+            return;
+        }
+
+        if ( batch.size() == BATCH_SIZE )
+        {
+            submitBatch();
+        }
+    }
+
+    // public methods ---------------------------------------------------------
+
+    /**
+     * Waits for all visited class files to be analyzed.
+     *
+     * @return the set of classes referenced by visited class files
+     */
+    public Set<String> getDependencies()
+    {
+        submitBatch();
+
+        Set<String> dependencies = new HashSet<String>();
+        for ( Future<Set<String>> result : results )
+        {
+            try
+            {
+                dependencies.addAll( result.get() );
+            }
+            catch ( InterruptedException exception )
+            {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException( "Interrupted while analyzing classes", exception );
+            }
+            catch ( ExecutionException exception )
+            {
+                Throwable cause = exception.getCause();
+                if ( cause instanceof RuntimeException )
+                {
+                    throw (RuntimeException) cause;
+                }
+                if ( cause instanceof Error )
+                {
+                    throw (Error) cause;
+                }
+                throw new IllegalStateException( cause );
+            }
+        }
+        return dependencies;
+    }
+
+    // private methods --------------------------------------------------------
+
+    private void submitBatch()
+    {
+        if ( batch.isEmpty() )
+        {
+            return;
+        }
+
+        final List<ClassFile> classFiles = batch;
+        batch = new ArrayList<ClassFile>( BATCH_SIZE );
+
+        results.add( executor.submit( new Callable<Set<String>>()
+        {
+            public Set<String> call()
+            {
+                DependencyClassFileVisitor visitor = new DependencyClassFileVisitor( symbolTable, analysisLevel );
+                for ( ClassFile classFile : classFiles )
+                {
+                    visitor.visitClass( classFile.className, new ByteArrayInputStream( classFile.bytes ) );
+                }
+                return visitor.getDependencies();
+            }
+        } ) );
+    }
+
+    // inner classes ----------------------------------------------------------
+
+    private static final class ClassFile
+    {
+        private final String className;
+
+        private final byte[] bytes;
+
+        ClassFile( String className, byte[] bytes )
+        {
+            this.className = className;
+            this.bytes = bytes;
+        }
+    }
+}
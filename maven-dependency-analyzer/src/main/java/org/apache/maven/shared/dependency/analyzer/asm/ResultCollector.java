@@ -32,6 +32,18 @@ public class ResultCollector
 
     private final Set<String> classes = new HashSet<String>();
 
+    private final SymbolTable symbolTable;
+
+    public ResultCollector()
+    {
+        this( new SymbolTable() );
+    }
+
+    ResultCollector( SymbolTable symbolTable )
+    {
+        this.symbolTable = symbolTable;
+    }
+
     public Set<String> getDependencies()
     {
         return classes;
@@ -44,16 +56,7 @@ public class ResultCollector
             return;
         }
 
-        // decode arrays
-        if ( name.startsWith( "[L" ) && name.endsWith( ";" ) )
-        {
-            name = name.substring( 2, name.length() - 1 );
-        }
-
-        // decode internal representation
-        name = name.replace( '/', '.' );
-
-        classes.add( name );
+        classes.add( symbolTable.toClassName( name ) );
     }
 
     void addDesc( final String desc )
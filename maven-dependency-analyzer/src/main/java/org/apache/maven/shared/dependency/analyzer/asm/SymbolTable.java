@@ -0,0 +1,65 @@
+package org.apache.maven.shared.dependency.analyzer.asm;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Maps the class names found in class files, in their internal form, to the names reported by the analysis. Each
+ * name is converted once, and all the class files referring to a class share the same string for its name. A table is
+ * meant to live for a whole analysis and can be shared by concurrent visitors.
+ */
+class SymbolTable
+{
+    private final ConcurrentMap<String, String> classNames = new ConcurrentHashMap<String, String>();
+
+    /**
+     * @param name a class name in internal form, like <code>java/lang/String</code> or
+     *            <code>[Ljava/lang/String;</code>
+     * @return the class name, like <code>java.lang.String</code>
+     */
+    String toClassName( String name )
+    {
+        String className = classNames.get( name );
+        if ( className == null )
+        {
+            className = decode( name );
+            String previous = classNames.putIfAbsent( name, className );
+            if ( previous != null )
+            {
+                className = previous;
+            }
+        }
+        return className;
+    }
+
+    private static String decode( String name )
+    {
+        // decode arrays
+        if ( name.startsWith( "[L" ) && name.endsWith( ";" ) )
+        {
+            name = name.substring( 2, name.length() - 1 );
+        }
+
+        // decode internal representation
+        return name.replace( '/', '.' );
+    }
+}
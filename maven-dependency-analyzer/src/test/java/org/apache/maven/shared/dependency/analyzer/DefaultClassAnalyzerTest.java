@@ -62,6 +62,35 @@ public class DefaultClassAnalyzerTest
         assertEquals( expectedClasses, actualClasses );
     }
 
+    public void testAnalyzeWithCachedJar()
+        throws IOException
+    {
+        File file = createJar();
+        JarOutputStream out = new JarOutputStream( new FileOutputStream( file ) );
+        writeEntry( out, "a/b/c.class", "class a.b.c" );
+        out.close();
+        long lastModified = file.lastModified() - 10000;
+        assertTrue( file.setLastModified( lastModified ) );
+
+        Set<String> expectedClasses = new HashSet<String>();
+        expectedClasses.add( "a.b.c" );
+
+        DefaultClassAnalyzer analyzer = new DefaultClassAnalyzer();
+        analyzer.setCacheDirectory( createDir() );
+        assertEquals( expectedClasses, analyzer.analyze( file.toURI().toURL() ) );
+
+        // same path, size and modification time: the jar isn't read again
+        byte[] zeros = new byte[(int) file.length()];
+        FileOutputStream fos = new FileOutputStream( file );
+        IOUtil.copy( zeros, fos );
+        fos.close();
+        assertTrue( file.setLastModified( lastModified ) );
+        assertEquals( expectedClasses, analyzer.analyze( file.toURI().toURL() ) );
+
+        assertTrue( file.setLastModified( lastModified - 10000 ) );
+        assertTrue( analyzer.analyze( file.toURI().toURL() ).isEmpty() );
+    }
+
     public void testAnalyzeBadJar()
         throws IOException
     {
@@ -39,7 +39,9 @@ import java.io.File;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 
@@ -328,6 +330,58 @@ public class DefaultProjectDependencyAnalyzerTest
         ProjectDependencyAnalysis expectedAnalysis = new ProjectDependencyAnalysis( usedDeclaredArtifacts, null, null );
 
         assertEquals( expectedAnalysis, actualAnalysis );
+
+        DefaultProjectDependencyAnalyzer defaultAnalyzer = (DefaultProjectDependencyAnalyzer) analyzer;
+        defaultAnalyzer.setParallelism( 4 );
+        try
+        {
+            assertEquals( expectedAnalysis, analyzer.analyze( project ) );
+        }
+        finally
+        {
+            defaultAnalyzer.setParallelism( 1 );
+        }
+    }
+
+    public void testUsedArtifactsFromIndex()
+    {
+        Artifact first = createArtifact( "g", "first", "jar", "1.0", "compile" );
+        Artifact second = createArtifact( "g", "second", "jar", "1.0", "compile" );
+
+        Map<Artifact, Set<String>> artifactClassMap = new LinkedHashMap<Artifact, Set<String>>();
+        artifactClassMap.put( first, new HashSet<String>( Arrays.asList( "p.Shared", "p.First" ) ) );
+        artifactClassMap.put( second, new HashSet<String>( Arrays.asList( "p.Shared", "p.Second" ) ) );
+
+        DefaultProjectDependencyAnalyzer defaultAnalyzer = new DefaultProjectDependencyAnalyzer();
+
+        assertEquals( Collections.singleton( first ),
+                      defaultAnalyzer.buildUsedArtifacts( artifactClassMap, Collections.singleton( "p.Shared" ) ) );
+        assertEquals( Collections.singleton( second ),
+                      defaultAnalyzer.buildUsedArtifacts( artifactClassMap, Collections.singleton( "p.Second" ) ) );
+        assertEquals( Collections.emptySet(),
+                      defaultAnalyzer.buildUsedArtifacts( artifactClassMap, Collections.singleton( "p.Missing" ) ) );
+    }
+
+    public void testUsedArtifactsFromOverriddenLookup()
+    {
+        Artifact first = createArtifact( "g", "first", "jar", "1.0", "compile" );
+        final Artifact second = createArtifact( "g", "second", "jar", "1.0", "compile" );
+
+        Map<Artifact, Set<String>> artifactClassMap = new LinkedHashMap<Artifact, Set<String>>();
+        artifactClassMap.put( first, Collections.singleton( "p.Shared" ) );
+        artifactClassMap.put( second, Collections.singleton( "p.Shared" ) );
+
+        DefaultProjectDependencyAnalyzer customAnalyzer = new DefaultProjectDependencyAnalyzer()
+        {
+            protected Artifact findArtifactForClassName( Map<Artifact, Set<String>> artifactClassMap,
+                                                         String className )
+            {
+                return second;
+            }
+        };
+
+        assertEquals( Collections.singleton( second ),
+                      customAnalyzer.buildUsedArtifacts( artifactClassMap, Collections.singleton( "p.Shared" ) ) );
     }
 
     // private methods --------------------------------------------------------
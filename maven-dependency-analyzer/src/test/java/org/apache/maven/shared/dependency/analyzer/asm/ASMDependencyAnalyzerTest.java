@@ -0,0 +1,117 @@
+package org.apache.maven.shared.dependency.analyzer.asm;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.net.URL;
+import java.util.Set;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import org.objectweb.asm.ClassReader;
+
+/**
+ * Tests <code>ASMDependencyAnalyzer</code>.
+ */
+public class ASMDependencyAnalyzerTest
+{
+    // tests ------------------------------------------------------------------
+
+    @Test
+    public void parallelAnalysisOfDirectory()
+        throws Exception
+    {
+        assertParallelAnalysisMatchesSequential( new File( "target/classes" ).toURI().toURL() );
+    }
+
+    @Test
+    public void parallelAnalysisOfJar()
+        throws Exception
+    {
+        assertParallelAnalysisMatchesSequential( getAsmJar() );
+    }
+
+    @Test
+    public void analysisLevelsFindIncreasingSetsOfClasses()
+        throws Exception
+    {
+        ASMDependencyAnalyzer analyzer = new ASMDependencyAnalyzer();
+
+        analyzer.setAnalysisLevel( AnalysisLevel.CONSTANT_POOL );
+        Set<String> constantPool = analyzer.analyze( getAsmJar() );
+        analyzer.setAnalysisLevel( AnalysisLevel.SIGNATURES );
+        Set<String> signatures = analyzer.analyze( getAsmJar() );
+        analyzer.setAnalysisLevel( AnalysisLevel.FULL );
+        Set<String> full = analyzer.analyze( getAsmJar() );
+
+        assertTrue( constantPool.contains( "org.objectweb.asm.ClassVisitor" ) );
+        assertTrue( signatures.containsAll( constantPool ) );
+        assertTrue( full.containsAll( signatures ) );
+    }
+
+    @Ignore
+    @Test
+    public void performanceTest()
+        throws Exception
+    {
+        URL jar = getAsmJar();
+        for ( AnalysisLevel analysisLevel : AnalysisLevel.values() )
+        {
+            ASMDependencyAnalyzer analyzer = new ASMDependencyAnalyzer();
+            analyzer.setAnalysisLevel( analysisLevel );
+            // warm up
+            for ( int i = 0; i < 20; i++ )
+            {
+                analyzer.analyze( jar );
+            }
+
+            long start = System.currentTimeMillis();
+            int size = 0;
+            for ( int i = 0; i < 100; i++ )
+            {
+                size = analyzer.analyze( jar ).size();
+            }
+            System.out.println( analysisLevel + ": " + ( System.currentTimeMillis() - start ) + "ms, " + size
+                + " classes" );
+        }
+    }
+
+    // private methods --------------------------------------------------------
+
+    private static URL getAsmJar()
+    {
+        return ClassReader.class.getProtectionDomain().getCodeSource().getLocation();
+    }
+
+    private void assertParallelAnalysisMatchesSequential( URL url )
+        throws Exception
+    {
+        ASMDependencyAnalyzer analyzer = new ASMDependencyAnalyzer();
+        Set<String> expected = analyzer.analyze( url );
+        assertFalse( expected.isEmpty() );
+
+        analyzer.setParallelism( 4 );
+        assertEquals( expected, analyzer.analyze( url ) );
+    }
+}
@@ -0,0 +1,82 @@
+package org.apache.maven.shared.dependency.analyzer.asm;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.InputStream;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * Tests <code>ConstantPoolParser</code>.
+ */
+public class ConstantPoolParserTest
+    extends TestCase
+{
+    // tests ------------------------------------------------------------------
+
+    public void testClassReferences()
+        throws Exception
+    {
+        Set<String> references = ConstantPoolParser.getConstantPoolClassReferences( getBytes( Constants.class ) );
+
+        assertTrue( references.contains( Constants.class.getName().replace( '.', '/' ) ) );
+        assertTrue( references.contains( "java/util/ArrayList" ) );
+        assertTrue( references.contains( "a string constant" ) );
+        assertFalse( references.contains( "value" ) );
+    }
+
+    // private methods --------------------------------------------------------
+
+    private static byte[] getBytes( Class<?> type )
+        throws Exception
+    {
+        InputStream in = type.getResourceAsStream( type.getName().replaceFirst( ".*\\.", "" ) + ".class" );
+        try
+        {
+            return IOUtil.toByteArray( in );
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+
+    // inner classes ----------------------------------------------------------
+
+    /**
+     * Long and double constants take two constant pool entries each.
+     */
+    static class Constants
+    {
+        private long value = System.nanoTime() + 1234567890123L;
+
+        private double ratio = value * 3.14159d;
+
+        private String name = "a string constant";
+
+        Object create()
+        {
+            return new java.util.ArrayList<Object>();
+        }
+    }
+}
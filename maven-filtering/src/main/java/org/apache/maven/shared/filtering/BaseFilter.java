@@ -213,9 +213,7 @@ class BaseFilter
 
         private LinkedHashSet<String> delimiters;
 
-        private MavenProject project;
-
-        private ValueSource propertiesValueSource;
+        private List<ValueSource> valueSources;
 
         private List<String> projectStartExpressions;
 
@@ -223,8 +221,6 @@ class BaseFilter
 
         private boolean escapeWindowsPaths;
 
-        private final MavenSession mavenSession;
-
         private boolean supportMultiLineFiltering;
 
         Wrapper( LinkedHashSet<String> delimiters, MavenProject project, MavenSession mavenSession,
@@ -233,9 +229,8 @@ class BaseFilter
         {
             super();
             this.delimiters = delimiters;
-            this.project = project;
-            this.mavenSession = mavenSession;
-            this.propertiesValueSource = propertiesValueSource;
+            this.valueSources = createValueSources( propertiesValueSource, projectStartExpressions, project,
+                                                    mavenSession );
             this.projectStartExpressions = projectStartExpressions;
             this.escapeString = escapeString;
             this.escapeWindowsPaths = escapeWindowsPaths;
@@ -244,8 +239,8 @@ class BaseFilter
 
         public Reader getReader( Reader reader )
         {
-            Interpolator interpolator = createInterpolator( delimiters, projectStartExpressions, propertiesValueSource,
-                                                            project, mavenSession, escapeString, escapeWindowsPaths );
+            Interpolator interpolator =
+                createInterpolator( delimiters, valueSources, escapeString, escapeWindowsPaths );
 
             MultiDelimiterInterpolatorFilterReaderLineEnding filterReader =
                 new MultiDelimiterInterpolatorFilterReaderLineEnding( reader, interpolator, supportMultiLineFiltering );
@@ -271,34 +266,49 @@ class BaseFilter
 
     }
 
-    private static Interpolator createInterpolator( LinkedHashSet<String> delimiters,
-                                                    List<String> projectStartExpressions,
-                                                    ValueSource propertiesValueSource, MavenProject project,
-                                                    MavenSession mavenSession, String escapeString,
-                                                    boolean escapeWindowsPaths )
+    /*
+     * The value sources are created once per filtering request and shared by the interpolators of all the files (and
+     * file names) it filters, so the reflective lookups into the project, session and settings are done once per
+     * expression rather than once per expression and file.
+     */
+    private static List<ValueSource> createValueSources( ValueSource propertiesValueSource,
+                                                         List<String> projectStartExpressions, MavenProject project,
+                                                         MavenSession mavenSession )
     {
-        MultiDelimiterStringSearchInterpolator interpolator = new MultiDelimiterStringSearchInterpolator();
-        interpolator.setDelimiterSpecs( delimiters );
+        List<ValueSource> valueSources = new ArrayList<ValueSource>( 5 );
 
-        interpolator.addValueSource( propertiesValueSource );
+        valueSources.add( propertiesValueSource );
 
         if ( project != null )
         {
-            interpolator.addValueSource( new PrefixedObjectValueSource( projectStartExpressions, project, true ) );
+            valueSources.add( new CachingValueSource( new PrefixedObjectValueSource( projectStartExpressions, project,
+                                                                                     true ) ) );
         }
 
         if ( mavenSession != null )
         {
-            interpolator.addValueSource( new PrefixedObjectValueSource( "session", mavenSession ) );
+            valueSources.add( new CachingValueSource( new PrefixedObjectValueSource( "session", mavenSession ) ) );
 
             final Settings settings = mavenSession.getSettings();
             if ( settings != null )
             {
-                interpolator.addValueSource( new PrefixedObjectValueSource( "settings", settings ) );
-                interpolator.addValueSource( new SingleResponseValueSource( "localRepository",
-                                                                            settings.getLocalRepository() ) );
+                valueSources.add( new CachingValueSource( new PrefixedObjectValueSource( "settings", settings ) ) );
+                valueSources.add( new SingleResponseValueSource( "localRepository", settings.getLocalRepository() ) );
             }
         }
+        return valueSources;
+    }
+
+    private static Interpolator createInterpolator( LinkedHashSet<String> delimiters, List<ValueSource> valueSources,
+                                                    String escapeString, boolean escapeWindowsPaths )
+    {
+        MultiDelimiterStringSearchInterpolator interpolator = new MultiDelimiterStringSearchInterpolator();
+        interpolator.setDelimiterSpecs( delimiters );
+
+        for ( ValueSource valueSource : valueSources )
+        {
+            interpolator.addValueSource( valueSource );
+        }
 
         interpolator.setEscapeString( escapeString );
 
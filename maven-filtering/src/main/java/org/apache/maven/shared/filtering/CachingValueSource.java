@@ -0,0 +1,85 @@
+package org.apache.maven.shared.filtering;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.codehaus.plexus.interpolation.ValueSource;
+
+/**
+ * A value source remembering the values resolved by another one, so an expression is only resolved once however many
+ * files are filtered with it. Meant for the reflective project, session and settings value sources, whose values don't
+ * change during a filtering execution. Safe to share between concurrent interpolators.
+ */
+class CachingValueSource
+    implements ValueSource
+{
+
+    private static final Object NULL = new Object();
+
+    private final ValueSource delegate;
+
+    private final ConcurrentMap<String, Object> values = new ConcurrentHashMap<String, Object>();
+
+    /**
+     * @param delegate The value source resolving the expressions not resolved yet.
+     */
+    CachingValueSource( ValueSource delegate )
+    {
+        this.delegate = delegate;
+    }
+
+    /** {@inheritDoc} */
+    public Object getValue( String expression )
+    {
+        Object value = values.get( expression );
+        if ( value == null )
+        {
+            synchronized ( delegate )
+            {
+                value = delegate.getValue( expression );
+            }
+            values.putIfAbsent( expression, value == null ? NULL : value );
+            return value;
+        }
+        return value == NULL ? null : value;
+    }
+
+    /** {@inheritDoc} */
+    public List getFeedback()
+    {
+        synchronized ( delegate )
+        {
+            return new ArrayList<Object>( delegate.getFeedback() );
+        }
+    }
+
+    /** {@inheritDoc} */
+    public void clearFeedback()
+    {
+        synchronized ( delegate )
+        {
+            delegate.clearFeedback();
+        }
+    }
+}
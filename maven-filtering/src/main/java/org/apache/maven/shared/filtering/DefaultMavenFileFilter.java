@@ -118,7 +118,10 @@ public class DefaultMavenFileFilter
                 {
                     getLogger().debug( "copy " + from.getPath() + " to " + to.getPath() );
                 }
-                FileUtils.copyFile( from, to, encoding, new FileUtils.FilterWrapper[0], overwrite );
+                if ( overwrite || to.lastModified() < from.lastModified() )
+                {
+                    FileUtils.copyFile( from, to );
+                }
             }
 
             buildContext.refresh( to );
@@ -26,7 +26,15 @@ import java.io.StringReader;
 import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.maven.model.Resource;
 import org.apache.maven.shared.utils.PathTool;
@@ -224,6 +232,7 @@ public class DefaultMavenResourcesFiltering
             getLogger().info( "Copying " + includedFiles.size() + " resource" + ( includedFiles.size() > 1 ? "s" : "" )
                 + ( targetPath == null ? "" : " to " + targetPath ) );
 
+            List<ResourceCopy> copies = new ArrayList<ResourceCopy>( includedFiles.size() );
             for ( String name : includedFiles )
             {
 
@@ -234,12 +243,13 @@ public class DefaultMavenResourcesFiltering
                 boolean filteredExt =
                     filteredFileExtension( source.getName(), mavenResourcesExecution.getNonFilteredFileExtensions() );
 
-                mavenFileFilter.copyFile( source, destinationFile, resource.isFiltering() && filteredExt,
-                                          mavenResourcesExecution.getFilterWrappers(),
-                                          mavenResourcesExecution.getEncoding(),
-                                          mavenResourcesExecution.isOverwrite() );
+                copies.add( new ResourceCopy( source, destinationFile, resource.isFiltering() && filteredExt ) );
             }
 
+            createParentDirectories( copies );
+
+            copyResources( copies, mavenResourcesExecution );
+
             // deal with deleted source files
 
             scanner = buildContext.newDeleteScanner( resourceDirectory );
@@ -285,11 +295,166 @@ public class DefaultMavenResourcesFiltering
             destinationFile = new File( outputDirectory, destination );
         }
 
-        if ( !destinationFile.getParentFile().exists() )
+        return destinationFile;
+    }
+
+    /*
+     * Creates the output directory skeleton up front, so the copies don't need to check for it one by one, and
+     * concurrent copies don't race to create the same directories.
+     */
+    private void createParentDirectories( List<ResourceCopy> copies )
+    {
+        Set<File> parents = new LinkedHashSet<File>();
+        for ( ResourceCopy copy : copies )
         {
-            destinationFile.getParentFile().mkdirs();
+            parents.add( copy.destination.getParentFile() );
+        }
+
+        for ( File parent : parents )
+        {
+            if ( !parent.exists() )
+            {
+                parent.mkdirs();
+            }
+        }
+    }
+
+    private void copyResources( List<ResourceCopy> copies, final MavenResourcesExecution mavenResourcesExecution )
+        throws MavenFilteringException
+    {
+        int parallelism = Math.min( mavenResourcesExecution.getParallelism(), copies.size() );
+        if ( parallelism <= 1 )
+        {
+            for ( ResourceCopy copy : copies )
+            {
+                copyResource( copy, mavenResourcesExecution );
+            }
+            return;
+        }
+
+        // each copy refreshes its destination in the build context, which is then called from several worker threads
+        ExecutorService executor = Executors.newFixedThreadPool( parallelism );
+        List<Future<?>> futures = new ArrayList<Future<?>>( copies.size() );
+        try
+        {
+            for ( final ResourceCopy copy : copies )
+            {
+                futures.add( executor.submit( new Callable<Void>()
+                {
+                    public Void call()
+                        throws MavenFilteringException
+                    {
+                        copyResource( copy, mavenResourcesExecution );
+                        return null;
+                    }
+                } ) );
+            }
+
+            // wait in submission order, so the failure reported is the same one a sequential copy would report
+            for ( Future<?> future : futures )
+            {
+                try
+                {
+                    future.get();
+                }
+                catch ( InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                    throw new MavenFilteringException( "Interrupted while copying resources", e );
+                }
+                catch ( ExecutionException e )
+                {
+                    Throwable cause = e.getCause();
+                    if ( cause instanceof MavenFilteringException )
+                    {
+                        throw (MavenFilteringException) cause;
+                    }
+                    if ( cause instanceof RuntimeException )
+                    {
+                        throw (RuntimeException) cause;
+                    }
+                    if ( cause instanceof Error )
+                    {
+                        throw (Error) cause;
+                    }
+                    throw new MavenFilteringException( cause.getMessage(), cause );
+                }
+            }
+        }
+        finally
+        {
+            // drop the copies not started yet, but let the running ones finish before returning: interrupting a copy
+            // would close its channels and leave a half written file in the output directory
+            for ( Future<?> future : futures )
+            {
+                future.cancel( false );
+            }
+            executor.shutdown();
+            awaitTermination( executor );
+        }
+    }
+
+    private void copyResource( ResourceCopy copy, MavenResourcesExecution mavenResourcesExecution )
+        throws MavenFilteringException
+    {
+        if ( !copy.filtering && mavenResourcesExecution.isSkipIdenticalFiles()
+            && isIdentical( copy.source, copy.destination, mavenResourcesExecution.isOverwrite() ) )
+        {
+            if ( getLogger().isDebugEnabled() )
+            {
+                getLogger().debug( "skip copying " + copy.source.getPath() + " to identical " + copy.destination );
+            }
+            return;
+        }
+
+        mavenFileFilter.copyFile( copy.source, copy.destination, copy.filtering,
+                                  mavenResourcesExecution.getFilterWrappers(), mavenResourcesExecution.getEncoding(),
+                                  mavenResourcesExecution.isOverwrite() );
+    }
+
+    /*
+     * Only compare the contents when the copy would happen anyway, a newer destination is never overwritten.
+     */
+    private static boolean isIdentical( File source, File destination, boolean overwrite )
+    {
+        if ( !destination.isFile() || destination.length() != source.length()
+            || ( !overwrite && destination.lastModified() >= source.lastModified() ) )
+        {
+            return false;
+        }
+
+        try
+        {
+            return FileUtils.contentEquals( source, destination );
+        }
+        catch ( IOException e )
+        {
+            // let the copy report the problem
+            return false;
+        }
+    }
+
+    private static void awaitTermination( ExecutorService executor )
+    {
+        boolean interrupted = false;
+        while ( true )
+        {
+            try
+            {
+                if ( executor.awaitTermination( 1, TimeUnit.SECONDS ) )
+                {
+                    break;
+                }
+            }
+            catch ( InterruptedException e )
+            {
+                interrupted = true;
+            }
+        }
+        if ( interrupted )
+        {
+            Thread.currentThread().interrupt();
         }
-        return destinationFile;
     }
 
     private String[] setupScanner( Resource resource, Scanner scanner )
@@ -409,4 +574,23 @@ public class DefaultMavenResourcesFiltering
         return filteredFilename;
     }
 
+    /*
+     * A single included file of a resource, with its destination.
+     */
+    private static final class ResourceCopy
+    {
+        private final File source;
+
+        private final File destination;
+
+        private final boolean filtering;
+
+        ResourceCopy( File source, File destination, boolean filtering )
+        {
+            this.source = source;
+            this.destination = destination;
+            this.filtering = filtering;
+        }
+    }
+
 }
@@ -78,6 +78,21 @@ public class MavenResourcesExecution
      */
     private boolean supportMultiLineFiltering;
 
+    /**
+     * The maximum number of files of a resource copied concurrently. <code>1</code> by default, i.e. the files are
+     * copied one after the other.
+     *
+     * @since 3.0.1
+     */
+    private int parallelism = 1;
+
+    /**
+     * Do not copy a non filtered file whose destination already has the same content. <code>false</code> by default.
+     *
+     * @since 3.0.1
+     */
+    private boolean skipIdenticalFiles = false;
+
     /**
      * Do nothing.
      */
@@ -349,6 +364,60 @@ public class MavenResourcesExecution
         this.filterFilenames = filterFilenames;
     }
 
+    /**
+     * The maximum number of files of a resource copied concurrently.
+     *
+     * @return {@link #parallelism}
+     * @since 3.0.1
+     */
+    public int getParallelism()
+    {
+        return parallelism;
+    }
+
+    /**
+     * Copy up to the given number of files of a resource concurrently. The filter wrappers and value sources have to
+     * be thread safe to use a value greater than <code>1</code>, and so does the build context, whose
+     * <code>refresh</code> is then called from several worker threads at once. Whatever the parallelism, a failure is
+     * reported for the first file that fails to copy in scan order.
+     *
+     * @param parallelism The maximum number of concurrent copies, at least <code>1</code>.
+     * @throws IllegalArgumentException if <code>parallelism</code> is less than <code>1</code>.
+     * @since 3.0.1
+     */
+    public void setParallelism( int parallelism )
+    {
+        if ( parallelism < 1 )
+        {
+            throw new IllegalArgumentException( "parallelism must be at least 1: " + parallelism );
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Do not copy a non filtered file whose destination already has the same content.
+     *
+     * @return {@link #skipIdenticalFiles}
+     * @since 3.0.1
+     */
+    public boolean isSkipIdenticalFiles()
+    {
+        return skipIdenticalFiles;
+    }
+
+    /**
+     * Do not copy a non filtered file whose destination already has the same content, so the destination keeps its
+     * modification time and later incremental steps don't consider it changed. The contents are only compared when
+     * the file would otherwise be copied and both files have the same size.
+     *
+     * @param skipIdenticalFiles {@code true} to leave identical destinations untouched, otherwise {@code false}.
+     * @since 3.0.1
+     */
+    public void setSkipIdenticalFiles( boolean skipIdenticalFiles )
+    {
+        this.skipIdenticalFiles = skipIdenticalFiles;
+    }
+
     /**
      * @return {@link MavenResourcesExecution}
      */
@@ -373,6 +442,8 @@ public class MavenResourcesExecution
         mre.setResourcesBaseDirectory( mre.getResourcesBaseDirectory() );
         mre.setUseDefaultFilterWrappers( mre.isUseDefaultFilterWrappers() );
         mre.setSupportMultiLineFiltering( mre.isSupportMultiLineFiltering() );
+        mre.setParallelism( getParallelism() );
+        mre.setSkipIdenticalFiles( isSkipIdenticalFiles() );
         return mre;
     }
 
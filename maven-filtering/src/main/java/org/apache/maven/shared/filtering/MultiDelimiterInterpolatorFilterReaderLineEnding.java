@@ -180,6 +180,9 @@ public class MultiDelimiterInterpolatorFilterReaderLineEnding
     /**
      * Reads characters into a portion of an array. This method will block until some input is available, an I/O error
      * occurs, or the end of the stream is reached.
+     * <p/>
+     * Runs of characters which can't start an escape string or a delimiter are copied from the underlying reader in
+     * bulk, only the remaining characters go through {@link #read()}.
      *
      * @param cbuf Destination buffer to write characters to. Must not be <code>null</code>.
      * @param off Offset at which to start storing characters.
@@ -190,23 +193,92 @@ public class MultiDelimiterInterpolatorFilterReaderLineEnding
     public int read( char cbuf[], int off, int len )
         throws IOException
     {
-        for ( int i = 0; i < len; i++ )
+        char[] tokenStarts = getTokenStarts();
+
+        int i = 0;
+        while ( i < len )
         {
-            int ch = read();
-            if ( ch == -1 )
+            if ( replaceIndex > 0 )
             {
-                if ( i == 0 )
+                int count = Math.min( replaceIndex, len - i );
+                int start = replaceData.length() - replaceIndex;
+                replaceData.getChars( start, start + count, cbuf, off + i );
+                replaceIndex -= count;
+                i += count;
+                continue;
+            }
+
+            if ( !eof && beginToken == null )
+            {
+                int count = readPlainText( cbuf, off + i, Math.min( len - i, MAXIMUM_BUFFER_SIZE ), tokenStarts );
+                if ( count > 0 )
                 {
-                    return -1;
+                    i += count;
+                    continue;
                 }
-                else
+            }
+
+            int ch = read();
+            if ( ch == -1 )
+            {
+                return i == 0 ? -1 : i;
+            }
+            cbuf[off + i++] = (char) ch;
+        }
+        return len;
+    }
+
+    /**
+     * Copies characters from the underlying reader up to the first one which could start an escape string or a
+     * delimiter, leaving that one unread.
+     *
+     * @return the number of characters copied, 0 if the next character could start a token or at the end of the stream
+     */
+    private int readPlainText( char[] cbuf, int off, int len, char[] tokenStarts )
+        throws IOException
+    {
+        in.mark( len );
+        int count = in.read( cbuf, off, len );
+        if ( count <= 0 )
+        {
+            in.reset();
+            return 0;
+        }
+
+        for ( int i = 0; i < count; i++ )
+        {
+            char ch = cbuf[off + i];
+            for ( char tokenStart : tokenStarts )
+            {
+                if ( ch == tokenStart )
                 {
+                    in.reset();
+                    in.skip( i );
                     return i;
                 }
             }
-            cbuf[off + i] = (char) ch;
         }
-        return len;
+        return count;
+    }
+
+    /**
+     * @return the first characters of the escape string and of all delimiters
+     */
+    private char[] getTokenStarts()
+    {
+        StringBuilder starts = new StringBuilder( delimiters.size() + 1 );
+        if ( useEscape )
+        {
+            starts.append( getEscapeString().charAt( 0 ) );
+        }
+        for ( DelimiterSpecification spec : delimiters )
+        {
+            if ( spec.getBegin().length() > 0 )
+            {
+                starts.append( spec.getBegin().charAt( 0 ) );
+            }
+        }
+        return starts.toString().toCharArray();
     }
 
     /**
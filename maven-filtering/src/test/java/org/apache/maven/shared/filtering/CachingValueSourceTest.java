@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.shared.filtering;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.codehaus.plexus.interpolation.ValueSource;
+import org.junit.Test;
+
+public class CachingValueSourceTest
+{
+
+    @Test
+    public void resolvesEachExpressionOnce()
+    {
+        CountingValueSource delegate = new CountingValueSource();
+        CachingValueSource valueSource = new CachingValueSource( delegate );
+
+        assertEquals( "project.version!", valueSource.getValue( "project.version" ) );
+        assertEquals( "project.version!", valueSource.getValue( "project.version" ) );
+        assertEquals( "project.name!", valueSource.getValue( "project.name" ) );
+        assertEquals( 2, delegate.calls );
+    }
+
+    @Test
+    public void remembersUnresolvedExpressions()
+    {
+        CountingValueSource delegate = new CountingValueSource();
+        CachingValueSource valueSource = new CachingValueSource( delegate );
+
+        assertNull( valueSource.getValue( "unknown" ) );
+        assertNull( valueSource.getValue( "unknown" ) );
+        assertEquals( 1, delegate.calls );
+    }
+
+    private static class CountingValueSource
+        implements ValueSource
+    {
+        int calls;
+
+        public Object getValue( String expression )
+        {
+            calls++;
+            return "unknown".equals( expression ) ? null : expression + "!";
+        }
+
+        public List getFeedback()
+        {
+            return Collections.emptyList();
+        }
+
+        public void clearFeedback()
+        {
+        }
+    }
+}
@@ -30,9 +30,11 @@ import java.util.List;
 import java.util.Properties;
 
 import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.utils.Os;
 import org.apache.maven.shared.utils.io.FileUtils;
 import org.apache.maven.shared.utils.io.FileUtils.FilterWrapper;
 import org.apache.maven.shared.utils.io.IOUtil;
+import org.apache.maven.shared.utils.io.Java7Support;
 import org.codehaus.plexus.PlexusTestCase;
 
 /**
@@ -101,6 +103,47 @@ public class DefaultMavenFileFilterTest
 
     }
 
+    public void testCopyDoesNotCopyPermissions()
+        throws Exception
+    {
+        if ( Os.isFamily( Os.FAMILY_WINDOWS ) )
+        {
+            return;
+        }
+
+        MavenFileFilter mavenFileFilter = lookup( MavenFileFilter.class );
+
+        File from = new File( getBasedir(), "target/executable-test.properties" );
+        FileUtils.fileWrite( from, "UTF-8", "version=1.0" );
+        assertTrue( from.setExecutable( true ) );
+
+        mavenFileFilter.copyFile( from, to, false, null, null, true );
+
+        assertEquals( "version=1.0", FileUtils.fileRead( to, "UTF-8" ) );
+        assertFalse( to.canExecute() );
+    }
+
+    public void testCopyWritesThroughSymbolicLink()
+        throws Exception
+    {
+        if ( !Java7Support.isAtLeastJava7() || Os.isFamily( Os.FAMILY_WINDOWS ) )
+        {
+            return;
+        }
+
+        MavenFileFilter mavenFileFilter = lookup( MavenFileFilter.class );
+
+        File linkTarget = new File( getBasedir(), "target/link-target.properties" );
+        FileUtils.fileWrite( linkTarget, "UTF-8", "old" );
+        Java7Support.createSymbolicLink( to, linkTarget );
+
+        File from = new File( getBasedir(), "src/test/units-files/reflection-test.properties" );
+        mavenFileFilter.copyFile( from, to, false, null, null, true );
+
+        assertTrue( Java7Support.isSymLink( to ) );
+        assertEquals( FileUtils.fileRead( from, "UTF-8" ), FileUtils.fileRead( linkTarget, "UTF-8" ) );
+    }
+
     public void testNullSafeDefaultFilterWrappers()
         throws Exception
     {
@@ -98,6 +98,62 @@ public class DefaultMavenResourcesFilteringTest
         assertFiltering( baseDir, initialImageFile, false, false );
     }
 
+    public void testParallelFiltering()
+        throws Exception
+    {
+        File baseDir = new File( "c:\\foo\\bar" );
+        StubMavenProject mavenProject = new StubMavenProject( baseDir );
+        mavenProject.setVersion( "1.0" );
+        mavenProject.setGroupId( "org.apache" );
+        mavenProject.setName( "test project" );
+
+        Properties projectProperties = new Properties();
+        projectProperties.put( "foo", "bar" );
+        projectProperties.put( "java.version", "zloug" );
+        mavenProject.setProperties( projectProperties );
+        MavenResourcesFiltering mavenResourcesFiltering = lookup( MavenResourcesFiltering.class );
+
+        String unitFilesDir = getBasedir() + "/src/test/units-files/maven-resources-filtering";
+        File initialImageFile = new File( unitFilesDir, "happy_duke.gif" );
+
+        Resource resource = new Resource();
+        List<Resource> resources = new ArrayList<Resource>();
+        resources.add( resource );
+        resource.setDirectory( unitFilesDir );
+        resource.setFiltering( true );
+
+        List<String> filtersFile = new ArrayList<String>();
+        filtersFile.add( getBasedir()
+            + "/src/test/units-files/maven-resources-filtering/empty-maven-resources-filtering.txt" );
+
+        List<String> nonFilteredFileExtensions = Collections.singletonList( "gif" );
+
+        MavenResourcesExecution mavenResourcesExecution =
+            new MavenResourcesExecution( resources, outputDirectory, mavenProject, "UTF-8", filtersFile,
+                                         nonFilteredFileExtensions, new StubMavenSession() );
+        mavenResourcesExecution.setUseDefaultFilterWrappers( true );
+        mavenResourcesExecution.setParallelism( 4 );
+        mavenResourcesFiltering.filterResources( mavenResourcesExecution );
+
+        assertFiltering( baseDir, initialImageFile, false, false );
+    }
+
+    public void testCopyOfKeepsParallelism()
+    {
+        MavenResourcesExecution mavenResourcesExecution = new MavenResourcesExecution();
+        mavenResourcesExecution.setParallelism( 4 );
+
+        assertEquals( 4, mavenResourcesExecution.copyOf().getParallelism() );
+    }
+
+    public void testCopyOfKeepsSkipIdenticalFiles()
+    {
+        MavenResourcesExecution mavenResourcesExecution = new MavenResourcesExecution();
+        mavenResourcesExecution.setSkipIdenticalFiles( true );
+
+        assertTrue( mavenResourcesExecution.copyOf().isSkipIdenticalFiles() );
+    }
+
     public void testSessionFiltering()
         throws Exception
     {
@@ -396,6 +452,48 @@ public class DefaultMavenResourcesFilteringTest
         assertTrue( filesAreIdentical( initialImageFile, imageFile ) );
     }
 
+    public void testSkipIdenticalFiles()
+        throws Exception
+    {
+        StubMavenProject mavenProject = new StubMavenProject( new File( getBasedir() ) );
+        MavenResourcesFiltering mavenResourcesFiltering = lookup( MavenResourcesFiltering.class );
+
+        String unitFilesDir = getBasedir() + "/src/test/units-files/maven-resources-filtering";
+        File initialImageFile = new File( unitFilesDir, "happy_duke.gif" );
+
+        Resource resource = new Resource();
+        List<Resource> resources = new ArrayList<Resource>();
+        resources.add( resource );
+
+        resource.setDirectory( unitFilesDir );
+        resource.setFiltering( false );
+
+        MavenResourcesExecution mre = new MavenResourcesExecution();
+        mre.setResources( resources );
+        mre.setOutputDirectory( outputDirectory );
+        mre.setEncoding( "UTF-8" );
+        mre.setMavenProject( mavenProject );
+        mre.setNonFilteredFileExtensions( Collections.<String>emptyList() );
+        mre.setMavenSession( new StubMavenSession() );
+        mre.setOverwrite( true );
+        mre.setSkipIdenticalFiles( true );
+
+        mavenResourcesFiltering.filterResources( mre );
+
+        File imageFile = new File( outputDirectory, "happy_duke.gif" );
+        assertTrue( filesAreIdentical( initialImageFile, imageFile ) );
+
+        long lastModified = imageFile.lastModified() - 10000;
+        assertTrue( imageFile.setLastModified( lastModified ) );
+        File textFile = new File( outputDirectory, "maven-resources-filtering.txt" );
+        FileUtils.fileWrite( textFile, "UTF-8", "changed" );
+
+        mavenResourcesFiltering.filterResources( mre );
+
+        assertEquals( lastModified, imageFile.lastModified() );
+        assertTrue( filesAreIdentical( new File( unitFilesDir, "maven-resources-filtering.txt" ), textFile ) );
+    }
+
     public static boolean filesAreIdentical( File expected, File current )
         throws IOException
     {
@@ -20,10 +20,13 @@ package org.apache.maven.shared.filtering;
  */
 
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.isA;
 import static org.mockito.Mockito.when;
 
+import java.io.IOException;
+
 import java.io.Reader;
 import java.io.StringReader;
 import java.util.Arrays;
@@ -34,9 +37,12 @@ import org.codehaus.plexus.interpolation.Interpolator;
 import org.codehaus.plexus.interpolation.RecursionInterceptor;
 import org.codehaus.plexus.util.IOUtil;
 import org.junit.Before;
+import org.junit.Ignore;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 public class MultiDelimiterInterpolatorFilterReaderLineEndingTest
     extends AbstractInterpolatorFilterReaderLineEndingTest
@@ -121,4 +127,115 @@ public class MultiDelimiterInterpolatorFilterReaderLineEndingTest
 
         assertEquals( "  url=\"jdbc:oracle:thin:@DB_SERVER:DB_PORT:DB_NAME\"", IOUtil.toString( reader ) );
     }
+
+    @Test
+    public void testBulkReadMatchesSingleCharacterRead()
+        throws Exception
+    {
+        when( interpolator.interpolate( anyString(), eq( "" ), isA( RecursionInterceptor.class ) ) ).thenAnswer(
+            new Answer<String>()
+            {
+                public String answer( InvocationOnMock invocation )
+                {
+                    String key = (String) invocation.getArguments()[0];
+                    return key.contains( "unknown" ) ? null : "<" + key.toUpperCase() + ">";
+                }
+            } );
+
+        String[] inputs = { "", "plain text only", "${a} and ${b}", "tail ${a", "\\${a} escaped", "\\ lone escape",
+            "mail@host.com @a@ ${b}@", "multi\nline ${a\n} and @b\n@", "${a}${b}@c@\\@d@\\\\${e}",
+            "unknown ${unknown} @unknown@ $ { } @" };
+
+        for ( String input : inputs )
+        {
+            for ( boolean multiLine : new boolean[]{ true, false } )
+            {
+                for ( boolean preserveEscape : new boolean[]{ true, false } )
+                {
+                    String expected = readCharByChar( newReader( input, multiLine, preserveEscape ) );
+                    for ( int bufferSize : new int[]{ 1, 2, 3, 7, 8192 } )
+                    {
+                        String actual = readBulk( newReader( input, multiLine, preserveEscape ), bufferSize );
+                        assertEquals( input + " with buffer " + bufferSize, expected, actual );
+                    }
+                }
+            }
+        }
+    }
+
+    @Ignore( "Enable this test to run performance checks" )
+    @Test
+    public void performanceTest()
+        throws Exception
+    {
+        when( interpolator.interpolate( anyString(), eq( "" ), isA( RecursionInterceptor.class ) ) ).thenReturn( "1.0" );
+
+        StringBuilder content = new StringBuilder();
+        for ( int i = 0; i < 2000; i++ )
+        {
+            content.append( "some.property.key" ).append( i ).append( "=a plain value without any expression\n" );
+            if ( i % 20 == 0 )
+            {
+                content.append( "version=${project.version}\n" );
+            }
+        }
+        String input = content.toString();
+
+        int cycles = 200;
+        for ( int i = 0; i < cycles; i++ )
+        {
+            readCharByChar( newReader( input, true, false ) );
+            readBulk( newReader( input, true, false ), 8192 );
+        }
+
+        long start = System.currentTimeMillis();
+        for ( int i = 0; i < cycles; i++ )
+        {
+            readCharByChar( newReader( input, true, false ) );
+        }
+        long charByChar = System.currentTimeMillis() - start;
+
+        start = System.currentTimeMillis();
+        for ( int i = 0; i < cycles; i++ )
+        {
+            readBulk( newReader( input, true, false ), 8192 );
+        }
+        long bulk = System.currentTimeMillis() - start;
+
+        System.out.println( "read(): " + charByChar + " ms, read(char[]): " + bulk + " ms" );
+    }
+
+    private Reader newReader( String input, boolean supportMultiLineFiltering, boolean preserveEscapeString )
+    {
+        MultiDelimiterInterpolatorFilterReaderLineEnding reader =
+            new MultiDelimiterInterpolatorFilterReaderLineEnding( new StringReader( input ), interpolator,
+                                                                  supportMultiLineFiltering );
+        reader.setDelimiterSpecs( new HashSet<String>( Arrays.asList( "${*}", "@" ) ) );
+        reader.setEscapeString( "\\" );
+        reader.setPreserveEscapeString( preserveEscapeString );
+        return reader;
+    }
+
+    private static String readCharByChar( Reader reader )
+        throws IOException
+    {
+        StringBuilder result = new StringBuilder();
+        for ( int ch = reader.read(); ch != -1; ch = reader.read() )
+        {
+            result.append( (char) ch );
+        }
+        return result.toString();
+    }
+
+    private static String readBulk( Reader reader, int bufferSize )
+        throws IOException
+    {
+        StringBuilder result = new StringBuilder();
+        char[] buffer = new char[bufferSize];
+        for ( int count = reader.read( buffer ); count != -1; count = reader.read( buffer ) )
+        {
+            result.append( buffer, 0, count );
+        }
+        return result.toString();
+    }
 }
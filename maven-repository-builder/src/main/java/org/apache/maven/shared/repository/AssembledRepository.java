@@ -0,0 +1,247 @@
+package org.apache.maven.shared.repository;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.maven.shared.utils.io.FileUtils;
+import org.apache.maven.shared.utils.io.IOUtil;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The directory a repository is assembled into. Every file is written together with its MD5 and SHA-1 checksum files,
+ * and both digests are computed while the file is written, so no file is read more than once.
+ * <p/>
+ * The directory is updated in place instead of being wiped: a copy whose target has the size and modification time of
+ * its source and both checksum files is skipped, and {@link #removeStaleFiles()} deletes whatever a previous assembly
+ * left behind that this one didn't write. Files may be copied concurrently, each target is copied once per assembly.
+ */
+final class AssembledRepository
+{
+    private static final String MD5_EXTENSION = ".md5";
+
+    private static final String SHA1_EXTENSION = ".sha1";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final File basedir;
+
+    private final ConcurrentMap<File, Boolean> writtenFiles = new ConcurrentHashMap<File, Boolean>();
+
+    AssembledRepository( File basedir )
+    {
+        this.basedir = basedir.getAbsoluteFile();
+    }
+
+    /**
+     * Copies a file into the repository and writes its checksums, unless the target is up to date or was already
+     * copied during this assembly.
+     *
+     * @param source The file to copy.
+     * @param path   The path of the copy relative to the repository directory.
+     * @throws IOException if the file can't be copied.
+     */
+    void copy( File source, String path )
+        throws IOException
+    {
+        File target = new File( basedir, path );
+        if ( !claim( target ) || isUpToDate( source, target ) )
+        {
+            return;
+        }
+
+        MessageDigest md5 = newDigest( "MD5" );
+        MessageDigest sha1 = newDigest( "SHA-1" );
+
+        mkdirs( target );
+
+        InputStream in = null;
+        OutputStream out = null;
+        try
+        {
+            in = new FileInputStream( source );
+            out = new FileOutputStream( target );
+
+            byte[] buffer = new byte[BUFFER_SIZE];
+            for ( int n = in.read( buffer ); n >= 0; n = in.read( buffer ) )
+            {
+                out.write( buffer, 0, n );
+                md5.update( buffer, 0, n );
+                sha1.update( buffer, 0, n );
+            }
+            out.close();
+            out = null;
+        }
+        finally
+        {
+            IOUtil.close( in );
+            IOUtil.close( out );
+        }
+
+        writeChecksums( target, md5.digest(), sha1.digest() );
+
+        // set last, so an interrupted copy is never taken for an up to date one
+        target.setLastModified( source.lastModified() );
+    }
+
+    /**
+     * Writes generated content and its checksums to one or more files of the repository.
+     *
+     * @param content The content to write.
+     * @param paths   The paths of the files relative to the repository directory.
+     * @throws IOException if a file can't be written.
+     */
+    void write( byte[] content, String... paths )
+        throws IOException
+    {
+        byte[] md5 = newDigest( "MD5" ).digest( content );
+        byte[] sha1 = newDigest( "SHA-1" ).digest( content );
+
+        for ( String path : paths )
+        {
+            File target = new File( basedir, path );
+            claim( target );
+            mkdirs( target );
+
+            OutputStream out = null;
+            try
+            {
+                out = new FileOutputStream( target );
+                out.write( content );
+                out.close();
+                out = null;
+            }
+            finally
+            {
+                IOUtil.close( out );
+            }
+
+            writeChecksums( target, md5, sha1 );
+        }
+    }
+
+    /**
+     * Deletes the files and directories of the repository which haven't been written during this assembly.
+     *
+     * @throws IOException if a stale file can't be deleted.
+     */
+    void removeStaleFiles()
+        throws IOException
+    {
+        removeStaleFiles( basedir );
+    }
+
+    private void removeStaleFiles( File directory )
+        throws IOException
+    {
+        File[] files = directory.listFiles();
+        if ( files == null )
+        {
+            return;
+        }
+
+        for ( File file : files )
+        {
+            if ( file.isDirectory() )
+            {
+                removeStaleFiles( file );
+
+                String[] remaining = file.list();
+                if ( remaining != null && remaining.length == 0 )
+                {
+                    delete( file );
+                }
+            }
+            else if ( !writtenFiles.containsKey( file ) )
+            {
+                delete( file );
+            }
+        }
+    }
+
+    private boolean claim( File target )
+    {
+        writtenFiles.put( checksumFile( target, MD5_EXTENSION ), Boolean.TRUE );
+        writtenFiles.put( checksumFile( target, SHA1_EXTENSION ), Boolean.TRUE );
+        return writtenFiles.putIfAbsent( target, Boolean.TRUE ) == null;
+    }
+
+    private static boolean isUpToDate( File source, File target )
+    {
+        return target.isFile() && target.length() == source.length()
+            && target.lastModified() == source.lastModified()
+            && checksumFile( target, MD5_EXTENSION ).isFile() && checksumFile( target, SHA1_EXTENSION ).isFile();
+    }
+
+    private static void writeChecksums( File file, byte[] md5, byte[] sha1 )
+        throws IOException
+    {
+        FileUtils.fileWrite( checksumFile( file, MD5_EXTENSION ).getAbsolutePath(),
+                             new String( Hex.encodeHex( md5 ) ) );
+        FileUtils.fileWrite( checksumFile( file, SHA1_EXTENSION ).getAbsolutePath(),
+                             new String( Hex.encodeHex( sha1 ) ) );
+    }
+
+    private static File checksumFile( File file, String extension )
+    {
+        return new File( file.getParentFile(), file.getName() + extension );
+    }
+
+    private static void mkdirs( File file )
+        throws IOException
+    {
+        File parent = file.getParentFile();
+        if ( parent != null && !parent.isDirectory() && !parent.mkdirs() && !parent.isDirectory() )
+        {
+            throw new IOException( "Could not create directory " + parent );
+        }
+    }
+
+    private static void delete( File file )
+        throws IOException
+    {
+        if ( !file.delete() )
+        {
+            throw new IOException( "Could not delete " + file );
+        }
+    }
+
+    private static MessageDigest newDigest( String algorithm )
+    {
+        try
+        {
+            return MessageDigest.getInstance( algorithm );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            // every Java platform is required to support MD5 and SHA-1
+            throw new IllegalStateException( e );
+        }
+    }
+}
@@ -53,7 +53,6 @@ import org.apache.maven.shared.artifact.filter.ScopeArtifactFilter;
 import org.apache.maven.shared.repository.model.GroupVersionAlignment;
 import org.apache.maven.shared.repository.model.RepositoryInfo;
 import org.apache.maven.shared.utils.io.FileUtils;
-import org.apache.maven.shared.utils.io.IOUtil;
 import org.codehaus.plexus.PlexusConstants;
 import org.codehaus.plexus.PlexusContainer;
 import org.codehaus.plexus.component.repository.exception.ComponentLookupException;
@@ -65,10 +64,8 @@ import org.codehaus.plexus.logging.console.ConsoleLogger;
 import org.codehaus.plexus.personality.plexus.lifecycle.phase.Contextualizable;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.Writer;
+import java.io.StringWriter;
 import java.lang.reflect.Field;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
@@ -77,13 +74,16 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TimeZone;
-
-import static org.apache.commons.codec.digest.DigestUtils.md5Hex;
-import static org.apache.commons.codec.digest.DigestUtils.shaHex;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * @author Jason van Zyl
@@ -102,6 +102,8 @@ public class DefaultRepositoryAssembler
 
     protected static final String UTC_TIMESTAMP_PATTERN = "yyyyMMddHHmmss";
 
+    private static final int ASSEMBLY_THREADS = Math.max( 2, Runtime.getRuntime().availableProcessors() );
+
     /**
      * @plexus.requirement
      */
@@ -133,6 +135,12 @@ public class DefaultRepositoryAssembler
      */
     protected MavenProjectBuilder projectBuilder;
 
+    /**
+     * Guards the resolver and the project builder, which aren't thread-safe, while artifacts are assembled
+     * concurrently.
+     */
+    private final Object resolutionLock = new Object();
+
     public DefaultRepositoryAssembler()
     {
         // used for plexus init.
@@ -222,18 +230,30 @@ public class DefaultRepositoryAssembler
 
         ArtifactFilter filter = buildRepositoryFilter( repository, project );
 
+        // the repository previously populated is updated in place, files which are up to date aren't copied again
+        AssembledRepository assembledRepository = new AssembledRepository( repositoryDirectory );
+
         assembleRepositoryArtifacts( result, filter, project, localRepository, targetRepository, repositoryDirectory,
-                                     groupVersionAlignments );
+                                     assembledRepository, groupVersionAlignments );
 
         ArtifactRepository centralRepository = findCentralRepository( project );
 
         if ( repository.isIncludeMetadata() )
         {
-            assembleRepositoryMetadata( result, filter, centralRepository, targetRepository );
+            assembleRepositoryMetadata( result, filter, centralRepository, targetRepository, assembledRepository );
         }
 
         addPomWithAncestry( project.getArtifact(), project.getRemoteArtifactRepositories(), localRepository,
-                            targetRepository, groupVersionAlignments, project );
+                            targetRepository, assembledRepository, groupVersionAlignments, project );
+
+        try
+        {
+            assembledRepository.removeStaleFiles();
+        }
+        catch ( IOException e )
+        {
+            throw new RepositoryAssemblyException( "Error removing stale files from the repository.", e );
+        }
     }
 
     private ArtifactFilter buildRepositoryFilter( RepositoryInfo repository, MavenProject project )
@@ -298,67 +318,160 @@ public class DefaultRepositoryAssembler
     }
 
     private void assembleRepositoryArtifacts( ArtifactResolutionResult result, ArtifactFilter filter,
-                                              MavenProject project, ArtifactRepository localRepository,
-                                              ArtifactRepository targetRepository, File repositoryDirectory,
-                                              Map groupVersionAlignments )
+                                              final MavenProject project, final ArtifactRepository localRepository,
+                                              final ArtifactRepository targetRepository, File repositoryDirectory,
+                                              final AssembledRepository assembledRepository,
+                                              final Map groupVersionAlignments )
         throws RepositoryAssemblyException
     {
+        FileUtils.mkdir( repositoryDirectory.getAbsolutePath() );
+
+        ExecutorService executor = Executors.newFixedThreadPool( ASSEMBLY_THREADS );
         try
         {
-            // Now that we have the graph, let's try to align it to versions
-            // that we want and remove
-            // the repository we previously populated.
-            FileUtils.deleteDirectory( repositoryDirectory );
-
-            FileUtils.mkdir( repositoryDirectory.getAbsolutePath() );
+            List<Future<Object>> assemblies = new ArrayList<Future<Object>>();
 
             for ( Object o : result.getArtifacts() )
             {
-                Artifact a = (Artifact) o;
+                final Artifact a = (Artifact) o;
 
                 if ( filter.include( a ) )
                 {
-                    getLogger().debug( "Re-resolving: " + a + " for repository assembly." );
-
-                    setAlignment( a, groupVersionAlignments );
+                    assemblies.add( executor.submit( new Callable<Object>()
+                    {
+                        public Object call()
+                            throws RepositoryAssemblyException
+                        {
+                            assembleRepositoryArtifact( a, project, localRepository, targetRepository,
+                                                        assembledRepository, groupVersionAlignments );
+                            return null;
+                        }
+                    } ) );
+                }
+            }
 
-                    // We need to flip it back to not being resolved so we can
-                    // look for it again!
-                    a.setResolved( false );
+            for ( Future<Object> assembly : assemblies )
+            {
+                assembly.get();
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new RepositoryAssemblyException( "Interrupted while assembling the repository.", e );
+        }
+        catch ( ExecutionException e )
+        {
+            Throwable cause = e.getCause();
+            if ( cause instanceof RepositoryAssemblyException )
+            {
+                throw (RepositoryAssemblyException) cause;
+            }
+            if ( cause instanceof RuntimeException )
+            {
+                throw (RuntimeException) cause;
+            }
+            if ( cause instanceof Error )
+            {
+                throw (Error) cause;
+            }
+            throw new RepositoryAssemblyException( "Error assembling the repository.", cause );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
 
-                    artifactResolver.resolve( a, project.getRemoteArtifactRepositories(), localRepository );
+    private void assembleRepositoryArtifact( Artifact a, MavenProject project, ArtifactRepository localRepository,
+                                             ArtifactRepository targetRepository,
+                                             AssembledRepository assembledRepository, Map groupVersionAlignments )
+        throws RepositoryAssemblyException
+    {
+        String path;
+        Map<String, File> poms;
 
-                    a.setVersion( a.getBaseVersion() );
+        // resolution is serialized, the copies and checksums of the artifacts are what runs concurrently
+        synchronized ( resolutionLock )
+        {
+            getLogger().debug( "Re-resolving: " + a + " for repository assembly." );
 
-                    File targetFile = new File( targetRepository.getBasedir(), targetRepository.pathOf( a ) );
-                    FileUtils.copyFile( a.getFile(), targetFile );
+            setAlignment( a, groupVersionAlignments );
 
-                    writeChecksums( targetFile );
+            // We need to flip it back to not being resolved so we can
+            // look for it again!
+            a.setResolved( false );
 
-                    addPomWithAncestry( a, project.getRemoteArtifactRepositories(), localRepository, targetRepository,
-                                        groupVersionAlignments, project );
-                }
+            try
+            {
+                artifactResolver.resolve( a, project.getRemoteArtifactRepositories(), localRepository );
             }
+            catch ( ArtifactResolutionException e )
+            {
+                throw new RepositoryAssemblyException( "Error resolving artifacts: " + e.getMessage(), e );
+            }
+            catch ( ArtifactNotFoundException e )
+            {
+                throw new RepositoryAssemblyException( "Error resolving artifacts: " + e.getMessage(), e );
+            }
+
+            a.setVersion( a.getBaseVersion() );
+
+            path = targetRepository.pathOf( a );
+
+            poms = getPomWithAncestry( a, project.getRemoteArtifactRepositories(), localRepository, targetRepository,
+                                       groupVersionAlignments, project );
         }
-        catch ( ArtifactResolutionException e )
-        {
-            throw new RepositoryAssemblyException( "Error resolving artifacts: " + e.getMessage(), e );
-        }
-        catch ( ArtifactNotFoundException e )
+
+        try
         {
-            throw new RepositoryAssemblyException( "Error resolving artifacts: " + e.getMessage(), e );
+            assembledRepository.copy( a.getFile(), path );
         }
         catch ( IOException e )
         {
-            throw new RepositoryAssemblyException( "Error writing artifact metdata.", e );
+            throw new RepositoryAssemblyException( "Error writing artifact: " + a.getId(), e );
         }
+
+        copyPoms( poms, assembledRepository );
     }
 
-    private void addPomWithAncestry( final Artifact artifact, List remoteArtifactRepositories,
+    private void addPomWithAncestry( Artifact artifact, List remoteArtifactRepositories,
                                      ArtifactRepository localRepository, ArtifactRepository targetRepository,
-                                     Map groupVersionAlignments, MavenProject masterProject )
+                                     AssembledRepository assembledRepository, Map groupVersionAlignments,
+                                     MavenProject masterProject )
+        throws RepositoryAssemblyException
+    {
+        copyPoms( getPomWithAncestry( artifact, remoteArtifactRepositories, localRepository, targetRepository,
+                                      groupVersionAlignments, masterProject ), assembledRepository );
+    }
+
+    private void copyPoms( Map<String, File> poms, AssembledRepository assembledRepository )
         throws RepositoryAssemblyException
     {
+        for ( Map.Entry<String, File> pom : poms.entrySet() )
+        {
+            try
+            {
+                assembledRepository.copy( pom.getValue(), pom.getKey() );
+            }
+            catch ( IOException e )
+            {
+                throw new RepositoryAssemblyException( "Error writing POM metdata: " + pom.getKey(), e );
+            }
+        }
+    }
+
+    /**
+     * @return The POM files of the artifact's project and its parents, by their path in the target repository.
+     */
+    private Map<String, File> getPomWithAncestry( final Artifact artifact, List remoteArtifactRepositories,
+                                                  ArtifactRepository localRepository,
+                                                  ArtifactRepository targetRepository, Map groupVersionAlignments,
+                                                  MavenProject masterProject )
+        throws RepositoryAssemblyException
+    {
+        Map<String, File> poms = new LinkedHashMap<String, File>();
+
         String type = artifact.getType();
         Map refs = masterProject.getProjectReferences();
 
@@ -424,28 +537,12 @@ public class DefaultRepositoryAssembler
                 break;
             }
 
-            File targetFile = new File( targetRepository.getBasedir(), targetRepository.pathOf( destArtifact ) );
-
-            try
-            {
-                FileUtils.copyFile( sourceFile, targetFile );
-            }
-            catch ( IOException e )
-            {
-                throw new RepositoryAssemblyException( "Error writing POM metdata: " + destArtifact.getId(), e );
-            }
-
-            try
-            {
-                writeChecksums( targetFile );
-            }
-            catch ( IOException e )
-            {
-                throw new RepositoryAssemblyException( "Error writing checksums for POM: " + destArtifact.getId(), e );
-            }
+            poms.put( targetRepository.pathOf( destArtifact ), sourceFile );
 
             p = p.getParent();
         }
+
+        return poms;
     }
 
     private ArtifactRepository findCentralRepository( MavenProject project )
@@ -464,7 +561,8 @@ public class DefaultRepositoryAssembler
     }
 
     private void assembleRepositoryMetadata( ArtifactResolutionResult result, ArtifactFilter filter,
-                                             ArtifactRepository centralRepository, ArtifactRepository targetRepository )
+                                             ArtifactRepository centralRepository, ArtifactRepository targetRepository,
+                                             AssembledRepository assembledRepository )
         throws RepositoryAssemblyException
     {
         for ( Object o : result.getArtifacts() )
@@ -484,43 +582,20 @@ public class DefaultRepositoryAssembler
                 v.setLastUpdated( getUtcDateFormatter().format( new Date() ) );
 
                 ArtifactRepositoryMetadata metadata = new ArtifactRepositoryMetadata( a, v );
-                String path = targetRepository.pathOfLocalRepositoryMetadata( metadata, centralRepository );
-                File metadataFile = new File( targetRepository.getBasedir(), path );
 
                 MetadataXpp3Writer metadataWriter = new MetadataXpp3Writer();
 
-                Writer writer = null;
                 try
                 {
-                    writer = new FileWriter( metadataFile );
+                    StringWriter writer = new StringWriter();
 
                     metadataWriter.write( writer, metadata.getMetadata() );
-                }
-                catch ( IOException e )
-                {
-                    throw new RepositoryAssemblyException( "Error writing artifact metdata.", e );
-                }
-                finally
-                {
-                    IOUtil.close( writer );
-                }
-
-                try
-                {
-                    writeChecksums( metadataFile );
 
-                    File metadataFileRemote = new File( targetRepository.getBasedir(),
-                                                        targetRepository.pathOfRemoteRepositoryMetadata( metadata ) );
-
-                    FileUtils.copyFile( metadataFile, metadataFileRemote );
-
-                    FileUtils.copyFile( new File( metadataFile.getParentFile(), metadataFile.getName() + ".sha1" ),
-                                        new File( metadataFileRemote.getParentFile(),
-                                                  metadataFileRemote.getName() + ".sha1" ) );
-
-                    FileUtils.copyFile( new File( metadataFile.getParentFile(), metadataFile.getName() + ".md5" ),
-                                        new File( metadataFileRemote.getParentFile(),
-                                                  metadataFileRemote.getName() + ".md5" ) );
+                    // the local and the remote copy share the content and its checksums
+                    assembledRepository.write( writer.toString().getBytes( "UTF-8" ),
+                                               targetRepository.pathOfLocalRepositoryMetadata( metadata,
+                                                                                               centralRepository ),
+                                               targetRepository.pathOfRemoteRepositoryMetadata( metadata ) );
                 }
                 catch ( IOException e )
                 {
@@ -530,22 +605,6 @@ public class DefaultRepositoryAssembler
         }
     }
 
-    private void writeChecksums( File file )
-        throws IOException, RepositoryAssemblyException
-    {
-        FileInputStream data = new FileInputStream( file );
-        String md5 = md5Hex( data ).toUpperCase();
-        data.close();
-        FileInputStream data1 = new FileInputStream( file );
-        String sha1 = shaHex( data1 ).toUpperCase();
-        data1.close();
-
-        FileUtils.fileWrite( new File( file.getParentFile(), file.getName() + ".md5" ).getAbsolutePath(),
-                             md5.toLowerCase() );
-        FileUtils.fileWrite( new File( file.getParentFile(), file.getName() + ".sha1" ).getAbsolutePath(),
-                             sha1.toLowerCase() );
-    }
-
     protected Map createGroupVersionAlignments( List versionAlignments )
     {
         Map groupVersionAlignments = new HashMap();
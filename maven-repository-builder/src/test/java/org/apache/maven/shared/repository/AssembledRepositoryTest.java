@@ -0,0 +1,115 @@
+package org.apache.maven.shared.repository;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.apache.maven.shared.utils.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+
+public class AssembledRepositoryTest
+    extends TestCase
+{
+    private File basedir;
+
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        basedir = new File( "target/assembled-repository/" + getName() ).getAbsoluteFile();
+        FileUtils.deleteDirectory( basedir );
+        basedir.mkdirs();
+    }
+
+    public void testCopyWritesChecksums()
+        throws IOException
+    {
+        File source = writeSource( "abc" );
+
+        new AssembledRepository( basedir ).copy( source, "g/a/1/a-1.jar" );
+
+        File target = new File( basedir, "g/a/1/a-1.jar" );
+        assertEquals( "abc", FileUtils.fileRead( target ) );
+        assertEquals( source.lastModified(), target.lastModified() );
+        assertEquals( "900150983cd24fb0d6963f7d28e17f72",
+                      FileUtils.fileRead( new File( basedir, "g/a/1/a-1.jar.md5" ) ) );
+        assertEquals( "a9993e364706816aba3e25717850c26c9cd0d89d",
+                      FileUtils.fileRead( new File( basedir, "g/a/1/a-1.jar.sha1" ) ) );
+    }
+
+    public void testUpToDateCopyIsSkipped()
+        throws IOException
+    {
+        File source = writeSource( "abc" );
+        new AssembledRepository( basedir ).copy( source, "a.jar" );
+
+        File target = new File( basedir, "a.jar" );
+        FileUtils.fileWrite( target.getAbsolutePath(), "xyz" );
+        target.setLastModified( source.lastModified() );
+
+        new AssembledRepository( basedir ).copy( source, "a.jar" );
+        assertEquals( "xyz", FileUtils.fileRead( target ) );
+
+        new File( basedir, "a.jar.sha1" ).delete();
+        new AssembledRepository( basedir ).copy( source, "a.jar" );
+        assertEquals( "abc", FileUtils.fileRead( target ) );
+    }
+
+    public void testWriteToSeveralPaths()
+        throws IOException
+    {
+        new AssembledRepository( basedir ).write( "abc".getBytes( "UTF-8" ), "g/a/maven-metadata-central.xml",
+                                                  "g/a/maven-metadata.xml" );
+
+        for ( String name : new String[]{ "maven-metadata-central.xml", "maven-metadata.xml" } )
+        {
+            assertEquals( "abc", FileUtils.fileRead( new File( basedir, "g/a/" + name ) ) );
+            assertEquals( "900150983cd24fb0d6963f7d28e17f72",
+                          FileUtils.fileRead( new File( basedir, "g/a/" + name + ".md5" ) ) );
+        }
+    }
+
+    public void testRemoveStaleFiles()
+        throws IOException
+    {
+        File source = writeSource( "abc" );
+        new AssembledRepository( basedir ).copy( source, "old/1/old-1.jar" );
+
+        AssembledRepository repository = new AssembledRepository( basedir );
+        repository.copy( source, "new/1/new-1.jar" );
+        repository.removeStaleFiles();
+
+        assertFalse( new File( basedir, "old" ).exists() );
+        assertTrue( new File( basedir, "new/1/new-1.jar" ).isFile() );
+        assertTrue( new File( basedir, "new/1/new-1.jar.md5" ).isFile() );
+        assertTrue( new File( basedir, "new/1/new-1.jar.sha1" ).isFile() );
+    }
+
+    private File writeSource( String content )
+        throws IOException
+    {
+        File source = new File( basedir.getParentFile(), getName() + ".source" );
+        FileUtils.fileWrite( source.getAbsolutePath(), content );
+        source.setLastModified( 1000000000000L );
+        return source;
+    }
+}
@@ -42,6 +42,7 @@ public class IncrementalBuildHelper
     private static final String MAVEN_STATUS_ROOT = "maven-status";
     public static final String CREATED_FILES_LST_FILENAME = "createdFiles.lst";
     private static final String INPUT_FILES_LST_FILENAME = "inputFiles.lst";
+    private static final String INPUT_FILES_STATUS_FILENAME = "inputFiles.status";
 
     private static final String[] EMPTY_ARRAY = new String[0];
 
@@ -67,6 +68,12 @@ public class IncrementalBuildHelper
      */
     private String[] filesBeforeAction = new String[0];
 
+    /**
+     * The status of the input files taken by the last call to
+     * {@link #detectInputFileChanges(IncrementalBuildHelperRequest)}, which gets stored once the Mojo succeeded.
+     */
+    private InputFileStatus inputFileStatus;
+
     public IncrementalBuildHelper( MojoExecution mojoExecution, MavenSession mavenSession )
     {
         this( mojoExecution, getMavenProject( mavenSession ) );
@@ -255,6 +262,101 @@ public class IncrementalBuildHelper
         return ( dsr.getFilesAdded().length > 0 || dsr.getFilesRemoved().length > 0 );
     }
 
+    /**
+     * Detect which input files got added, removed or modified since the last build.
+     * Besides the name of each input file we store its size, modification time and a checksum of its content
+     * in a status file, so a Mojo can process only the changed files instead of all of them.
+     * The content of a file only gets read again if its size or modification time changed, and a file which
+     * got touched without changing its content is not reported as modified.
+     * The new status only gets stored by {@link #commitInputFileChanges()} or
+     * {@link #afterRebuildExecution(IncrementalBuildHelperRequest)} once the Mojo processed the changes successfully,
+     * so the changes of a failed build get reported again by the next one.
+     *
+     * @param incrementalBuildHelperRequest
+     * @return the absolute paths of the input files which got changed since the last build.
+     * @throws MojoExecutionException
+     * @since 1.2
+     */
+    public InputFileChanges detectInputFileChanges( IncrementalBuildHelperRequest incrementalBuildHelperRequest )
+        throws MojoExecutionException
+    {
+        String[] inputFileNames = new String[incrementalBuildHelperRequest.getInputFiles().size()];
+        int i = 0;
+        for ( File inputFile : incrementalBuildHelperRequest.getInputFiles() )
+        {
+            inputFileNames[i++] = inputFile.getAbsolutePath();
+        }
+
+        return detectInputFileChanges( null, inputFileNames );
+    }
+
+    /**
+     * Detect which of the files picked up by the DirectoryScanner got added, removed or modified
+     * since the last build, the same way as {@link #detectInputFileChanges(IncrementalBuildHelperRequest)}.
+     *
+     * @param dirScanner
+     * @return the paths of the included files which got changed since the last build,
+     *         relative to the base directory of the DirectoryScanner.
+     * @throws MojoExecutionException
+     * @since 1.2
+     */
+    public InputFileChanges detectInputFileChanges( DirectoryScanner dirScanner )
+        throws MojoExecutionException
+    {
+        dirScanner.scan();
+
+        return detectInputFileChanges( dirScanner.getBasedir(), dirScanner.getIncludedFiles() );
+    }
+
+    private InputFileChanges detectInputFileChanges( File basedir, String[] inputFileNames )
+        throws MojoExecutionException
+    {
+        File mojoConfigBase = getMojoStatusDirectory();
+        File mojoStatusFile = new File( mojoConfigBase, INPUT_FILES_STATUS_FILENAME );
+
+        InputFileStatus oldStatus = InputFileStatus.read( mojoStatusFile );
+
+        try
+        {
+            inputFileStatus = InputFileStatus.scan( basedir, inputFileNames, oldStatus );
+        }
+        catch ( IOException e )
+        {
+            throw new MojoExecutionException( "Error reading the input files", e );
+        }
+
+        return inputFileStatus.diff( oldStatus );
+    }
+
+    /**
+     * Stores the status of the input files taken by the last call to
+     * {@link #detectInputFileChanges(IncrementalBuildHelperRequest)}, so the next build only reports the changes made
+     * after it. This shall only get invoked once the Mojo processed the changes successfully. Does nothing if no
+     * changes got detected.
+     *
+     * @throws MojoExecutionException
+     * @since 1.2
+     */
+    public void commitInputFileChanges()
+        throws MojoExecutionException
+    {
+        if ( inputFileStatus == null )
+        {
+            return;
+        }
+
+        File mojoStatusFile = new File( getMojoStatusDirectory(), INPUT_FILES_STATUS_FILENAME );
+        try
+        {
+            inputFileStatus.write( mojoStatusFile );
+        }
+        catch ( IOException e )
+        {
+            throw new MojoExecutionException( "Error while storing new mojo status " + mojoStatusFile, e );
+        }
+        inputFileStatus = null;
+    }
+
     /**
      * <p>
      * This method shall get invoked before the actual Mojo task gets triggered, e.g. the actual compile in
@@ -318,6 +420,9 @@ public class IncrementalBuildHelper
      *
      * <p><b>Attention:</b> This method shall only get invoked if the plugin re-creates <b>all</b> the output.</p>
      *
+     * <p>It also stores the status of the input files detected by
+     * {@link #detectInputFileChanges(IncrementalBuildHelperRequest)}, see {@link #commitInputFileChanges()}.</p>
+     *
      * @param incrementalBuildHelperRequest will contains file sources to store if create files are not yet stored
      *
      * @throws MojoExecutionException
@@ -358,6 +463,7 @@ public class IncrementalBuildHelper
             }
         }
 
+        commitInputFileChanges();
     }
 
     private String[] toArrayOfPath( Set<File> files )
@@ -0,0 +1,75 @@
+package org.apache.maven.shared.incremental;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * The input files of a Mojo execution which got added, removed or modified since the previous build, as detected by
+ * {@link IncrementalBuildHelper#detectInputFileChanges(IncrementalBuildHelperRequest)}.
+ * All paths are sorted.
+ *
+ * @since 1.2
+ */
+public class InputFileChanges
+{
+    private final String[] filesAdded;
+
+    private final String[] filesRemoved;
+
+    private final String[] filesModified;
+
+    public InputFileChanges( String[] filesAdded, String[] filesRemoved, String[] filesModified )
+    {
+        this.filesAdded = filesAdded;
+        this.filesRemoved = filesRemoved;
+        this.filesModified = filesModified;
+    }
+
+    /**
+     * @return the files which did not exist in the previous build.
+     */
+    public String[] getFilesAdded()
+    {
+        return filesAdded;
+    }
+
+    /**
+     * @return the files of the previous build which are no input files anymore.
+     */
+    public String[] getFilesRemoved()
+    {
+        return filesRemoved;
+    }
+
+    /**
+     * @return the files whose size or content changed since the previous build.
+     */
+    public String[] getFilesModified()
+    {
+        return filesModified;
+    }
+
+    /**
+     * @return <code>true</code> if any input file got added, removed or modified.
+     */
+    public boolean hasChanges()
+    {
+        return filesAdded.length > 0 || filesRemoved.length > 0 || filesModified.length > 0;
+    }
+}
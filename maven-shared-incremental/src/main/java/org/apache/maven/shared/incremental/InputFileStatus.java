@@ -0,0 +1,303 @@
+package org.apache.maven.shared.incremental;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import org.apache.maven.shared.utils.io.IOUtil;
+
+/**
+ * The size, modification time and content checksum of each input file of a Mojo execution, sorted by path.
+ * <p/>
+ * The status is stored in a compact binary file. As both the stored and the current status are sorted, they can be
+ * compared in a single pass. The content of a file is only read if its size or modification time differ from the
+ * previous status, otherwise the previous checksum is reused.
+ *
+ * @since 1.2
+ */
+final class InputFileStatus
+{
+    private static final int MAGIC = 0x4D534946;
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final String[] EMPTY_ARRAY = new String[0];
+
+    private final String[] paths;
+
+    private final long[] sizes;
+
+    private final long[] lastModified;
+
+    private final long[] checksums;
+
+    private InputFileStatus( String[] paths, long[] sizes, long[] lastModified, long[] checksums )
+    {
+        this.paths = paths;
+        this.sizes = sizes;
+        this.lastModified = lastModified;
+        this.checksums = checksums;
+    }
+
+    /**
+     * Takes the status of the given files.
+     *
+     * @param basedir  the directory the paths are relative to, or <code>null</code> if they are absolute.
+     * @param paths    the paths of the input files, in any order.
+     * @param previous the status of the previous build, or <code>null</code> if there is none.
+     * @return the status of the input files
+     * @throws IOException if an input file could not be read
+     */
+    static InputFileStatus scan( File basedir, String[] paths, InputFileStatus previous )
+        throws IOException
+    {
+        String[] sorted = paths.clone();
+        Arrays.sort( sorted );
+
+        List<String> uniquePaths = new ArrayList<String>( sorted.length );
+        for ( String path : sorted )
+        {
+            if ( uniquePaths.isEmpty() || !uniquePaths.get( uniquePaths.size() - 1 ).equals( path ) )
+            {
+                uniquePaths.add( path );
+            }
+        }
+
+        int count = uniquePaths.size();
+        long[] sizes = new long[count];
+        long[] lastModified = new long[count];
+        long[] checksums = new long[count];
+
+        int p = 0;
+        for ( int i = 0; i < count; i++ )
+        {
+            String path = uniquePaths.get( i );
+            File file = basedir != null ? new File( basedir, path ) : new File( path );
+            sizes[i] = file.length();
+            lastModified[i] = file.lastModified();
+
+            if ( previous != null )
+            {
+                while ( p < previous.paths.length && previous.paths[p].compareTo( path ) < 0 )
+                {
+                    p++;
+                }
+            }
+
+            if ( previous != null && p < previous.paths.length && previous.paths[p].equals( path )
+                && previous.sizes[p] == sizes[i] && previous.lastModified[p] == lastModified[i] )
+            {
+                checksums[i] = previous.checksums[p];
+            }
+            else
+            {
+                checksums[i] = checksum( file );
+            }
+        }
+
+        return new InputFileStatus( uniquePaths.toArray( new String[count] ), sizes, lastModified, checksums );
+    }
+
+    /**
+     * Compares this status with the status of the previous build.
+     *
+     * @param previous the status of the previous build, or <code>null</code> if there is none.
+     * @return the paths of the files which got added, removed or modified since the previous build.
+     */
+    InputFileChanges diff( InputFileStatus previous )
+    {
+        if ( previous == null )
+        {
+            return new InputFileChanges( paths.clone(), EMPTY_ARRAY, EMPTY_ARRAY );
+        }
+
+        List<String> added = new ArrayList<String>();
+        List<String> removed = new ArrayList<String>();
+        List<String> modified = new ArrayList<String>();
+
+        int i = 0;
+        int p = 0;
+        while ( i < paths.length || p < previous.paths.length )
+        {
+            int cmp;
+            if ( i == paths.length )
+            {
+                cmp = 1;
+            }
+            else if ( p == previous.paths.length )
+            {
+                cmp = -1;
+            }
+            else
+            {
+                cmp = paths[i].compareTo( previous.paths[p] );
+            }
+
+            if ( cmp < 0 )
+            {
+                added.add( paths[i++] );
+            }
+            else if ( cmp > 0 )
+            {
+                removed.add( previous.paths[p++] );
+            }
+            else
+            {
+                if ( sizes[i] != previous.sizes[p] || checksums[i] != previous.checksums[p] )
+                {
+                    modified.add( paths[i] );
+                }
+                i++;
+                p++;
+            }
+        }
+
+        return new InputFileChanges( added.toArray( new String[added.size()] ),
+                                     removed.toArray( new String[removed.size()] ),
+                                     modified.toArray( new String[modified.size()] ) );
+    }
+
+    /**
+     * @param statusFile the status file, which doesn't need to exist.
+     * @return the stored status, or <code>null</code> if there is none, it has been written in another format or it
+     *         can't be read, in which case all input files are reported as added.
+     */
+    static InputFileStatus read( File statusFile )
+    {
+        if ( !statusFile.isFile() )
+        {
+            return null;
+        }
+
+        DataInputStream in = null;
+        try
+        {
+            in = new DataInputStream( new BufferedInputStream( new FileInputStream( statusFile ) ) );
+            if ( in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION )
+            {
+                return null;
+            }
+
+            int count = in.readInt();
+            if ( count < 0 )
+            {
+                throw new IOException( "Corrupt status file " + statusFile );
+            }
+
+            String[] paths = new String[count];
+            long[] sizes = new long[count];
+            long[] lastModified = new long[count];
+            long[] checksums = new long[count];
+            for ( int i = 0; i < count; i++ )
+            {
+                paths[i] = in.readUTF();
+                sizes[i] = in.readLong();
+                lastModified[i] = in.readLong();
+                checksums[i] = in.readLong();
+
+                if ( i > 0 && paths[i - 1].compareTo( paths[i] ) >= 0 )
+                {
+                    throw new IOException( "Corrupt status file " + statusFile );
+                }
+            }
+            return new InputFileStatus( paths, sizes, lastModified, checksums );
+        }
+        catch ( IOException e )
+        {
+            // unreadable or truncated, start over
+            return null;
+        }
+        finally
+        {
+            IOUtil.close( in );
+        }
+    }
+
+    /**
+     * @param statusFile the file to store the status in.
+     * @throws IOException if the status file could not be written
+     */
+    void write( File statusFile )
+        throws IOException
+    {
+        DataOutputStream out = null;
+        try
+        {
+            out = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( statusFile ) ) );
+            out.writeInt( MAGIC );
+            out.writeInt( FORMAT_VERSION );
+            out.writeInt( paths.length );
+            for ( int i = 0; i < paths.length; i++ )
+            {
+                out.writeUTF( paths[i] );
+                out.writeLong( sizes[i] );
+                out.writeLong( lastModified[i] );
+                out.writeLong( checksums[i] );
+            }
+            out.close();
+            out = null;
+        }
+        finally
+        {
+            IOUtil.close( out );
+        }
+    }
+
+    private static long checksum( File file )
+        throws IOException
+    {
+        if ( !file.isFile() )
+        {
+            return 0L;
+        }
+
+        CRC32 crc = new CRC32();
+        InputStream in = null;
+        try
+        {
+            in = new FileInputStream( file );
+            byte[] buffer = new byte[8192];
+            int n;
+            while ( ( n = in.read( buffer ) ) != -1 )
+            {
+                crc.update( buffer, 0, n );
+            }
+            in.close();
+            in = null;
+        }
+        finally
+        {
+            IOUtil.close( in );
+        }
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,108 @@
+package org.apache.maven.shared.incremental;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.utils.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class IncrementalBuildHelperTest
+{
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private MavenProject project;
+
+    private MojoExecution mojoExecution;
+
+    private IncrementalBuildHelperRequest request;
+
+    @Before
+    public void setUp()
+        throws IOException
+    {
+        Build build = new Build();
+        build.setDirectory( tempFolder.newFolder( "target" ).getAbsolutePath() );
+        Model model = new Model();
+        model.setBuild( build );
+        project = new MavenProject( model );
+
+        PluginDescriptor pluginDescriptor = new PluginDescriptor();
+        pluginDescriptor.setArtifactId( "maven-test-plugin" );
+        MojoDescriptor mojoDescriptor = new MojoDescriptor();
+        mojoDescriptor.setGoal( "test" );
+        mojoDescriptor.setPluginDescriptor( pluginDescriptor );
+        mojoExecution = new MojoExecution( mojoDescriptor, "default-test" );
+
+        File input = tempFolder.newFile( "Input.java" );
+        FileUtils.fileWrite( input.getAbsolutePath(), "class Input {}" );
+        request = new IncrementalBuildHelperRequest().inputFiles( Collections.singleton( input ) );
+    }
+
+    @Test
+    public void changesAreReportedAgainUntilCommitted()
+        throws Exception
+    {
+        String[] added = { request.getInputFiles().iterator().next().getAbsolutePath() };
+
+        assertArrayEquals( added, newHelper().detectInputFileChanges( request ).getFilesAdded() );
+
+        // the Mojo failed, so the changes were not committed
+        IncrementalBuildHelper helper = newHelper();
+        assertArrayEquals( added, helper.detectInputFileChanges( request ).getFilesAdded() );
+        helper.commitInputFileChanges();
+
+        assertFalse( newHelper().detectInputFileChanges( request ).hasChanges() );
+    }
+
+    @Test
+    public void afterRebuildExecutionCommitsChanges()
+        throws Exception
+    {
+        request.outputDirectory( tempFolder.newFolder( "classes" ) );
+
+        IncrementalBuildHelper helper = newHelper();
+        helper.detectInputFileChanges( request );
+        helper.beforeRebuildExecution( request );
+        helper.afterRebuildExecution( request );
+
+        assertFalse( newHelper().detectInputFileChanges( request ).hasChanges() );
+    }
+
+    private IncrementalBuildHelper newHelper()
+    {
+        return new IncrementalBuildHelper( mojoExecution, project );
+    }
+}
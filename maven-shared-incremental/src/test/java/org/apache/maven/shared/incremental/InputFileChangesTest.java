@@ -0,0 +1,61 @@
+package org.apache.maven.shared.incremental;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class InputFileChangesTest
+{
+    private static final String[] NONE = new String[0];
+
+    private static final String[] ONE = { "a.txt" };
+
+    @Test
+    public void noChanges()
+    {
+        assertFalse( new InputFileChanges( NONE, NONE, NONE ).hasChanges() );
+    }
+
+    @Test
+    public void anyKindOfChange()
+    {
+        assertTrue( new InputFileChanges( ONE, NONE, NONE ).hasChanges() );
+        assertTrue( new InputFileChanges( NONE, ONE, NONE ).hasChanges() );
+        assertTrue( new InputFileChanges( NONE, NONE, ONE ).hasChanges() );
+    }
+
+    @Test
+    public void getters()
+    {
+        String[] added = { "a.txt" };
+        String[] removed = { "b.txt" };
+        String[] modified = { "c.txt" };
+
+        InputFileChanges changes = new InputFileChanges( added, removed, modified );
+
+        assertArrayEquals( added, changes.getFilesAdded() );
+        assertArrayEquals( removed, changes.getFilesRemoved() );
+        assertArrayEquals( modified, changes.getFilesModified() );
+    }
+}
@@ -0,0 +1,184 @@
+package org.apache.maven.shared.incremental;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.apache.maven.shared.utils.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class InputFileStatusTest
+{
+    private static final String[] NONE = new String[0];
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void firstScanReportsAllFilesAdded()
+        throws IOException
+    {
+        File basedir = tempFolder.getRoot();
+        write( "b.txt", "b" );
+        write( "a.txt", "a" );
+
+        InputFileChanges changes = InputFileStatus.scan( basedir, new String[]{ "b.txt", "a.txt" }, null ).diff( null );
+
+        assertArrayEquals( new String[]{ "a.txt", "b.txt" }, changes.getFilesAdded() );
+        assertArrayEquals( NONE, changes.getFilesRemoved() );
+        assertArrayEquals( NONE, changes.getFilesModified() );
+    }
+
+    @Test
+    public void addedRemovedAndModifiedFiles()
+        throws IOException
+    {
+        File basedir = tempFolder.getRoot();
+        write( "a.txt", "a" );
+        write( "b.txt", "b" );
+        write( "c.txt", "c" );
+        InputFileStatus previous = InputFileStatus.scan( basedir, new String[]{ "a.txt", "b.txt", "c.txt" }, null );
+
+        write( "b.txt", "changed" );
+        write( "d.txt", "d" );
+        InputFileChanges changes =
+            InputFileStatus.scan( basedir, new String[]{ "a.txt", "b.txt", "d.txt" }, previous ).diff( previous );
+
+        assertArrayEquals( new String[]{ "d.txt" }, changes.getFilesAdded() );
+        assertArrayEquals( new String[]{ "c.txt" }, changes.getFilesRemoved() );
+        assertArrayEquals( new String[]{ "b.txt" }, changes.getFilesModified() );
+    }
+
+    @Test
+    public void modifiedContentOfSameSize()
+        throws IOException
+    {
+        File basedir = tempFolder.getRoot();
+        File file = write( "a.txt", "abc" );
+        file.setLastModified( 1000000000000L );
+        InputFileStatus previous = InputFileStatus.scan( basedir, new String[]{ "a.txt" }, null );
+
+        write( "a.txt", "xyz" );
+        file.setLastModified( 1000000002000L );
+        InputFileChanges changes = InputFileStatus.scan( basedir, new String[]{ "a.txt" }, previous ).diff( previous );
+
+        assertArrayEquals( new String[]{ "a.txt" }, changes.getFilesModified() );
+    }
+
+    @Test
+    public void touchedButIdenticalFileIsNotModified()
+        throws IOException
+    {
+        File basedir = tempFolder.getRoot();
+        File file = write( "a.txt", "abc" );
+        file.setLastModified( 1000000000000L );
+        InputFileStatus previous = InputFileStatus.scan( basedir, new String[]{ "a.txt" }, null );
+
+        file.setLastModified( 1000000002000L );
+        InputFileChanges changes = InputFileStatus.scan( basedir, new String[]{ "a.txt" }, previous ).diff( previous );
+
+        assertFalse( changes.hasChanges() );
+    }
+
+    @Test
+    public void writeAndRead()
+        throws IOException
+    {
+        File basedir = tempFolder.getRoot();
+        write( "a.txt", "a" );
+        write( "b.txt", "b" );
+        InputFileStatus status = InputFileStatus.scan( basedir, new String[]{ "a.txt", "b.txt" }, null );
+
+        File statusFile = new File( basedir, "inputFiles.status" );
+        status.write( statusFile );
+        InputFileStatus read = InputFileStatus.read( statusFile );
+
+        assertFalse( status.diff( read ).hasChanges() );
+    }
+
+    @Test
+    public void readMissingStatusFile()
+    {
+        assertNull( InputFileStatus.read( new File( tempFolder.getRoot(), "missing.status" ) ) );
+    }
+
+    @Test
+    public void readUnknownFormat()
+        throws IOException
+    {
+        assertNull( InputFileStatus.read( write( "inputFiles.lst", "a.txt\nb.txt\n" ) ) );
+    }
+
+    @Test
+    public void readTruncatedStatusFile()
+        throws IOException
+    {
+        File basedir = tempFolder.getRoot();
+        write( "a.txt", "a" );
+        write( "b.txt", "b" );
+        File statusFile = new File( basedir, "inputFiles.status" );
+        InputFileStatus.scan( basedir, new String[]{ "a.txt", "b.txt" }, null ).write( statusFile );
+
+        RandomAccessFile raf = new RandomAccessFile( statusFile, "rw" );
+        try
+        {
+            raf.setLength( raf.length() - 4 );
+        }
+        finally
+        {
+            raf.close();
+        }
+
+        assertNull( InputFileStatus.read( statusFile ) );
+    }
+
+    @Test
+    public void unreadableStatusReportsAllFilesAdded()
+        throws IOException
+    {
+        File basedir = tempFolder.getRoot();
+        write( "a.txt", "a" );
+        InputFileStatus previous = InputFileStatus.read( write( "inputFiles.status", "garbage" ) );
+
+        InputFileChanges changes =
+            InputFileStatus.scan( basedir, new String[]{ "a.txt" }, previous ).diff( previous );
+
+        assertEquals( 1, changes.getFilesAdded().length );
+        assertTrue( changes.hasChanges() );
+    }
+
+    private File write( String name, String content )
+        throws IOException
+    {
+        File file = new File( tempFolder.getRoot(), name );
+        FileUtils.fileWrite( file.getAbsolutePath(), content );
+        return file;
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.maven.shared.jar;
 
 import org.apache.maven.shared.jar.classes.JarClasses;
 import org.apache.maven.shared.jar.identification.JarIdentification;
+import org.apache.maven.shared.jar.identification.hash.JarHashes;
 import org.apache.maven.shared.utils.StringUtils;
 
 import java.io.File;
@@ -54,6 +55,11 @@ public final class JarData
      */
     private String bytecodeHash;
 
+    /**
+     * The hashes computed for the file in a single pass.
+     */
+    private JarHashes hashes;
+
     /**
      * The JAR's manifest.
      */
@@ -141,6 +147,16 @@ public final class JarData
         return bytecodeHash;
     }
 
+    public void setHashes( JarHashes hashes )
+    {
+        this.hashes = hashes;
+    }
+
+    public JarHashes getHashes()
+    {
+        return hashes;
+    }
+
     public boolean isDebugPresent()
     {
         return jarClasses.isDebugPresent();
@@ -25,16 +25,26 @@ import org.apache.bcel.classfile.DescendingVisitor;
 import org.apache.bcel.classfile.JavaClass;
 import org.apache.bcel.classfile.LineNumberTable;
 import org.apache.bcel.classfile.Method;
+import org.apache.maven.shared.jar.FutureUtils;
 import org.apache.maven.shared.jar.JarAnalyzer;
+import org.apache.maven.shared.utils.io.IOUtil;
 import org.codehaus.plexus.logging.AbstractLogEnabled;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.jar.JarEntry;
 
 /**
- * Analyze the classes in a JAR file. This class is thread safe and immutable as it retains no state.
+ * Analyze the classes in a JAR file. This class is thread safe as it retains no state other than its configuration.
  * <p/>
  * Note that you must first create an instance of {@link org.apache.maven.shared.jar.JarAnalyzer} - see its Javadoc for
  * a typical use.
@@ -57,10 +67,18 @@ public class JarClassesAnalysis
 
     private static final double JAVA_1_1_CLASS_VERSION = 45.3;
 
+    /**
+     * The number of threads parsing the classes of a JAR.
+     */
+    private int parallelism = 1;
+
     /**
      * Analyze a JAR and find any classes and their details. Note that if the provided JAR analyzer has previously
      * analyzed the JAR, the cached results will be returned. You must obtain a new JAR analyzer to the re-read the
      * contents of the file.
+     * <p/>
+     * The classes are read from the JAR file already opened by the analyzer. If the parallelism is greater than one,
+     * they are parsed by that many worker threads, while the results are still gathered in the order of the entries.
      *
      * @param jarAnalyzer the JAR to analyze. This must not yet have been closed.
      * @return the details of the classes found
@@ -79,65 +97,52 @@ public class JarClassesAnalysis
 
             double maxVersion = 0.0;
 
-            Iterator it = classList.iterator();
+            List results;
+            if ( parallelism > 1 && classList.size() > 1 )
+            {
+                results = parseClassesConcurrently( jarAnalyzer, classList );
+            }
+            else
+            {
+                results = parseClasses( jarAnalyzer, classList );
+            }
+
+            Iterator it = results.iterator();
             while ( it.hasNext() )
             {
-                JarEntry entry = (JarEntry) it.next();
-                String classname = entry.getName();
+                ClassDetails details = (ClassDetails) it.next();
 
-                try
+                if ( details.failure instanceof ClassFormatException )
                 {
-                    ClassParser classParser = new ClassParser( jarfilename, classname );
-
-                    JavaClass javaClass = classParser.parse();
-
-                    String classSignature = javaClass.getClassName();
-
-                    if ( !classes.isDebugPresent() )
-                    {
-                        if ( hasDebugSymbols( javaClass ) )
-                        {
-                            classes.setDebugPresent( true );
-                        }
-                    }
-
-                    double classVersion = javaClass.getMajor();
-                    if ( javaClass.getMinor() > 0 )
-                    {
-                        classVersion = classVersion + 1 / (double) javaClass.getMinor();
-                    }
-
-                    if ( classVersion > maxVersion )
-                    {
-                        maxVersion = classVersion;
-                    }
-
-                    Method[] methods = javaClass.getMethods();
-                    for ( int i = 0; i < methods.length; i++ )
-                    {
-                        classes.addMethod( classSignature + "." + methods[i].getName() + methods[i].getSignature() );
-                    }
-
-                    String classPackageName = javaClass.getPackageName();
-
-                    classes.addClassName( classSignature );
-                    classes.addPackage( classPackageName );
-
-                    ImportVisitor importVisitor = new ImportVisitor( javaClass );
-                    DescendingVisitor descVisitor = new DescendingVisitor( javaClass, importVisitor );
-                    javaClass.accept( descVisitor );
+                    getLogger().warn( "Unable to process class " + details.classname + " in JarAnalyzer File "
+                                          + jarfilename, details.failure );
+                    continue;
+                }
+                else if ( details.failure != null )
+                {
+                    getLogger().warn( "Unable to process JarAnalyzer File " + jarfilename, details.failure );
+                    continue;
+                }
 
-                    classes.addImports( importVisitor.getImports() );
+                if ( details.debugPresent )
+                {
+                    classes.setDebugPresent( true );
                 }
-                catch ( ClassFormatException e )
+
+                if ( details.classVersion > maxVersion )
                 {
-                    getLogger().warn( "Unable to process class " + classname + " in JarAnalyzer File " + jarfilename,
-                                      e );
+                    maxVersion = details.classVersion;
                 }
-                catch ( IOException e )
+
+                Iterator methods = details.methods.iterator();
+                while ( methods.hasNext() )
                 {
-                    getLogger().warn( "Unable to process JarAnalyzer File " + jarfilename, e );
+                    classes.addMethod( (String) methods.next() );
                 }
+
+                classes.addClassName( details.classSignature );
+                classes.addPackage( details.packageName );
+                classes.addImports( details.imports );
             }
 
             // TODO: check these since they are > instead of >=
@@ -175,7 +180,162 @@ public class JarClassesAnalysis
         return classes;
     }
 
-    private boolean hasDebugSymbols( JavaClass javaClass )
+    /**
+     * Get the number of threads parsing the classes of a JAR.
+     *
+     * @return the number of threads, 1 if the classes are parsed by the calling thread
+     */
+    public int getParallelism()
+    {
+        return parallelism;
+    }
+
+    /**
+     * Set the number of threads parsing the classes of a JAR. The entries are always read from the JAR file by the
+     * calling thread.
+     *
+     * @param parallelism the number of threads, 1 to parse the classes on the calling thread
+     */
+    public void setParallelism( int parallelism )
+    {
+        if ( parallelism < 1 )
+        {
+            throw new IllegalArgumentException( "parallelism must be at least 1: " + parallelism );
+        }
+        this.parallelism = parallelism;
+    }
+
+    private List parseClasses( JarAnalyzer jarAnalyzer, List classList )
+    {
+        List results = new ArrayList( classList.size() );
+        Iterator it = classList.iterator();
+        while ( it.hasNext() )
+        {
+            JarEntry entry = (JarEntry) it.next();
+            String classname = entry.getName();
+
+            InputStream in = null;
+            try
+            {
+                in = jarAnalyzer.getEntryInputStream( entry );
+                results.add( parseClass( in, classname ) );
+            }
+            catch ( ClassFormatException e )
+            {
+                results.add( new ClassDetails( classname, e ) );
+            }
+            catch ( IOException e )
+            {
+                results.add( new ClassDetails( classname, e ) );
+            }
+            finally
+            {
+                IOUtil.close( in );
+            }
+        }
+        return results;
+    }
+
+    private List parseClassesConcurrently( JarAnalyzer jarAnalyzer, List classList )
+    {
+        ExecutorService executor = Executors.newFixedThreadPool( Math.min( parallelism, classList.size() ) );
+        try
+        {
+            // entries are read sequentially from the single open JAR file, only the parsing is spread out
+            List futures = new ArrayList( classList.size() );
+            Iterator it = classList.iterator();
+            while ( it.hasNext() )
+            {
+                JarEntry entry = (JarEntry) it.next();
+                final String classname = entry.getName();
+
+                InputStream in = null;
+                try
+                {
+                    in = jarAnalyzer.getEntryInputStream( entry );
+                    final byte[] bytes = IOUtil.toByteArray( in );
+                    futures.add( executor.submit( new Callable()
+                    {
+                        public Object call()
+                        {
+                            try
+                            {
+                                return parseClass( new ByteArrayInputStream( bytes ), classname );
+                            }
+                            catch ( ClassFormatException e )
+                            {
+                                return new ClassDetails( classname, e );
+                            }
+                            catch ( IOException e )
+                            {
+                                return new ClassDetails( classname, e );
+                            }
+                        }
+                    } ) );
+                }
+                catch ( IOException e )
+                {
+                    futures.add( new ClassDetails( classname, e ) );
+                }
+                finally
+                {
+                    IOUtil.close( in );
+                }
+            }
+
+            List results = new ArrayList( futures.size() );
+            Iterator fit = futures.iterator();
+            while ( fit.hasNext() )
+            {
+                Object next = fit.next();
+                results.add( next instanceof Future ? FutureUtils.getResult( (Future) next ) : next );
+            }
+            return results;
+        }
+        catch ( InterruptedException e )
+        {
+            throw new IllegalStateException( "Interrupted while analyzing classes" );
+        }
+        catch ( ExecutionException e )
+        {
+            // the tasks throw no checked exception
+            throw new IllegalStateException( e.getCause().getMessage() );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ClassDetails parseClass( InputStream in, String classname )
+        throws IOException
+    {
+        JavaClass javaClass = new ClassParser( in, classname ).parse();
+
+        String classSignature = javaClass.getClassName();
+
+        double classVersion = javaClass.getMajor();
+        if ( javaClass.getMinor() > 0 )
+        {
+            classVersion = classVersion + 1 / (double) javaClass.getMinor();
+        }
+
+        Method[] methods = javaClass.getMethods();
+        List methodNames = new ArrayList( methods.length );
+        for ( int i = 0; i < methods.length; i++ )
+        {
+            methodNames.add( classSignature + "." + methods[i].getName() + methods[i].getSignature() );
+        }
+
+        ImportVisitor importVisitor = new ImportVisitor( javaClass );
+        DescendingVisitor descVisitor = new DescendingVisitor( javaClass, importVisitor );
+        javaClass.accept( descVisitor );
+
+        return new ClassDetails( classname, classSignature, javaClass.getPackageName(), methodNames,
+                                 importVisitor.getImports(), hasDebugSymbols( javaClass ), classVersion );
+    }
+
+    private static boolean hasDebugSymbols( JavaClass javaClass )
     {
         boolean ret = false;
         Method[] methods = javaClass.getMethods();
@@ -190,4 +350,51 @@ public class JarClassesAnalysis
         }
         return ret;
     }
+
+    /**
+     * The facts gathered from a single class, or the reason it could not be read.
+     */
+    private static final class ClassDetails
+    {
+        private final String classname;
+
+        private final String classSignature;
+
+        private final String packageName;
+
+        private final List methods;
+
+        private final List imports;
+
+        private final boolean debugPresent;
+
+        private final double classVersion;
+
+        private final Exception failure;
+
+        ClassDetails( String classname, String classSignature, String packageName, List methods, List imports,
+                      boolean debugPresent, double classVersion )
+        {
+            this.classname = classname;
+            this.classSignature = classSignature;
+            this.packageName = packageName;
+            this.methods = methods;
+            this.imports = imports;
+            this.debugPresent = debugPresent;
+            this.classVersion = classVersion;
+            this.failure = null;
+        }
+
+        ClassDetails( String classname, Exception failure )
+        {
+            this.classname = classname;
+            this.classSignature = null;
+            this.packageName = null;
+            this.methods = null;
+            this.imports = null;
+            this.debugPresent = false;
+            this.classVersion = 0.0;
+            this.failure = failure;
+        }
+    }
 }
@@ -24,17 +24,13 @@ import org.apache.maven.shared.jar.JarData;
 import org.codehaus.plexus.digest.DigesterException;
 import org.codehaus.plexus.digest.StreamingDigester;
 import org.codehaus.plexus.logging.AbstractLogEnabled;
-import org.apache.maven.shared.utils.io.IOUtil;
-
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.Iterator;
-import java.util.jar.JarEntry;
 
 /**
  * Analyzer that calculates the hash code for the entire file. Can be used to detect an exact copy of the file's class
  * data. Useful to see thru a recompile, recompression, or timestamp change.
  * <p/>
+ * The class data is read by a {@link JarHasher} in the same pass as the file itself.
+ * <p/>
  * If you are not using Plexus, you must call {@link #setDigester(org.codehaus.plexus.digest.StreamingDigester)} before
  * use
  *
@@ -45,12 +41,17 @@ public class JarBytecodeHashAnalyzer
     implements JarHashAnalyzer
 {
     /**
-     * The streaming digester to use for computing the hash. Under Plexus, the default is SHA-1.
+     * The streaming digester that determines the algorithm of the hash. Under Plexus, the default is SHA-1.
      *
      * @plexus.requirement role-hint="sha1"
      */
     private StreamingDigester digester;
 
+    /**
+     * The hasher reading the file.
+     */
+    private JarHasher hasher = new JarHasher();
+
     public String computeHash( JarAnalyzer jarAnalyzer )
     {
         JarData jarData = jarAnalyzer.getJarData();
@@ -58,46 +59,27 @@ public class JarBytecodeHashAnalyzer
         String result = jarData.getBytecodeHash();
         if ( result == null )
         {
-            Iterator it = jarAnalyzer.getClassEntries().iterator();
-
             try
             {
-                digester.reset();
-                while ( it.hasNext() )
-                {
-                    JarEntry entry = (JarEntry) it.next();
-                    computeEntryBytecodeHash( jarAnalyzer.getEntryInputStream( entry ) );
-                }
-                result = digester.calc();
+                String algorithm = digester.getAlgorithm();
+                result = hasher.computeHashes( jarAnalyzer, algorithm ).getBytecodeHash( algorithm );
                 jarData.setBytecodeHash( result );
             }
             catch ( DigesterException e )
             {
                 getLogger().warn( "Unable to calculate the hashcode.", e );
             }
-            catch ( IOException e )
-            {
-                getLogger().warn( "Unable to calculate the hashcode.", e );
-            }
         }
         return result;
     }
 
-    private void computeEntryBytecodeHash( InputStream is )
-        throws IOException, DigesterException
+    public void setDigester( StreamingDigester digester )
     {
-        try
-        {
-            digester.update( is );
-        }
-        finally
-        {
-            IOUtil.close( is );
-        }
+        this.digester = digester;
     }
 
-    public void setDigester( StreamingDigester digester )
+    public void setHasher( JarHasher hasher )
     {
-        this.digester = digester;
+        this.hasher = hasher;
     }
 }
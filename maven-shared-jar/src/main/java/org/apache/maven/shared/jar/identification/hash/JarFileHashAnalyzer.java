@@ -28,6 +28,9 @@ import org.codehaus.plexus.logging.AbstractLogEnabled;
 /**
  * Analyzer that calculates the hash code for the entire file. Can be used to detect an exact copy of the file.
  * <p/>
+ * The hash is computed by a {@link JarHasher}, along with the other hashes of the file, so that asking for the bytecode
+ * hash afterwards doesn't read the file again.
+ * <p/>
  * If you are not using Plexus, you must call {@link #setDigester(org.codehaus.plexus.digest.Digester)} before use
  *
  * @plexus.component role="org.apache.maven.shared.jar.identification.hash.JarHashAnalyzer" role-hint="file"
@@ -37,12 +40,17 @@ public class JarFileHashAnalyzer
     implements JarHashAnalyzer
 {
     /**
-     * The digester to use for computing the hash. Under Plexus, the default is SHA-1.
+     * The digester that determines the algorithm of the hash. Under Plexus, the default is SHA-1.
      *
      * @plexus.requirement role-hint="sha1"
      */
     private Digester digester;
 
+    /**
+     * The hasher reading the file.
+     */
+    private JarHasher hasher = new JarHasher();
+
     public String computeHash( JarAnalyzer jarAnalyzer )
     {
         JarData jarData = jarAnalyzer.getJarData();
@@ -52,7 +60,8 @@ public class JarFileHashAnalyzer
         {
             try
             {
-                result = digester.calc( jarData.getFile() );
+                String algorithm = digester.getAlgorithm();
+                result = hasher.computeHashes( jarAnalyzer, algorithm ).getFileHash( algorithm );
                 jarData.setFileHash( result );
             }
             catch ( DigesterException e )
@@ -67,4 +76,9 @@ public class JarFileHashAnalyzer
     {
         this.digester = digester;
     }
+
+    public void setHasher( JarHasher hasher )
+    {
+        this.hasher = hasher;
+    }
 }
@@ -0,0 +1,405 @@
+package org.apache.maven.shared.jar.identification.hash;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.shared.jar.FutureUtils;
+import org.apache.maven.shared.jar.JarAnalyzer;
+import org.apache.maven.shared.jar.JarData;
+import org.apache.maven.shared.utils.io.IOUtil;
+import org.codehaus.plexus.digest.DigesterException;
+import org.codehaus.plexus.digest.Hex;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.jar.JarEntry;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Computes the {@link JarHashes} of JAR files, reading each file only once.
+ * <p/>
+ * The raw bytes of the file feed the file hashes and the CRC-32 checksum while the same stream is unzipped, and the
+ * class entries feed the bytecode hashes as they go by. Class entries stored out of name order are kept in memory until
+ * their turn comes. Should the entries in the stream not match the central directory, the remaining class entries are
+ * read from the JAR file opened by the {@link JarAnalyzer}.
+ * <p/>
+ * The hashes are cached in the {@link JarData}, and are only computed again if other algorithms are requested.
+ */
+public class JarHasher
+{
+    /**
+     * The algorithms that are always computed.
+     */
+    public static final List DEFAULT_ALGORITHMS = Arrays.asList( new String[]{ "SHA-1", "SHA-256" } );
+
+    private static final int BUFFER_SIZE = 65536;
+
+    /**
+     * The number of JAR files hashed at the same time.
+     */
+    private int parallelism = 1;
+
+    /**
+     * Compute the hashes of a JAR, or get them from its JAR data if they have been computed before.
+     *
+     * @param jarAnalyzer the JAR to hash. This must not yet have been closed.
+     * @param algorithms  digest algorithms to compute besides the {@link #DEFAULT_ALGORITHMS}
+     * @return the hashes of the JAR
+     * @throws DigesterException if an algorithm is not available, or the JAR can't be read
+     */
+    public JarHashes computeHashes( JarAnalyzer jarAnalyzer, String... algorithms )
+        throws DigesterException
+    {
+        JarData jarData = jarAnalyzer.getJarData();
+
+        Set wanted = new LinkedHashSet();
+        Iterator it = DEFAULT_ALGORITHMS.iterator();
+        while ( it.hasNext() )
+        {
+            wanted.add( JarHashes.normalize( (String) it.next() ) );
+        }
+        for ( int i = 0; i < algorithms.length; i++ )
+        {
+            wanted.add( JarHashes.normalize( algorithms[i] ) );
+        }
+
+        JarHashes hashes = jarData.getHashes();
+        if ( hashes == null || !hashes.hasAlgorithms( wanted ) )
+        {
+            try
+            {
+                hashes = hash( jarAnalyzer, (String[]) wanted.toArray( new String[wanted.size()] ) );
+            }
+            catch ( NoSuchAlgorithmException e )
+            {
+                throw new DigesterException( "Unable to hash " + jarData.getFile() + ": " + e.getMessage(), e );
+            }
+            catch ( IOException e )
+            {
+                throw new DigesterException( "Unable to hash " + jarData.getFile() + ": " + e.getMessage(), e );
+            }
+            jarData.setHashes( hashes );
+        }
+        return hashes;
+    }
+
+    /**
+     * Compute the hashes of several JARs. If the parallelism is greater than one, that many JARs are hashed at the same
+     * time.
+     *
+     * @param jarAnalyzers the JARs to hash, as {@link JarAnalyzer} elements. These must not yet have been closed.
+     * @param algorithms   digest algorithms to compute besides the {@link #DEFAULT_ALGORITHMS}
+     * @return the hashes of the JARs, as {@link JarHashes} elements in the same order
+     * @throws DigesterException if an algorithm is not available, or a JAR can't be read
+     */
+    public List computeHashes( List jarAnalyzers, final String... algorithms )
+        throws DigesterException
+    {
+        List result = new ArrayList( jarAnalyzers.size() );
+        if ( parallelism == 1 || jarAnalyzers.size() < 2 )
+        {
+            Iterator it = jarAnalyzers.iterator();
+            while ( it.hasNext() )
+            {
+                result.add( computeHashes( (JarAnalyzer) it.next(), algorithms ) );
+            }
+            return result;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool( Math.min( parallelism, jarAnalyzers.size() ) );
+        try
+        {
+            List futures = new ArrayList( jarAnalyzers.size() );
+            Iterator it = jarAnalyzers.iterator();
+            while ( it.hasNext() )
+            {
+                final JarAnalyzer jarAnalyzer = (JarAnalyzer) it.next();
+                futures.add( executor.submit( new Callable()
+                {
+                    public Object call()
+                        throws DigesterException
+                    {
+                        return computeHashes( jarAnalyzer, algorithms );
+                    }
+                } ) );
+            }
+
+            it = futures.iterator();
+            while ( it.hasNext() )
+            {
+                result.add( FutureUtils.getResult( (Future) it.next() ) );
+            }
+            return result;
+        }
+        catch ( InterruptedException e )
+        {
+            throw new DigesterException( "Interrupted while hashing JAR files", e );
+        }
+        catch ( ExecutionException e )
+        {
+            // the tasks only throw DigesterException
+            throw (DigesterException) e.getCause();
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Get the number of JAR files hashed at the same time by {@link #computeHashes(List, String...)}.
+     *
+     * @return the number of threads, 1 if the JARs are hashed by the calling thread
+     */
+    public int getParallelism()
+    {
+        return parallelism;
+    }
+
+    /**
+     * Set the number of JAR files hashed at the same time by {@link #computeHashes(List, String...)}.
+     *
+     * @param parallelism the number of threads, 1 to hash the JARs on the calling thread
+     */
+    public void setParallelism( int parallelism )
+    {
+        if ( parallelism < 1 )
+        {
+            throw new IllegalArgumentException( "parallelism must be at least 1: " + parallelism );
+        }
+        this.parallelism = parallelism;
+    }
+
+    private static JarHashes hash( JarAnalyzer jarAnalyzer, String[] algorithms )
+        throws NoSuchAlgorithmException, IOException
+    {
+        MessageDigest[] fileDigests = new MessageDigest[algorithms.length];
+        MessageDigest[] bytecodeDigests = new MessageDigest[algorithms.length];
+        for ( int i = 0; i < algorithms.length; i++ )
+        {
+            fileDigests[i] = MessageDigest.getInstance( algorithms[i] );
+            bytecodeDigests[i] = MessageDigest.getInstance( algorithms[i] );
+        }
+        CRC32 checksum = new CRC32();
+
+        List classEntries = jarAnalyzer.getClassEntries();
+        Map classIndices = new HashMap();
+        for ( int i = 0; i < classEntries.size(); i++ )
+        {
+            classIndices.put( ( (JarEntry) classEntries.get( i ) ).getName(), Integer.valueOf( i ) );
+        }
+
+        // class entries ahead of their turn, by index
+        Map pending = new HashMap();
+        int next = 0;
+
+        byte[] buffer = new byte[BUFFER_SIZE];
+        DigestingInputStream in = null;
+        ZipInputStream zip = null;
+        try
+        {
+            in = new DigestingInputStream( new BufferedInputStream( new FileInputStream( jarAnalyzer.getFile() ),
+                                                                    BUFFER_SIZE ), fileDigests, checksum );
+            zip = new ZipInputStream( in );
+            try
+            {
+                for ( ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry() )
+                {
+                    Integer index = (Integer) classIndices.remove( entry.getName() );
+                    if ( index == null )
+                    {
+                        // not a class, or a duplicate
+                        continue;
+                    }
+                    if ( index.intValue() == next )
+                    {
+                        update( bytecodeDigests, zip, buffer );
+                        next++;
+                        for ( byte[] bytes = (byte[]) pending.remove( Integer.valueOf( next ) ); bytes != null;
+                              bytes = (byte[]) pending.remove( Integer.valueOf( next ) ) )
+                        {
+                            update( bytecodeDigests, bytes );
+                            next++;
+                        }
+                    }
+                    else
+                    {
+                        pending.put( index, IOUtil.toByteArray( zip ) );
+                    }
+                }
+            }
+            catch ( ZipException e )
+            {
+                // not readable as a stream, the rest of the classes are read from the JAR file
+            }
+
+            // the central directory, or whatever the ZIP stream did not get to
+            while ( in.read( buffer ) >= 0 )
+            {
+                // only digested
+            }
+            // also releases the inflater and closes the file
+            zip.close();
+            zip = null;
+            in = null;
+        }
+        finally
+        {
+            IOUtil.close( zip );
+            IOUtil.close( in );
+        }
+
+        for ( ; next < classEntries.size(); next++ )
+        {
+            byte[] bytes = (byte[]) pending.remove( Integer.valueOf( next ) );
+            if ( bytes != null )
+            {
+                update( bytecodeDigests, bytes );
+            }
+            else
+            {
+                InputStream entryIn = null;
+                try
+                {
+                    entryIn = jarAnalyzer.getEntryInputStream( (JarEntry) classEntries.get( next ) );
+                    update( bytecodeDigests, entryIn, buffer );
+                    entryIn.close();
+                    entryIn = null;
+                }
+                finally
+                {
+                    IOUtil.close( entryIn );
+                }
+            }
+        }
+
+        Map fileHashes = new HashMap();
+        Map bytecodeHashes = new HashMap();
+        for ( int i = 0; i < algorithms.length; i++ )
+        {
+            fileHashes.put( algorithms[i], Hex.encode( fileDigests[i].digest() ) );
+            bytecodeHashes.put( algorithms[i], Hex.encode( bytecodeDigests[i].digest() ) );
+        }
+        String fileChecksum = Long.toHexString( 0x100000000L | checksum.getValue() ).substring( 1 );
+        return new JarHashes( fileHashes, bytecodeHashes, fileChecksum );
+    }
+
+    private static void update( MessageDigest[] digests, InputStream in, byte[] buffer )
+        throws IOException
+    {
+        for ( int n = in.read( buffer ); n >= 0; n = in.read( buffer ) )
+        {
+            for ( int i = 0; i < digests.length; i++ )
+            {
+                digests[i].update( buffer, 0, n );
+            }
+        }
+    }
+
+    private static void update( MessageDigest[] digests, byte[] bytes )
+    {
+        for ( int i = 0; i < digests.length; i++ )
+        {
+            digests[i].update( bytes );
+        }
+    }
+
+    /**
+     * Passes the raw bytes of the file to the file digests and checksum as they are read.
+     */
+    private static final class DigestingInputStream
+        extends FilterInputStream
+    {
+        private final MessageDigest[] digests;
+
+        private final CRC32 checksum;
+
+        DigestingInputStream( InputStream in, MessageDigest[] digests, CRC32 checksum )
+        {
+            super( in );
+            this.digests = digests;
+            this.checksum = checksum;
+        }
+
+        public int read()
+            throws IOException
+        {
+            int b = in.read();
+            if ( b >= 0 )
+            {
+                for ( int i = 0; i < digests.length; i++ )
+                {
+                    digests[i].update( (byte) b );
+                }
+                checksum.update( b );
+            }
+            return b;
+        }
+
+        public int read( byte[] b, int off, int len )
+            throws IOException
+        {
+            int n = in.read( b, off, len );
+            if ( n > 0 )
+            {
+                for ( int i = 0; i < digests.length; i++ )
+                {
+                    digests[i].update( b, off, n );
+                }
+                checksum.update( b, off, n );
+            }
+            return n;
+        }
+
+        public long skip( long n )
+            throws IOException
+        {
+            // skipped bytes must be digested too
+            byte[] skipped = new byte[(int) Math.min( n, BUFFER_SIZE )];
+            int read = read( skipped, 0, skipped.length );
+            return read < 0 ? 0 : read;
+        }
+
+        public boolean markSupported()
+        {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.apache.maven.shared.jar.identification.hash;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The hashes of a JAR file, as computed in a single pass by {@link JarHasher}.
+ * <p/>
+ * For each algorithm there is a hash of the entire file, and a hash of the class data only, which stays the same through
+ * a recompile, recompression or timestamp change. The CRC-32 checksum of the file is far cheaper to compare, but can
+ * only narrow down candidates for an exact copy.
+ */
+public final class JarHashes
+{
+    /**
+     * The hashes of the entire file, keyed by the upper case algorithm name.
+     */
+    private final Map fileHashes;
+
+    /**
+     * The hashes of the class data, keyed by the upper case algorithm name.
+     */
+    private final Map bytecodeHashes;
+
+    /**
+     * The CRC-32 checksum of the entire file.
+     */
+    private final String fileChecksum;
+
+    JarHashes( Map fileHashes, Map bytecodeHashes, String fileChecksum )
+    {
+        this.fileHashes = Collections.unmodifiableMap( fileHashes );
+        this.bytecodeHashes = Collections.unmodifiableMap( bytecodeHashes );
+        this.fileChecksum = fileChecksum;
+    }
+
+    /**
+     * Get the hash of the entire file.
+     *
+     * @param algorithm the digest algorithm, such as <code>SHA-1</code>
+     * @return the hash, or null if it was not computed for this algorithm
+     */
+    public String getFileHash( String algorithm )
+    {
+        return (String) fileHashes.get( normalize( algorithm ) );
+    }
+
+    /**
+     * Get the hash of the class data, the contents of the class entries in order of their names.
+     *
+     * @param algorithm the digest algorithm, such as <code>SHA-1</code>
+     * @return the hash, or null if it was not computed for this algorithm
+     */
+    public String getBytecodeHash( String algorithm )
+    {
+        return (String) bytecodeHashes.get( normalize( algorithm ) );
+    }
+
+    /**
+     * Get the CRC-32 checksum of the entire file.
+     *
+     * @return the checksum as 8 hexadecimal digits
+     */
+    public String getFileChecksum()
+    {
+        return fileChecksum;
+    }
+
+    boolean hasAlgorithms( Collection algorithms )
+    {
+        Iterator it = algorithms.iterator();
+        while ( it.hasNext() )
+        {
+            if ( !fileHashes.containsKey( normalize( (String) it.next() ) ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static String normalize( String algorithm )
+    {
+        return algorithm.toUpperCase( Locale.ENGLISH );
+    }
+}
@@ -154,6 +154,46 @@ public class JarClassesAnalyzerTest
         assertEquals( "jdkrevision", "1.1", jclass.getJdkRevision() );
     }
 
+    public void testAnalyzeConcurrently()
+        throws Exception
+    {
+        JarClasses expected = getJarClasses( "ant.jar" );
+
+        analyzer.setParallelism( 4 );
+        try
+        {
+            JarClasses jclass = getJarClasses( "ant.jar" );
+
+            assertEquals( "classes.classNames", expected.getClassNames(), jclass.getClassNames() );
+            assertEquals( "classes.packages", expected.getPackages(), jclass.getPackages() );
+            assertEquals( "classes.imports", expected.getImports(), jclass.getImports() );
+            assertEquals( "classes.methods", expected.getMethods(), jclass.getMethods() );
+            assertEquals( "debug present", expected.isDebugPresent(), jclass.isDebugPresent() );
+            assertEquals( "jdkrevision", expected.getJdkRevision(), jclass.getJdkRevision() );
+        }
+        finally
+        {
+            analyzer.setParallelism( 1 );
+        }
+    }
+
+    public void testAnalyzeJarWithInvalidClassFileConcurrently()
+        throws Exception
+    {
+        analyzer.setParallelism( 2 );
+        try
+        {
+            JarClasses jclass = getJarClasses( "invalid-class-file.jar" );
+
+            assertTrue( jclass.getClassNames().isEmpty() );
+            assertNull( jclass.getJdkRevision() );
+        }
+        finally
+        {
+            analyzer.setParallelism( 1 );
+        }
+    }
+
     private JarClasses getJarClasses( String filename )
         throws Exception
     {
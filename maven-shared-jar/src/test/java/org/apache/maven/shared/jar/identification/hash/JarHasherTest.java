@@ -0,0 +1,180 @@
+package org.apache.maven.shared.jar.identification.hash;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.shared.jar.AbstractJarAnalyzerTestCase;
+import org.apache.maven.shared.jar.JarAnalyzer;
+import org.apache.maven.shared.utils.io.IOUtil;
+import org.codehaus.plexus.digest.DigesterException;
+import org.codehaus.plexus.digest.Md5Digester;
+import org.codehaus.plexus.digest.Sha1Digester;
+import org.codehaus.plexus.digest.StreamingDigester;
+import org.codehaus.plexus.digest.StreamingSha1Digester;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.zip.CRC32;
+
+/**
+ * JarHasher Test Case
+ */
+public class JarHasherTest
+    extends AbstractJarAnalyzerTestCase
+{
+    private static final String[] JARS = { "ant.jar", "jxr.jar", "codec.jar", "helloworld-1.4-debug.jar",
+        "invalid-class-file.jar" };
+
+    public void testHashesMatchDigesters()
+        throws Exception
+    {
+        JarHasher hasher = new JarHasher();
+        for ( int i = 0; i < JARS.length; i++ )
+        {
+            JarAnalyzer jarAnalyzer = new JarAnalyzer( getSampleJar( JARS[i] ) );
+            try
+            {
+                JarHashes hashes = hasher.computeHashes( jarAnalyzer, "MD5" );
+
+                File file = jarAnalyzer.getFile();
+                assertEquals( JARS[i], new Sha1Digester().calc( file ), hashes.getFileHash( "SHA-1" ) );
+                assertEquals( JARS[i], new Md5Digester().calc( file ), hashes.getFileHash( "md5" ) );
+                assertEquals( JARS[i], 64, hashes.getFileHash( "SHA-256" ).length() );
+                assertEquals( JARS[i], computeBytecodeHash( jarAnalyzer ), hashes.getBytecodeHash( "SHA-1" ) );
+                assertEquals( JARS[i], computeChecksum( file ), hashes.getFileChecksum() );
+            }
+            finally
+            {
+                jarAnalyzer.closeQuietly();
+            }
+        }
+    }
+
+    public void testHashesAreCached()
+        throws Exception
+    {
+        JarHasher hasher = new JarHasher();
+        JarAnalyzer jarAnalyzer = new JarAnalyzer( getSampleJar( "jxr.jar" ) );
+        try
+        {
+            JarHashes hashes = hasher.computeHashes( jarAnalyzer );
+            assertSame( hashes, hasher.computeHashes( jarAnalyzer, "SHA-1" ) );
+            assertSame( hashes, jarAnalyzer.getJarData().getHashes() );
+
+            JarHashes md5Hashes = hasher.computeHashes( jarAnalyzer, "MD5" );
+            assertNotSame( hashes, md5Hashes );
+            assertEquals( hashes.getFileHash( "SHA-1" ), md5Hashes.getFileHash( "SHA-1" ) );
+        }
+        finally
+        {
+            jarAnalyzer.closeQuietly();
+        }
+    }
+
+    public void testHashConcurrently()
+        throws Exception
+    {
+        JarAnalyzer[] jarAnalyzers = new JarAnalyzer[JARS.length];
+        for ( int i = 0; i < JARS.length; i++ )
+        {
+            jarAnalyzers[i] = new JarAnalyzer( getSampleJar( JARS[i] ) );
+        }
+        try
+        {
+            JarHasher hasher = new JarHasher();
+            hasher.setParallelism( 3 );
+            List hashes = hasher.computeHashes( Arrays.asList( jarAnalyzers ) );
+
+            assertEquals( JARS.length, hashes.size() );
+            for ( int i = 0; i < JARS.length; i++ )
+            {
+                assertEquals( JARS[i], new Sha1Digester().calc( jarAnalyzers[i].getFile() ),
+                              ( (JarHashes) hashes.get( i ) ).getFileHash( "SHA-1" ) );
+            }
+        }
+        finally
+        {
+            for ( int i = 0; i < JARS.length; i++ )
+            {
+                jarAnalyzers[i].closeQuietly();
+            }
+        }
+    }
+
+    public void testUnknownAlgorithm()
+        throws Exception
+    {
+        JarAnalyzer jarAnalyzer = new JarAnalyzer( getSampleJar( "jxr.jar" ) );
+        try
+        {
+            new JarHasher().computeHashes( jarAnalyzer, "NO-SUCH-ALGORITHM" );
+            fail( "Expected DigesterException" );
+        }
+        catch ( DigesterException e )
+        {
+            assertNull( jarAnalyzer.getJarData().getHashes() );
+        }
+        finally
+        {
+            jarAnalyzer.closeQuietly();
+        }
+    }
+
+    private static String computeBytecodeHash( JarAnalyzer jarAnalyzer )
+        throws Exception
+    {
+        StreamingDigester digester = new StreamingSha1Digester();
+        digester.reset();
+        Iterator it = jarAnalyzer.getClassEntries().iterator();
+        while ( it.hasNext() )
+        {
+            InputStream in = jarAnalyzer.getEntryInputStream( (JarEntry) it.next() );
+            try
+            {
+                digester.update( in );
+            }
+            finally
+            {
+                IOUtil.close( in );
+            }
+        }
+        return digester.calc();
+    }
+
+    private static String computeChecksum( File file )
+        throws Exception
+    {
+        InputStream in = new FileInputStream( file );
+        try
+        {
+            CRC32 crc = new CRC32();
+            crc.update( IOUtil.toByteArray( in ) );
+            return String.format( "%08x", new Object[]{ Long.valueOf( crc.getValue() ) } );
+        }
+        finally
+        {
+            IOUtil.close( in );
+        }
+    }
+}
@@ -66,26 +66,6 @@ public abstract class CommandLineUtils
         }
     }
 
-    private static class ProcessHook
-        extends Thread
-    {
-        private final Process process;
-
-        private ProcessHook( Process process )
-        {
-            super( "CommandlineUtils process shutdown hook" );
-            this.process = process;
-            this.setContextClassLoader( null );
-        }
-
-        /** {@inheritDoc} */
-        public void run()
-        {
-            process.destroy();
-        }
-    }
-
-
     /**
      * @param cl The command line {@link Commandline}
      * @param systemOut {@link StreamConsumer}
@@ -217,6 +197,7 @@ public abstract class CommandLineUtils
 
     /**
      * Immediately forks a process, returns a callable that will block until process is complete.
+     * The streams of the process are pumped by a pool of daemon threads shared by all forked processes.
      *
      * @param cl               The command line to execute
      * @param systemIn         The input to read from, must be thread safe
@@ -249,22 +230,20 @@ public abstract class CommandLineUtils
 
         final StreamFeeder inputFeeder = systemIn != null ? new StreamFeeder( systemIn, p.getOutputStream() ) : null;
 
-        final StreamPumper outputPumper = new StreamPumper( p.getInputStream(), systemOut );
+        final StreamPumper outputPumper = new StreamPumper( p.getInputStream(), systemOut, streamCharset );
 
-        final StreamPumper errorPumper = new StreamPumper( p.getErrorStream(), systemErr );
+        final StreamPumper errorPumper = new StreamPumper( p.getErrorStream(), systemErr, streamCharset );
 
         if ( inputFeeder != null )
         {
-            inputFeeder.start();
+            ProcessMonitor.start( inputFeeder );
         }
 
-        outputPumper.start();
-
-        errorPumper.start();
+        ProcessMonitor.start( outputPumper );
 
-        final ProcessHook processHook = new ProcessHook( p );
+        ProcessMonitor.start( errorPumper );
 
-        ShutdownHookUtils.addShutDownHook( processHook );
+        ProcessMonitor.register( p );
 
         return new CommandLineCallable()
         {
@@ -273,28 +252,7 @@ public abstract class CommandLineUtils
             {
                 try
                 {
-                    int returnValue;
-                    if ( timeoutInSeconds <= 0 )
-                    {
-                        returnValue = p.waitFor();
-                    }
-                    else
-                    {
-                        long now = System.currentTimeMillis();
-                        long timeoutInMillis = 1000L * timeoutInSeconds;
-                        long finish = now + timeoutInMillis;
-                        while ( isAlive( p ) && ( System.currentTimeMillis() < finish ) )
-                        {
-                            Thread.sleep( 10 );
-                        }
-                        if ( isAlive( p ) )
-                        {
-                            throw new InterruptedException(
-                                "Process timeout out after " + timeoutInSeconds + " seconds" );
-                        }
-
-                        returnValue = p.exitValue();
-                    }
+                    int returnValue = ProcessMonitor.waitFor( p, timeoutInSeconds );
 
                     if ( runAfterProcessTermination != null )
                     {
@@ -329,9 +287,9 @@ public abstract class CommandLineUtils
                 }
                 finally
                 {
-                    ShutdownHookUtils.removeShutdownHook( processHook );
+                    p.destroy();
 
-                    processHook.run();
+                    ProcessMonitor.unregister( p );
 
                     if ( inputFeeder != null )
                     {
@@ -389,24 +347,6 @@ public abstract class CommandLineUtils
         return ensureCaseSensitivity( envs, caseSensitive );
     }
 
-    private static boolean isAlive( Process p )
-    {
-        if ( p == null )
-        {
-            return false;
-        }
-
-        try
-        {
-            p.exitValue();
-            return false;
-        }
-        catch ( IllegalThreadStateException e )
-        {
-            return true;
-        }
-    }
-
     /**
      * @param toProcess The command line to translate.
      * @return The array of translated parts.
@@ -0,0 +1,241 @@
+package org.apache.maven.shared.utils.cli;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The resources shared by all processes forked by {@link CommandLineUtils}: a pool of daemon threads running the
+ * stream pumpers and feeders, a single shutdown hook destroying every live process, and a timer bounding the wait for
+ * a process.
+ * <p/>
+ * Pumping a stream blocks a thread for the lifetime of the process, so the pool grows with the number of concurrent
+ * processes, but idle threads are reused by later processes instead of starting new ones. Threads idle for a minute
+ * are released, the shutdown hook is only registered while there are live processes.
+ */
+final class ProcessMonitor
+{
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    private static final ThreadPoolExecutor STREAM_HANDLERS =
+        new ThreadPoolExecutor( 0, Integer.MAX_VALUE, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                                new SynchronousQueue<Runnable>(), new DaemonThreadFactory( "stream-handler" ) );
+
+    private static final ScheduledThreadPoolExecutor TIMER =
+        new ScheduledThreadPoolExecutor( 1, new DaemonThreadFactory( "timeout" ) );
+
+    static
+    {
+        TIMER.setKeepAliveTime( KEEP_ALIVE_SECONDS, TimeUnit.SECONDS );
+        TIMER.allowCoreThreadTimeOut( true );
+    }
+
+    /**
+     * The live processes, guarded by itself.
+     */
+    private static final Set<Process> PROCESSES = new LinkedHashSet<Process>();
+
+    private static ProcessHook processHook;
+
+    private ProcessMonitor()
+    {
+    }
+
+    /**
+     * Runs a stream pumper or feeder on the shared pool, in place of starting it as a thread of its own.
+     *
+     * @param streamHandler the stream handler to run
+     */
+    static void start( AbstractStreamHandler streamHandler )
+    {
+        STREAM_HANDLERS.execute( streamHandler );
+    }
+
+    /**
+     * Destroys the process when the JVM shuts down before it got {@link #unregister(Process) unregistered}.
+     *
+     * @param process the forked process
+     */
+    static void register( Process process )
+    {
+        synchronized ( PROCESSES )
+        {
+            if ( PROCESSES.isEmpty() )
+            {
+                processHook = new ProcessHook();
+                ShutdownHookUtils.addShutDownHook( processHook );
+            }
+            PROCESSES.add( process );
+        }
+    }
+
+    /**
+     * @param process the process, which has been destroyed or terminated
+     */
+    static void unregister( Process process )
+    {
+        synchronized ( PROCESSES )
+        {
+            if ( PROCESSES.remove( process ) && PROCESSES.isEmpty() )
+            {
+                ShutdownHookUtils.removeShutdownHook( processHook );
+                processHook = null;
+            }
+        }
+    }
+
+    /**
+     * Waits for the process to terminate, at most for the given time.
+     *
+     * @param process          the process to wait for
+     * @param timeoutInSeconds Positive integer to specify timeout, zero and negative integers for no timeout.
+     * @return the exit value of the process
+     * @throws InterruptedException if the timeout expired or the current thread got interrupted.
+     */
+    static int waitFor( Process process, int timeoutInSeconds )
+        throws InterruptedException
+    {
+        if ( timeoutInSeconds <= 0 )
+        {
+            return process.waitFor();
+        }
+
+        Timeout timeout = new Timeout( Thread.currentThread() );
+        ScheduledFuture<?> future = TIMER.schedule( timeout, timeoutInSeconds, TimeUnit.SECONDS );
+        try
+        {
+            return process.waitFor();
+        }
+        catch ( InterruptedException e )
+        {
+            if ( timeout.isExpired() )
+            {
+                throw new InterruptedException( "Process timeout out after " + timeoutInSeconds + " seconds" );
+            }
+            throw e;
+        }
+        finally
+        {
+            future.cancel( false );
+            if ( timeout.cancel() )
+            {
+                // the timeout expired while the process terminated, don't leave the interrupt behind
+                Thread.interrupted();
+            }
+        }
+    }
+
+    /**
+     * Interrupts the waiting thread, unless cancelled before.
+     */
+    private static final class Timeout
+        implements Runnable
+    {
+        private final Thread thread;
+
+        private boolean cancelled;
+
+        private boolean expired;
+
+        Timeout( Thread thread )
+        {
+            this.thread = thread;
+        }
+
+        public synchronized void run()
+        {
+            if ( !cancelled )
+            {
+                expired = true;
+                thread.interrupt();
+            }
+        }
+
+        synchronized boolean isExpired()
+        {
+            return expired;
+        }
+
+        /**
+         * @return <code>true</code> if the timeout already expired
+         */
+        synchronized boolean cancel()
+        {
+            cancelled = true;
+            return expired;
+        }
+    }
+
+    private static class ProcessHook
+        extends Thread
+    {
+        private ProcessHook()
+        {
+            super( "CommandlineUtils process shutdown hook" );
+            this.setContextClassLoader( null );
+        }
+
+        /** {@inheritDoc} */
+        public void run()
+        {
+            List<Process> processes;
+            synchronized ( PROCESSES )
+            {
+                processes = new ArrayList<Process>( PROCESSES );
+            }
+
+            for ( Process process : processes )
+            {
+                process.destroy();
+            }
+        }
+    }
+
+    private static final class DaemonThreadFactory
+        implements ThreadFactory
+    {
+        private final String name;
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        DaemonThreadFactory( String name )
+        {
+            this.name = name;
+        }
+
+        public Thread newThread( Runnable runnable )
+        {
+            Thread thread = new Thread( runnable, "CommandLineUtils " + name + "-" + count.incrementAndGet() );
+            thread.setDaemon( true );
+            thread.setContextClassLoader( null );
+            return thread;
+        }
+    }
+}
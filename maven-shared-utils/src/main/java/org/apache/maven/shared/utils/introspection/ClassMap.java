@@ -23,6 +23,9 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Hashtable;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.maven.shared.utils.StringUtils;
 
 /**
  * A cache of introspection information for a specific class instance.
@@ -58,6 +61,12 @@ public class ClassMap
      */
     private final Map<String, Object> methodCache = new Hashtable<String, Object>();
 
+    /**
+     * Cache of property getters, or CACHE_MISS, keyed by
+     * property name.
+     */
+    private final Map<String, Object> getterCache = new ConcurrentHashMap<String, Object>();
+
     private MethodMap methodMap = new MethodMap();
 
     /**
@@ -137,6 +146,39 @@ public class ClassMap
         return (Method) cacheEntry;
     }
 
+    /**
+     * Find the getter of a property, i.e. the public method without
+     * parameters named <code>get</code> or <code>is</code>, followed
+     * by the capitalized property name.
+     *
+     * @param property The property name.
+     * @return The getter, or <code>null</code> if there is none.
+     * @throws MethodMap.AmbiguousException in case of duplicate methods.
+     */
+    Method findGetter( String property )
+        throws MethodMap.AmbiguousException
+    {
+        Object cacheEntry = getterCache.get( property );
+
+        if ( cacheEntry == null )
+        {
+            String methodBase = StringUtils.capitalizeFirstLetter( property );
+
+            Method method = findMethod( "get" + methodBase );
+
+            if ( method == null )
+            {
+                // perhaps this is a boolean property??
+                method = findMethod( "is" + methodBase );
+            }
+
+            cacheEntry = method != null ? method : CACHE_MISS;
+            getterCache.put( property, cacheEntry );
+        }
+
+        return cacheEntry != CACHE_MISS ? (Method) cacheEntry : null;
+    }
+
     /**
      * Populate the Map of direct hits. These
      * are taken from all the public methods
@@ -0,0 +1,357 @@
+package org.apache.maven.shared.utils.introspection;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.shared.utils.StringUtils;
+import org.apache.maven.shared.utils.introspection.MethodMap.AmbiguousException;
+import org.apache.maven.shared.utils.introspection.ReflectionValueExtractor.Tokenizer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * An expression of the {@link ReflectionValueExtractor}, parsed once into the chain of property, indexed and mapped
+ * steps leading from the root object to the value.
+ * <p/>
+ * Each step remembers the {@link ClassMap} of the last class it was applied to, so evaluating the same expression
+ * again against objects of the same classes doesn't look up any class or method by name. The {@link ClassMap}s are
+ * only weakly referenced, a compiled expression doesn't keep their classes from being unloaded. Compiled expressions
+ * are immutable apart from these caches and may be evaluated concurrently.
+ */
+final class CompiledExpression
+{
+    private static final Object[] OBJECT_ARGS = new Object[0];
+
+    /**
+     * The step an invalid token compiles to: the original tokenizer stops there and yields <code>null</code>.
+     */
+    private static final Step NULL_STEP = new Step()
+    {
+        @Override
+        Object getValue( Object value )
+        {
+            return null;
+        }
+    };
+
+    private final Step[] steps;
+
+    private CompiledExpression( Step[] steps )
+    {
+        this.steps = steps;
+    }
+
+    /**
+     * @param expression    not null expression
+     * @param trimRootToken trim root token yes/no.
+     * @return the compiled expression
+     * @see ReflectionValueExtractor#evaluate(String, Object, boolean)
+     */
+    static CompiledExpression compile( @Nonnull String expression, boolean trimRootToken )
+    {
+        if ( StringUtils.isEmpty( expression ) || !Character.isJavaIdentifierStart( expression.charAt( 0 ) ) )
+        {
+            return new CompiledExpression( new Step[] { NULL_STEP } );
+        }
+
+        boolean hasDots = expression.indexOf( ReflectionValueExtractor.PROPERTY_START ) >= 0;
+
+        final Tokenizer tokenizer;
+        if ( trimRootToken && hasDots )
+        {
+            tokenizer = new Tokenizer( expression );
+            tokenizer.nextPropertyName();
+            if ( tokenizer.getPosition() == ReflectionValueExtractor.EOF )
+            {
+                return new CompiledExpression( new Step[] { NULL_STEP } );
+            }
+        }
+        else
+        {
+            tokenizer = new Tokenizer( "." + expression );
+        }
+
+        List<Step> steps = new ArrayList<Step>();
+        int propertyPosition = tokenizer.getPosition();
+        while ( tokenizer.peekChar() != ReflectionValueExtractor.EOF )
+        {
+            Step step;
+            switch ( tokenizer.skipChar() )
+            {
+                case ReflectionValueExtractor.INDEXED_START:
+                    step = IndexedStep.compile( expression, propertyPosition, tokenizer.getPosition(),
+                                                tokenizer.nextToken( ReflectionValueExtractor.INDEXED_END ) );
+                    break;
+                case ReflectionValueExtractor.MAPPED_START:
+                    step = MappedStep.compile( expression, propertyPosition, tokenizer.getPosition(),
+                                               tokenizer.nextToken( ReflectionValueExtractor.MAPPED_END ) );
+                    break;
+                case ReflectionValueExtractor.PROPERTY_START:
+                    propertyPosition = tokenizer.getPosition();
+                    String property = tokenizer.nextPropertyName();
+                    step = property != null ? new PropertyStep( property ) : NULL_STEP;
+                    break;
+                default:
+                    // could not parse expression
+                    step = NULL_STEP;
+                    break;
+            }
+
+            steps.add( step );
+            if ( step == NULL_STEP )
+            {
+                break;
+            }
+        }
+
+        return new CompiledExpression( steps.toArray( new Step[steps.size()] ) );
+    }
+
+    /**
+     * @param root the object to start from
+     * @return the object defined by the expression
+     * @throws IntrospectionException if any
+     */
+    Object evaluate( @Nullable Object root )
+        throws IntrospectionException
+    {
+        Object value = root;
+        for ( int i = 0; value != null && i < steps.length; i++ )
+        {
+            value = steps[i].getValue( value );
+        }
+        return value;
+    }
+
+    /**
+     * A single step of an expression.
+     */
+    private abstract static class Step
+    {
+        private volatile WeakReference<ClassMap> cachedClassMap;
+
+        /**
+         * @param value the value of the previous step, not null
+         * @return the value of this step
+         * @throws IntrospectionException if any
+         */
+        abstract Object getValue( @Nonnull Object value )
+            throws IntrospectionException;
+
+        ClassMap getClassMap( Class<?> clazz )
+        {
+            WeakReference<ClassMap> reference = cachedClassMap;
+            ClassMap classMap = reference != null ? reference.get() : null;
+
+            if ( classMap == null || classMap.getCachedClass() != clazz )
+            {
+                classMap = ReflectionValueExtractor.getClassMap( clazz );
+                cachedClassMap = new WeakReference<ClassMap>( classMap );
+            }
+
+            return classMap;
+        }
+    }
+
+    private static final class PropertyStep
+        extends Step
+    {
+        private final String property;
+
+        PropertyStep( String property )
+        {
+            this.property = property;
+        }
+
+        @Override
+        Object getValue( Object value )
+            throws IntrospectionException
+        {
+            try
+            {
+                Method method = getClassMap( value.getClass() ).findGetter( property );
+
+                if ( method == null )
+                {
+                    return null;
+                }
+
+                return method.invoke( value, OBJECT_ARGS );
+            }
+            catch ( InvocationTargetException e )
+            {
+                throw new IntrospectionException( e.getTargetException() );
+            }
+            catch ( AmbiguousException e )
+            {
+                throw new IntrospectionException( e );
+            }
+            catch ( IllegalAccessException e )
+            {
+                throw new IntrospectionException( e );
+            }
+        }
+    }
+
+    private static final class IndexedStep
+        extends Step
+    {
+        private final String expression;
+
+        private final int from;
+
+        private final int to;
+
+        private final int index;
+
+        private IndexedStep( String expression, int from, int to, int index )
+        {
+            this.expression = expression;
+            this.from = from;
+            this.to = to;
+            this.index = index;
+        }
+
+        static Step compile( String expression, int from, int to, String indexStr )
+        {
+            try
+            {
+                return new IndexedStep( expression, from, to, Integer.parseInt( indexStr ) );
+            }
+            catch ( NumberFormatException e )
+            {
+                return NULL_STEP;
+            }
+        }
+
+        @Override
+        Object getValue( Object value )
+            throws IntrospectionException
+        {
+            if ( value.getClass().isArray() )
+            {
+                return Array.get( value, index );
+            }
+
+            if ( value instanceof List )
+            {
+                ClassMap classMap = getClassMap( value.getClass() );
+                // use get method on List interface
+                Object[] localParams = new Object[] { index };
+                try
+                {
+                    Method method = classMap.findMethod( "get", localParams );
+                    return method.invoke( value, localParams );
+                }
+                catch ( AmbiguousException e )
+                {
+                    throw new IntrospectionException( e );
+                }
+                catch ( IllegalAccessException e )
+                {
+                    throw new IntrospectionException( e );
+                }
+                catch ( InvocationTargetException e )
+                {
+                    // catch array index issues gracefully, otherwise release
+                    if ( e.getCause() instanceof IndexOutOfBoundsException )
+                    {
+                        return null;
+                    }
+
+                    throw new IntrospectionException( e.getTargetException() );
+                }
+            }
+
+            final String message =
+                String.format( "The token '%s' at position '%d' refers to a java.util.List or an array, but the value "
+                    + "seems is an instance of '%s'", expression.subSequence( from, to ), from, value.getClass() );
+
+            throw new IntrospectionException( message );
+        }
+    }
+
+    private static final class MappedStep
+        extends Step
+    {
+        private final String expression;
+
+        private final int from;
+
+        private final int to;
+
+        private final String key;
+
+        private MappedStep( String expression, int from, int to, String key )
+        {
+            this.expression = expression;
+            this.from = from;
+            this.to = to;
+            this.key = key;
+        }
+
+        static Step compile( String expression, int from, int to, String key )
+        {
+            return key != null ? new MappedStep( expression, from, to, key ) : NULL_STEP;
+        }
+
+        @Override
+        Object getValue( Object value )
+            throws IntrospectionException
+        {
+            if ( value instanceof Map )
+            {
+                Object[] localParams = new Object[] { key };
+                ClassMap classMap = getClassMap( value.getClass() );
+                try
+                {
+                    Method method = classMap.findMethod( "get", localParams );
+                    return method.invoke( value, localParams );
+                }
+                catch ( AmbiguousException e )
+                {
+                    throw new IntrospectionException( e );
+                }
+                catch ( IllegalAccessException e )
+                {
+                    throw new IntrospectionException( e );
+                }
+                catch ( InvocationTargetException e )
+                {
+                    throw new IntrospectionException( e.getTargetException() );
+                }
+            }
+
+            final String message =
+                String.format( "The token '%s' at position '%d' refers to a java.util.Map, but the value "
+                    + "seems is an instance of '%s'", expression.subSequence( from, to ), from, value.getClass() );
+
+            throw new IntrospectionException( message );
+        }
+    }
+}
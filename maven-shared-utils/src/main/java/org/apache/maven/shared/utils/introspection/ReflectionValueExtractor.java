@@ -19,15 +19,12 @@ package org.apache.maven.shared.utils.introspection;
  * under the License.
  */
 
-import java.lang.reflect.Array;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.util.List;
 import java.util.Map;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.maven.shared.utils.StringUtils;
-import org.apache.maven.shared.utils.introspection.MethodMap.AmbiguousException;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -38,6 +35,9 @@ import javax.annotation.Nullable;
  * For example we might want to extract a value like: <code>project.build.sourceDirectory</code></p>
  * <p/>
  * <p>The implementation supports indexed, nested and mapped properties similar to the JSP way.</p>
+ * <p/>
+ * <p>Expressions are parsed once and cached together with the getters they lead to, so evaluating the same
+ * expression again only invokes the getters. This class may be used concurrently.</p>
  *
  * @author <a href="mailto:jason@maven.org">Jason van Zyl </a>
  * @author <a href="mailto:vincent.siveton@gmail.com">Vincent Siveton</a>
@@ -47,17 +47,24 @@ import javax.annotation.Nullable;
  */
 public class ReflectionValueExtractor
 {
-    private static final Class<?>[] CLASS_ARGS = new Class[0];
-
-    private static final Object[] OBJECT_ARGS = new Object[0];
-
     /**
      * Use a WeakHashMap here, so the keys (Class objects) can be garbage collected.
      * This approach prevents permgen space overflows due to retention of discarded
-     * classloaders.
+     * classloaders. Guarded by itself.
      */
     private static final Map<Class<?>, ClassMap> CLASS_MAPS = new WeakHashMap<Class<?>, ClassMap>();
 
+    /**
+     * The maximum number of compiled expressions kept per cache, further expressions get compiled on each evaluation.
+     */
+    private static final int MAX_COMPILED_EXPRESSIONS = 1000;
+
+    private static final ConcurrentMap<String, CompiledExpression> COMPILED_EXPRESSIONS =
+        new ConcurrentHashMap<String, CompiledExpression>();
+
+    private static final ConcurrentMap<String, CompiledExpression> COMPILED_TRIMMED_EXPRESSIONS =
+        new ConcurrentHashMap<String, CompiledExpression>();
+
     static final int EOF = -1;
 
     static final char PROPERTY_START = '.';
@@ -188,214 +195,41 @@ public class ReflectionValueExtractor
     public static Object evaluate( @Nonnull String expression, @Nullable Object root, boolean trimRootToken )
         throws IntrospectionException
     {
-        Object value = root;
-
-        // ----------------------------------------------------------------------
-        // Walk the dots and retrieve the ultimate value desired from the
-        // MavenProject instance.
-        // ----------------------------------------------------------------------
-
-        if ( StringUtils.isEmpty( expression ) || !Character.isJavaIdentifierStart( expression.charAt( 0 ) ) )
+        if ( StringUtils.isEmpty( expression ) )
         {
             return null;
         }
 
-        boolean hasDots = expression.indexOf( PROPERTY_START ) >= 0;
-
-        final Tokenizer tokenizer;
-        if ( trimRootToken && hasDots )
-        {
-            tokenizer = new Tokenizer( expression );
-            tokenizer.nextPropertyName();
-            if ( tokenizer.getPosition() == EOF )
-            {
-                return null;
-            }
-        }
-        else
-        {
-            tokenizer = new Tokenizer( "." + expression );
-        }
+        ConcurrentMap<String, CompiledExpression> compiledExpressions =
+            trimRootToken ? COMPILED_TRIMMED_EXPRESSIONS : COMPILED_EXPRESSIONS;
 
-        int propertyPosition = tokenizer.getPosition();
-        while ( value != null && tokenizer.peekChar() != EOF )
+        CompiledExpression compiledExpression = compiledExpressions.get( expression );
+        if ( compiledExpression == null )
         {
-            switch ( tokenizer.skipChar() )
+            compiledExpression = CompiledExpression.compile( expression, trimRootToken );
+            if ( compiledExpressions.size() < MAX_COMPILED_EXPRESSIONS )
             {
-                case INDEXED_START:
-                    value =
-                        getIndexedValue( expression, propertyPosition, tokenizer.getPosition(), value,
-                                         tokenizer.nextToken( INDEXED_END ) );
-                    break;
-                case MAPPED_START:
-                    value =
-                        getMappedValue( expression, propertyPosition, tokenizer.getPosition(), value,
-                                        tokenizer.nextToken( MAPPED_END ) );
-                    break;
-                case PROPERTY_START:
-                    propertyPosition = tokenizer.getPosition();
-                    value = getPropertyValue( value, tokenizer.nextPropertyName() );
-                    break;
-                default:
-                    // could not parse expression
-                    return null;
+                compiledExpressions.putIfAbsent( expression, compiledExpression );
             }
         }
 
-        return value;
+        return compiledExpression.evaluate( root );
     }
 
-    private static Object getMappedValue( final String expression, final int from, final int to, final Object value,
-                                          final String key )
-        throws IntrospectionException
+    static ClassMap getClassMap( Class<?> clazz )
     {
-        if ( value == null || key == null )
+        synchronized ( CLASS_MAPS )
         {
-            return null;
-        }
+            ClassMap classMap = CLASS_MAPS.get( clazz );
 
-        if ( value instanceof Map )
-        {
-            Object[] localParams = new Object[] { key };
-            ClassMap classMap = getClassMap( value.getClass() );
-            try
+            if ( classMap == null )
             {
-                Method method = classMap.findMethod( "get", localParams );
-                return method.invoke( value, localParams );
-            }
-            catch ( AmbiguousException e )
-            {
-                throw new IntrospectionException( e );
-            }
-            catch ( IllegalAccessException e )
-            {
-                throw new IntrospectionException( e );
-            }
-            catch ( InvocationTargetException e )
-            {
-                throw new IntrospectionException( e.getTargetException() );
-            }
-
-        }
+                classMap = new ClassMap( clazz );
 
-        final String message =
-            String.format( "The token '%s' at position '%d' refers to a java.util.Map, but the value "
-                + "seems is an instance of '%s'", expression.subSequence( from, to ), from, value.getClass() );
-
-        throw new IntrospectionException( message );
-    }
-
-    private static Object getIndexedValue( final String expression, final int from, final int to, final Object value,
-                                           final String indexStr )
-        throws IntrospectionException
-    {
-        try
-        {
-            int index = Integer.parseInt( indexStr );
-
-            if ( value.getClass().isArray() )
-            {
-                return Array.get( value, index );
+                CLASS_MAPS.put( clazz, classMap );
             }
 
-            if ( value instanceof List )
-            {
-                ClassMap classMap = getClassMap( value.getClass() );
-                // use get method on List interface
-                Object[] localParams = new Object[] { index };
-                Method method = null;
-                try
-                {
-                    method = classMap.findMethod( "get", localParams );
-                    return method.invoke( value, localParams );
-                }
-                catch ( AmbiguousException e )
-                {
-                    throw new IntrospectionException( e );
-                }
-                catch ( IllegalAccessException e )
-                {
-                    throw new IntrospectionException( e );
-                }
-            }
+            return classMap;
         }
-        catch ( NumberFormatException e )
-        {
-            return null;
-        }
-        catch ( InvocationTargetException e )
-        {
-            // catch array index issues gracefully, otherwise release
-            if ( e.getCause() instanceof IndexOutOfBoundsException )
-            {
-                return null;
-            }
-
-            throw new IntrospectionException( e.getTargetException() );
-        }
-
-        final String message =
-            String.format( "The token '%s' at position '%d' refers to a java.util.List or an array, but the value "
-                + "seems is an instance of '%s'", expression.subSequence( from, to ), from, value.getClass() );
-
-        throw new IntrospectionException( message );
-    }
-
-    private static Object getPropertyValue( Object value, String property )
-        throws IntrospectionException
-    {
-        if ( value == null || property == null )
-        {
-            return null;
-        }
-
-        ClassMap classMap = getClassMap( value.getClass() );
-        String methodBase = StringUtils.capitalizeFirstLetter( property );
-        String methodName = "get" + methodBase;
-        try
-        {
-            Method method = classMap.findMethod( methodName, CLASS_ARGS );
-
-            if ( method == null )
-            {
-                // perhaps this is a boolean property??
-                methodName = "is" + methodBase;
-
-                method = classMap.findMethod( methodName, CLASS_ARGS );
-            }
-
-            if ( method == null )
-            {
-                return null;
-            }
-
-            return method.invoke( value, OBJECT_ARGS );
-        }
-        catch ( InvocationTargetException e )
-        {
-            throw new IntrospectionException( e.getTargetException() );
-        }
-        catch ( AmbiguousException e )
-        {
-            throw new IntrospectionException( e );
-        }
-        catch ( IllegalAccessException e )
-        {
-            throw new IntrospectionException( e );
-        }
-    }
-
-    private static ClassMap getClassMap( Class<?> clazz )
-    {
-        ClassMap classMap = CLASS_MAPS.get( clazz );
-
-        if ( classMap == null )
-        {
-            classMap = new ClassMap( clazz );
-
-            CLASS_MAPS.put( clazz, classMap );
-        }
-
-        return classMap;
     }
 }
@@ -0,0 +1,251 @@
+package org.apache.maven.shared.utils.io;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * The on-disk state of a previous {@link DirectoryScanner#scan()}: the listing of every directory it read, together
+ * with the directory's modification time, and the files it included.
+ * <p/>
+ * Adding, removing or renaming an entry changes the modification time of its directory, so a directory whose
+ * modification time is unchanged can reuse its cached listing instead of being listed and stat'ed again. Directories
+ * modified less than {@link #TIMESTAMP_GRANULARITY} before they were listed are not cached, as a later change could
+ * leave their modification time unchanged on file systems with a coarse timestamp resolution.
+ * <p/>
+ * The cache is only an optimization: a missing, unreadable or outdated cache file, or one written for another
+ * scanner configuration, is ignored.
+ */
+final class DirectoryScanCache
+{
+    private static final int MAGIC = 0x4D534443;
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final long TIMESTAMP_GRANULARITY = 2000L;
+
+    private final File cacheFile;
+
+    private final String[] key;
+
+    private final Map<String, Directory> previousDirectories;
+
+    private final String[] previousIncludedFiles;
+
+    private final Map<String, Directory> directories = new ConcurrentHashMap<String, Directory>();
+
+    private DirectoryScanCache( File cacheFile, String[] key, Map<String, Directory> previousDirectories,
+                                String[] previousIncludedFiles )
+    {
+        this.cacheFile = cacheFile;
+        this.key = key;
+        this.previousDirectories = previousDirectories;
+        this.previousIncludedFiles = previousIncludedFiles;
+    }
+
+    /**
+     * @param cacheFile The cache file, which doesn't need to exist.
+     * @param key       The scanner configuration the cache is valid for.
+     * @return The cache, empty if the file holds no usable state for the given configuration.
+     */
+    static DirectoryScanCache load( @Nonnull File cacheFile, @Nonnull String... key )
+    {
+        if ( cacheFile.isFile() )
+        {
+            DataInputStream in = null;
+            try
+            {
+                in = new DataInputStream( new BufferedInputStream( new FileInputStream( cacheFile ) ) );
+                if ( in.readInt() == MAGIC && in.readInt() == FORMAT_VERSION && Arrays.equals( key,
+                                                                                                 readStrings( in ) ) )
+                {
+                    String[] includedFiles = readStrings( in );
+
+                    int count = in.readInt();
+                    Map<String, Directory> directories = new HashMap<String, Directory>();
+                    for ( int i = 0; i < count; i++ )
+                    {
+                        String vpath = in.readUTF();
+                        long lastModified = in.readLong();
+                        String[] names = readStrings( in );
+                        byte[] kinds = new byte[names.length];
+                        in.readFully( kinds );
+                        directories.put( vpath, new Directory( lastModified, names, kinds ) );
+                    }
+                    return new DirectoryScanCache( cacheFile, key, directories, includedFiles );
+                }
+            }
+            catch ( IOException e )
+            {
+                // unreadable or truncated, start over
+            }
+            finally
+            {
+                IOUtil.close( in );
+            }
+        }
+        return new DirectoryScanCache( cacheFile, key, Collections.<String, Directory>emptyMap(), null );
+    }
+
+    /**
+     * @param vpath        The path of the directory relative to the base directory.
+     * @param lastModified The current modification time of the directory.
+     * @return The cached listing of the directory, or <code>null</code> if it has to be listed again.
+     */
+    @Nullable
+    Directory lookup( @Nonnull String vpath, long lastModified )
+    {
+        Directory directory = previousDirectories.get( vpath );
+        if ( directory == null || directory.lastModified != lastModified || lastModified == 0L )
+        {
+            return null;
+        }
+        directories.put( vpath, directory );
+        return directory;
+    }
+
+    /**
+     * Records the listing of a directory for the next scan. May be called concurrently.
+     *
+     * @param vpath        The path of the directory relative to the base directory.
+     * @param lastModified The modification time of the directory, taken before it was listed.
+     * @param names        The names of its entries.
+     * @param kinds        The kind of each entry, as classified by the scanner.
+     */
+    void record( @Nonnull String vpath, long lastModified, @Nonnull String[] names, @Nonnull byte[] kinds )
+    {
+        if ( lastModified != 0L && System.currentTimeMillis() - lastModified >= TIMESTAMP_GRANULARITY )
+        {
+            directories.put( vpath, new Directory( lastModified, names, kinds ) );
+        }
+    }
+
+    /**
+     * @return The included files of the scan the cache was written by, or <code>null</code> if there was none.
+     */
+    @Nullable
+    String[] getPreviousIncludedFiles()
+    {
+        return previousIncludedFiles;
+    }
+
+    /**
+     * Writes the directories recorded during this scan, replacing the previous state.
+     *
+     * @param includedFiles The files included by this scan.
+     * @throws IOException if the cache file can't be written.
+     */
+    void store( @Nonnull List<String> includedFiles )
+        throws IOException
+    {
+        File parent = cacheFile.getParentFile();
+        if ( parent != null && !parent.isDirectory() && !parent.mkdirs() )
+        {
+            throw new IOException( "Could not create directory " + parent );
+        }
+
+        DataOutputStream out = null;
+        try
+        {
+            out = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( cacheFile ) ) );
+            out.writeInt( MAGIC );
+            out.writeInt( FORMAT_VERSION );
+            writeStrings( out, key );
+            writeStrings( out, includedFiles.toArray( new String[includedFiles.size()] ) );
+
+            out.writeInt( directories.size() );
+            for ( Map.Entry<String, Directory> entry : directories.entrySet() )
+            {
+                Directory directory = entry.getValue();
+                out.writeUTF( entry.getKey() );
+                out.writeLong( directory.lastModified );
+                writeStrings( out, directory.names );
+                out.write( directory.kinds );
+            }
+            out.close();
+            out = null;
+        }
+        finally
+        {
+            IOUtil.close( out );
+        }
+    }
+
+    private static String[] readStrings( DataInputStream in )
+        throws IOException
+    {
+        int count = in.readInt();
+        if ( count < 0 )
+        {
+            throw new IOException( "Corrupt scan cache" );
+        }
+        String[] strings = new String[count];
+        for ( int i = 0; i < strings.length; i++ )
+        {
+            strings[i] = in.readUTF();
+        }
+        return strings;
+    }
+
+    private static void writeStrings( DataOutputStream out, String[] strings )
+        throws IOException
+    {
+        out.writeInt( strings.length );
+        for ( String string : strings )
+        {
+            out.writeUTF( string );
+        }
+    }
+
+    /**
+     * The cached listing of a single directory.
+     */
+    static final class Directory
+    {
+        final long lastModified;
+
+        final String[] names;
+
+        final byte[] kinds;
+
+        Directory( long lastModified, String[] names, byte[] kinds )
+        {
+            this.lastModified = lastModified;
+            this.names = names;
+            this.kinds = kinds;
+        }
+    }
+}
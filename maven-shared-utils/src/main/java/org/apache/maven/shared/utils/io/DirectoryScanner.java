@@ -26,6 +26,13 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -161,6 +168,18 @@ public class DirectoryScanner
         // darcs
         "**/_darcs", "**/_darcs/**", "**/.darcsrepo", "**/.darcsrepo/**", "**/-darcs-backup*", "**/.darcs-temp-mail" };
 
+    private static final int DIRECTORY = 1;
+
+    private static final int FILE = 2;
+
+    private static final int INCLUDED = 4;
+
+    private static final int EXCLUDED = 8;
+
+    private static final int COULD_HOLD_INCLUDED = 16;
+
+    private static final int SYMLINK = 32;
+
     /**
      * The base directory to be scanned.
      */
@@ -239,6 +258,21 @@ public class DirectoryScanner
      */
     private ScanConductor.ScanAction scanAction = null;
 
+    /**
+     * The number of threads used to read and match directories during a fast scan.
+     */
+    private int parallelism = 1;
+
+    /**
+     * The file holding the state of the previous scan, if any.
+     */
+    private File scanCacheFile;
+
+    /**
+     * The scan cache used by the current scan.
+     */
+    private DirectoryScanCache scanCache;
+
     /**
      * Sole constructor.
      */
@@ -360,6 +394,35 @@ public class DirectoryScanner
         }
     }
 
+    /**
+     * Sets the number of threads used to read and match the directory tree during {@link #scan()}. With a value
+     * greater than 1, subdirectories are listed and matched concurrently ahead of the scan; the results and the
+     * {@link ScanConductor} callbacks remain the same as for a sequential scan and are still delivered on the calling
+     * thread, in the same order.
+     *
+     * @param parallelism the number of threads, 1 (the default) for a sequential scan.
+     */
+    public void setParallelism( final int parallelism )
+    {
+        if ( parallelism < 1 )
+        {
+            throw new IllegalArgumentException( "parallelism must be at least 1, but was " + parallelism );
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sets a file in which {@link #scan()} keeps the listing of every directory it reads, along with the directory's
+     * modification time. A later scan with the same base directory and patterns only lists directories which have been
+     * modified since, and {@link #diffCachedIncludedFiles()} reports the files added and removed in between.
+     *
+     * @param scanCacheFile the cache file, or <code>null</code> (the default) to scan without a cache.
+     */
+    public void setScanCacheFile( @Nullable final File scanCacheFile )
+    {
+        this.scanCacheFile = scanCacheFile;
+    }
+
     /**
      * @param scanConductor {@link #scanConductor}
      */
@@ -401,6 +464,7 @@ public class DirectoryScanner
         dirsNotIncluded = new ArrayList<String>();
         dirsExcluded = new ArrayList<String>();
         scanAction = ScanConductor.ScanAction.CONTINUE;
+        scanCache = scanCacheFile != null ? DirectoryScanCache.load( scanCacheFile, getScanCacheKey() ) : null;
 
         if ( isIncluded( "" ) )
         {
@@ -429,7 +493,47 @@ public class DirectoryScanner
         {
             dirsNotIncluded.add( "" );
         }
-        scandir( basedir, "", true );
+
+        if ( parallelism > 1 )
+        {
+            final ExecutorService executor = Executors.newFixedThreadPool( parallelism, new ScannerThreadFactory() );
+            try
+            {
+                scandir( basedir, "", true, submitListing( executor, basedir, "" ) );
+            }
+            finally
+            {
+                executor.shutdownNow();
+            }
+        }
+        else
+        {
+            scandir( basedir, "", true );
+        }
+
+        if ( scanCache != null && !ScanConductor.ScanAction.ABORT.equals( scanAction ) )
+        {
+            try
+            {
+                scanCache.store( filesIncluded );
+            }
+            catch ( IOException e )
+            {
+                // the cache is only an optimization, the next scan will just read everything again
+            }
+        }
+    }
+
+    private String[] getScanCacheKey()
+    {
+        List<String> key = new ArrayList<String>();
+        key.add( basedir.getAbsolutePath() );
+        key.add( String.valueOf( isCaseSensitive ) );
+        key.add( String.valueOf( followSymlinks ) );
+        key.add( String.valueOf( includes.length ) );
+        Collections.addAll( key, includes );
+        Collections.addAll( key, excludes );
+        return key.toArray( new String[key.size()] );
     }
 
     /**
@@ -459,6 +563,28 @@ public class DirectoryScanner
         return diffFiles( oldFiles, filesIncluded.toArray( new String[filesIncluded.size()] ) );
     }
 
+    /**
+     * Determine the file differences between the currently included files and those included by the scan which wrote
+     * the scan cache.
+     * <p/>
+     * It will execute a {@link #scan()} if no result of a previous scan could be found. Without a scan cache, or
+     * without a cached result for the current configuration, all included files are reported as added.
+     *
+     * @return the result of the directory scan.
+     * @see #setScanCacheFile(File)
+     */
+    public DirectoryScanResult diffCachedIncludedFiles()
+    {
+        if ( filesIncluded == null )
+        {
+            // perform a scan if the directory didn't got scanned yet
+            scan();
+        }
+
+        String[] oldFiles = scanCache != null ? scanCache.getPreviousIncludedFiles() : null;
+        return diffFiles( oldFiles, filesIncluded.toArray( new String[filesIncluded.size()] ) );
+    }
+
     /**
      * @param oldFiles array of old files.
      * @param newFiles array of new files.
@@ -571,39 +697,55 @@ public class DirectoryScanner
      */
     void scandir( @Nonnull final File dir, @Nonnull final String vpath, final boolean fast )
     {
-        String[] newfiles = dir.list();
-
-        if ( newfiles == null )
-        {
-            /*
-             * two reasons are mentioned in the API docs for File.list (1) dir is not a directory. This is impossible as
-             * we wouldn't get here in this case. (2) an IO error occurred (why doesn't it throw an exception then???)
-             */
-
-            /*
-             * [jdcasey] (2) is apparently happening to me, as this is killing one of my tests... this is affecting the
-             * assembly plugin, fwiw. I will initialize the newfiles array as zero-length for now. NOTE: I can't find
-             * the problematic code, as it appears to come from a native method in UnixFileSystem...
-             */
-            newfiles = new String[0];
+        scandir( dir, vpath, fast, null );
+    }
 
-            // throw new IOException( "IO error scanning directory " + dir.getAbsolutePath() );
-        }
+    /**
+     * Scans the given directory using an already (possibly asynchronously) computed listing.
+     *
+     * @param dir     The directory to scan. Must not be <code>null</code>.
+     * @param vpath   The path relative to the base directory. Must not be <code>null</code>.
+     * @param fast    Whether or not this call is part of a fast scan.
+     * @param pending The listing of <code>dir</code> computed ahead of time, or <code>null</code> to list it now.
+     */
+    private void scandir( @Nonnull final File dir, @Nonnull final String vpath, final boolean fast,
+                          @Nullable final Future<DirectoryListing> pending )
+    {
+        final DirectoryListing listing = getListing( pending, dir, vpath, fast );
 
         if ( !followSymlinks )
         {
-            newfiles = doNotFollowSymbolicLinks( dir, vpath, newfiles );
+            for ( int i = 0; i < listing.names.length; i++ )
+            {
+                if ( listing.is( i, SYMLINK ) )
+                {
+                    final String name = vpath + listing.names[i];
+                    if ( listing.is( i, DIRECTORY ) )
+                    {
+                        dirsExcluded.add( name );
+                    }
+                    else
+                    {
+                        filesExcluded.add( name );
+                    }
+                }
+            }
         }
 
-        for ( final String newfile : newfiles )
+        for ( int i = 0; i < listing.names.length; i++ )
         {
-            final String name = vpath + newfile;
-            final File file = new File( dir, newfile );
-            if ( file.isDirectory() )
+            if ( listing.is( i, SYMLINK ) )
+            {
+                continue;
+            }
+
+            final String name = vpath + listing.names[i];
+            final File file = listing.files[i];
+            if ( listing.is( i, DIRECTORY ) )
             {
-                if ( isIncluded( name ) )
+                if ( listing.is( i, INCLUDED ) )
                 {
-                    if ( !isExcluded( name ) )
+                    if ( !listing.is( i, EXCLUDED ) )
                     {
                         if ( scanConductor != null )
                         {
@@ -621,7 +763,7 @@ public class DirectoryScanner
                             dirsIncluded.add( name );
                             if ( fast )
                             {
-                                scandir( file, name + File.separator, fast );
+                                scandir( file, name + File.separator, fast, listing.children[i] );
 
                                 if ( ScanConductor.ScanAction.ABORT.equals( scanAction ) )
                                 {
@@ -635,9 +777,9 @@ public class DirectoryScanner
                     else
                     {
                         dirsExcluded.add( name );
-                        if ( fast && couldHoldIncluded( name ) )
+                        if ( fast && listing.is( i, COULD_HOLD_INCLUDED ) )
                         {
-                            scandir( file, name + File.separator, fast );
+                            scandir( file, name + File.separator, fast, listing.children[i] );
                             if ( ScanConductor.ScanAction.ABORT.equals( scanAction ) )
                             {
                                 return;
@@ -648,7 +790,7 @@ public class DirectoryScanner
                 }
                 else
                 {
-                    if ( fast && couldHoldIncluded( name ) )
+                    if ( fast && listing.is( i, COULD_HOLD_INCLUDED ) )
                     {
                         if ( scanConductor != null )
                         {
@@ -664,7 +806,7 @@ public class DirectoryScanner
                         {
                             dirsNotIncluded.add( name );
 
-                            scandir( file, name + File.separator, fast );
+                            scandir( file, name + File.separator, fast, listing.children[i] );
                             if ( ScanConductor.ScanAction.ABORT.equals( scanAction ) )
                             {
                                 return;
@@ -672,6 +814,11 @@ public class DirectoryScanner
                         }
                         scanAction = null;
                     }
+                    else
+                    {
+                        // nothing below can be included, a slow scan will fill in its contents
+                        dirsNotIncluded.add( name );
+                    }
                 }
                 if ( !fast )
                 {
@@ -683,11 +830,11 @@ public class DirectoryScanner
                     scanAction = null;
                 }
             }
-            else if ( file.isFile() )
+            else if ( listing.is( i, FILE ) )
             {
-                if ( isIncluded( name ) )
+                if ( listing.is( i, INCLUDED ) )
                 {
-                    if ( !isExcluded( name ) )
+                    if ( !listing.is( i, EXCLUDED ) )
                     {
                         if ( scanConductor != null )
                         {
@@ -715,44 +862,173 @@ public class DirectoryScanner
         }
     }
 
-    private String[] doNotFollowSymbolicLinks( final File dir, final String vpath, String[] newfiles )
+    /**
+     * Waits for a listing computed by the executor, falling back to listing the directory on the calling thread if
+     * there is none or if its computation failed.
+     */
+    private DirectoryListing getListing( @Nullable Future<DirectoryListing> pending, @Nonnull File dir,
+                                         @Nonnull String vpath, boolean fast )
     {
-        final List<String> noLinks = new ArrayList<String>();
-        for ( final String newfile : newfiles )
+        if ( pending != null )
         {
             try
             {
-                if ( isSymbolicLink( dir, newfile ) )
-                {
-                    final String name = vpath + newfile;
-                    final File file = new File( dir, newfile );
-                    if ( file.isDirectory() )
-                    {
-                        dirsExcluded.add( name );
-                    }
-                    else
-                    {
-                        filesExcluded.add( name );
-                    }
-                }
-                else
-                {
-                    noLinks.add( newfile );
-                }
+                return pending.get();
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+            catch ( ExecutionException e )
+            {
+                // list it again below, so the failure surfaces exactly as in a sequential scan
+            }
+        }
+        return listDirectory( dir, vpath, fast, null );
+    }
+
+    /**
+     * Lists a directory and classifies every entry. Each entry is stat'ed and matched against the include and exclude
+     * patterns only once, and not stat'ed at all when the directory is unchanged since the scan cache was written.
+     * When an executor is given, the listings of all subdirectories a fast scan would descend into are submitted to
+     * it, so whole subtrees are read and matched concurrently while the calling thread consumes the results in the
+     * same order as a sequential scan.
+     */
+    private DirectoryListing listDirectory( @Nonnull final File dir, @Nonnull final String vpath, final boolean fast,
+                                            @Nullable final ExecutorService executor )
+    {
+        final String[] newfiles;
+        final byte[] kinds;
+
+        final long lastModified = scanCache != null ? dir.lastModified() : 0L;
+        final DirectoryScanCache.Directory cached = scanCache != null ? scanCache.lookup( vpath, lastModified ) : null;
+        if ( cached != null )
+        {
+            newfiles = cached.names;
+            kinds = cached.kinds;
+        }
+        else
+        {
+            newfiles = list( dir );
+            kinds = new byte[newfiles.length];
+            for ( int i = 0; i < newfiles.length; i++ )
+            {
+                kinds[i] = classify( dir, newfiles[i] );
+            }
+            if ( scanCache != null )
+            {
+                scanCache.record( vpath, lastModified, newfiles, kinds );
+            }
+        }
+
+        final DirectoryListing listing = new DirectoryListing( newfiles );
+
+        for ( int i = 0; i < newfiles.length; i++ )
+        {
+            final String name = vpath + newfiles[i];
+            final File file = new File( dir, newfiles[i] );
+            listing.files[i] = file;
+
+            if ( ( kinds[i] & SYMLINK ) != 0 || kinds[i] == 0 )
+            {
+                listing.flags[i] = kinds[i];
+                continue;
             }
-            catch ( final IOException ioe )
+
+            final boolean directory = kinds[i] == DIRECTORY;
+            final boolean included = isIncluded( name );
+            final boolean excluded = included && isExcluded( name );
+            final boolean selected = included && !excluded;
+            final boolean couldHoldIncluded = directory && !selected && fast && couldHoldIncluded( name );
+
+            listing.flags[i] = (byte) ( kinds[i] | ( included ? INCLUDED : 0 ) | ( excluded ? EXCLUDED : 0 )
+                | ( couldHoldIncluded ? COULD_HOLD_INCLUDED : 0 ) );
+
+            if ( executor != null && directory && ( selected || couldHoldIncluded ) )
             {
-                final String msg =
-                    "IOException caught while checking " + "for links, couldn't get cannonical path!";
-                // will be caught and redirected to Ant's logging system
-                System.err.println( msg );
-                noLinks.add( newfile );
+                listing.children[i] = submitListing( executor, file, name + File.separator );
             }
         }
-        newfiles = noLinks.toArray( new String[noLinks.size()] );
+        return listing;
+    }
+
+    private static String[] list( @Nonnull final File dir )
+    {
+        String[] newfiles = dir.list();
+
+        if ( newfiles == null )
+        {
+            /*
+             * two reasons are mentioned in the API docs for File.list (1) dir is not a directory. This is impossible as
+             * we wouldn't get here in this case. (2) an IO error occurred (why doesn't it throw an exception then???)
+             */
+
+            /*
+             * [jdcasey] (2) is apparently happening to me, as this is killing one of my tests... this is affecting the
+             * assembly plugin, fwiw. I will initialize the newfiles array as zero-length for now. NOTE: I can't find
+             * the problematic code, as it appears to come from a native method in UnixFileSystem...
+             */
+            newfiles = new String[0];
+
+            // throw new IOException( "IO error scanning directory " + dir.getAbsolutePath() );
+        }
         return newfiles;
     }
 
+    /**
+     * @return {@link #DIRECTORY} or {@link #FILE}, combined with {@link #SYMLINK} for links which are not followed, or
+     *         0 for anything else.
+     */
+    private byte classify( @Nonnull final File dir, @Nonnull final String newfile )
+    {
+        final File file = new File( dir, newfile );
+        if ( !followSymlinks && isSymbolicLinkQuietly( dir, newfile ) )
+        {
+            return (byte) ( SYMLINK | ( file.isDirectory() ? DIRECTORY : 0 ) );
+        }
+        if ( file.isDirectory() )
+        {
+            return DIRECTORY;
+        }
+        return file.isFile() ? (byte) FILE : 0;
+    }
+
+    private Future<DirectoryListing> submitListing( @Nonnull final ExecutorService executor, @Nonnull final File dir,
+                                                    @Nonnull final String vpath )
+    {
+        try
+        {
+            return executor.submit( new Callable<DirectoryListing>()
+            {
+                public DirectoryListing call()
+                {
+                    return listDirectory( dir, vpath, true, executor );
+                }
+            } );
+        }
+        catch ( RejectedExecutionException e )
+        {
+            // the scan has already finished or was aborted
+            return null;
+        }
+    }
+
+    private boolean isSymbolicLinkQuietly( final File dir, final String newfile )
+    {
+        try
+        {
+            return isSymbolicLink( dir, newfile );
+        }
+        catch ( final IOException ioe )
+        {
+            final String msg =
+                "IOException caught while checking " + "for links, couldn't get cannonical path!";
+            // will be caught and redirected to Ant's logging system
+            System.err.println( msg );
+            return false;
+        }
+    }
+
     /**
      * Tests whether or not a name matches against at least one include pattern.
      *
@@ -937,4 +1213,46 @@ public class DirectoryScanner
         excludesPatterns = MatchPatterns.from( excludes );
     }
 
+    /**
+     * The entries of a single directory, each classified once by {@link #listDirectory}.
+     */
+    private static final class DirectoryListing
+    {
+        final String[] names;
+
+        final File[] files;
+
+        final byte[] flags;
+
+        final Future<DirectoryListing>[] children;
+
+        @SuppressWarnings( "unchecked" )
+        DirectoryListing( String[] names )
+        {
+            this.names = names;
+            this.files = new File[names.length];
+            this.flags = new byte[names.length];
+            this.children = new Future[names.length];
+        }
+
+        boolean is( int index, int flag )
+        {
+            return ( flags[index] & flag ) != 0;
+        }
+    }
+
+    private static final class ScannerThreadFactory
+        implements ThreadFactory
+    {
+        private final ThreadFactory delegate = Executors.defaultThreadFactory();
+
+        public Thread newThread( Runnable r )
+        {
+            Thread thread = delegate.newThread( r );
+            thread.setName( "DirectoryScanner-" + thread.getName() );
+            thread.setDaemon( true );
+            return thread;
+        }
+    }
+
 }
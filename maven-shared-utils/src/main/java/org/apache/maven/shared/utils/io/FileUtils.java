@@ -868,8 +868,15 @@ public class FileUtils
             long count;
             while ( pos < size )
             {
+                // transferTo lets the platform copy in the kernel where it can
                 count = size - pos > FILE_COPY_BUFFER_SIZE ? FILE_COPY_BUFFER_SIZE : size - pos;
-                pos += output.transferFrom( input, pos, count );
+                count = input.transferTo( pos, count, output );
+                if ( count <= 0 )
+                {
+                    // the source shrank while copying, copyFile reports the length mismatch
+                    break;
+                }
+                pos += count;
             }
         }
         finally
@@ -104,7 +104,7 @@ public class MatchPattern
         }
         else
         {
-            String altStr = source.replace( '\\', '/' );
+            String altStr = str.replace( '\\', '/' );
 
             return SelectorUtils.matchAntPathPatternStart( this, str, File.separator, isCaseSensitive )
                 || SelectorUtils.matchAntPathPatternStart( this, altStr, "/", isCaseSensitive );
@@ -120,6 +120,11 @@ public class MatchPattern
     }
 
 
+    Pattern getRegexPattern()
+    {
+        return regexPatternRegex;
+    }
+
     /**
      * @param string The part which will be checked to start with.
      * @return true in case of starting with the string false otherwise.
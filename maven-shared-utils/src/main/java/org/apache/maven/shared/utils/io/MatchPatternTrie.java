@@ -0,0 +1,322 @@
+package org.apache.maven.shared.utils.io;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A set of {@link MatchPattern}s compiled into a trie of path segments.
+ * <p/>
+ * Patterns sharing a common prefix share the nodes for it, and a path is matched against all patterns in a single
+ * walk over its segments, without tokenizing it into strings. A "**" segment is a node which may consume any number of
+ * path segments. Patterns starting with a separator and patterns which don't are kept in separate tries, so the leading
+ * separator rule of {@link SelectorUtils} holds. Regular expression patterns can't be merged into the trie and are
+ * tested one by one.
+ */
+final class MatchPatternTrie
+{
+    private static final char SEPARATOR = File.separatorChar;
+
+    private static final String DOUBLE_STAR = "**";
+
+    private final Node relative = new Node( null );
+
+    private final Node absolute = new Node( null );
+
+    private final Pattern[] regexPatterns;
+
+    MatchPatternTrie( @Nonnull MatchPattern... patterns )
+    {
+        List<Pattern> regexes = new ArrayList<Pattern>();
+        for ( MatchPattern pattern : patterns )
+        {
+            if ( pattern.getRegexPattern() != null )
+            {
+                regexes.add( pattern.getRegexPattern() );
+            }
+            else
+            {
+                Node root = pattern.startsWith( File.separator ) ? absolute : relative;
+                root.used = true;
+                root.add( pattern.getTokenizedPathString(), 0 ).terminal = true;
+            }
+        }
+        regexPatterns = regexes.toArray( new Pattern[regexes.size()] );
+    }
+
+    /**
+     * @param path            The path to match
+     * @param isCaseSensitive If the comparison is case sensitive
+     * @return true if any of the patterns matches the path
+     */
+    boolean matches( @Nonnull String path, boolean isCaseSensitive )
+    {
+        if ( matches( root( path ), path, 0, isCaseSensitive ) )
+        {
+            return true;
+        }
+        for ( Pattern regexPattern : regexPatterns )
+        {
+            if ( regexPattern.matcher( path ).matches() )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tests whether the path matches the start of any pattern up to its first "**", i.e. whether a directory with this
+     * path could contain anything matched by the patterns. Unlike a plain prefix test this never gives a false
+     * positive for ant style patterns.
+     *
+     * @param path            The path of the directory
+     * @param isCaseSensitive If the comparison is case sensitive
+     * @return true if any of the patterns could match a path below the given one
+     */
+    boolean couldHoldMatch( @Nonnull String path, boolean isCaseSensitive )
+    {
+        if ( regexPatterns.length > 0 )
+        {
+            // we can't do partial matches for regex, so we have to reserve judgement
+            return true;
+        }
+        Node root = root( path );
+        return root.used && couldHoldMatch( root, path, 0, isCaseSensitive );
+    }
+
+    private Node root( String path )
+    {
+        return path.length() > 0 && path.charAt( 0 ) == SEPARATOR ? absolute : relative;
+    }
+
+    private static boolean matches( Node node, String path, int pos, boolean isCaseSensitive )
+    {
+        int start = skipSeparators( path, pos );
+        if ( start == path.length() )
+        {
+            return node.acceptsEmpty();
+        }
+
+        int end = segmentEnd( path, start );
+        if ( node.doubleStar && matches( node, path, end, isCaseSensitive ) )
+        {
+            return true;
+        }
+        for ( Node child : node.children )
+        {
+            if ( child.matchesSegment( path, start, end, isCaseSensitive )
+                && matches( child, path, end, isCaseSensitive ) )
+            {
+                return true;
+            }
+        }
+        return node.doubleStarChild != null && matches( node.doubleStarChild, path, start, isCaseSensitive );
+    }
+
+    private static boolean couldHoldMatch( Node node, String path, int pos, boolean isCaseSensitive )
+    {
+        if ( node.doubleStarChild != null )
+        {
+            return true;
+        }
+
+        int start = skipSeparators( path, pos );
+        if ( start == path.length() )
+        {
+            return true;
+        }
+
+        int end = segmentEnd( path, start );
+        for ( Node child : node.children )
+        {
+            if ( child.matchesSegment( path, start, end, isCaseSensitive )
+                && couldHoldMatch( child, path, end, isCaseSensitive ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int skipSeparators( String path, int pos )
+    {
+        while ( pos < path.length() && path.charAt( pos ) == SEPARATOR )
+        {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int segmentEnd( String path, int start )
+    {
+        int end = path.indexOf( SEPARATOR, start );
+        return end < 0 ? path.length() : end;
+    }
+
+    /**
+     * Same as {@link SelectorUtils#match(String, String, boolean)}, for a region of the string.
+     */
+    static boolean matchSegment( char[] pattern, String str, int start, int end, boolean isCaseSensitive )
+    {
+        int p = 0;
+        int s = start;
+        int starP = -1;
+        int starS = -1;
+        while ( s < end )
+        {
+            if ( p < pattern.length && pattern[p] == '*' )
+            {
+                starP = p++;
+                starS = s;
+            }
+            else if ( p < pattern.length
+                && ( pattern[p] == '?' || equals( pattern[p], str.charAt( s ), isCaseSensitive ) ) )
+            {
+                p++;
+                s++;
+            }
+            else if ( starP >= 0 )
+            {
+                p = starP + 1;
+                s = ++starS;
+            }
+            else
+            {
+                return false;
+            }
+        }
+        while ( p < pattern.length && pattern[p] == '*' )
+        {
+            p++;
+        }
+        return p == pattern.length;
+    }
+
+    private static boolean equals( char c1, char c2, boolean isCaseSensitive )
+    {
+        if ( c1 == c2 )
+        {
+            return true;
+        }
+        // NOTE: Try both upper case and lower case as done by String.equalsIgnoreCase()
+        return !isCaseSensitive && ( Character.toUpperCase( c1 ) == Character.toUpperCase( c2 )
+            || Character.toLowerCase( c1 ) == Character.toLowerCase( c2 ) );
+    }
+
+    private static final class Node
+    {
+        private static final Node[] NONE = new Node[0];
+
+        private final String segment;
+
+        private final char[] segmentChars;
+
+        private final boolean doubleStar;
+
+        private final boolean literal;
+
+        private Node[] children = NONE;
+
+        private Node doubleStarChild;
+
+        private boolean terminal;
+
+        private boolean used;
+
+        Node( String segment )
+        {
+            this.segment = segment;
+            this.segmentChars = segment != null ? segment.toCharArray() : null;
+            this.doubleStar = DOUBLE_STAR.equals( segment );
+            this.literal = segment != null && segment.indexOf( '*' ) < 0 && segment.indexOf( '?' ) < 0;
+        }
+
+        Node add( String[] segments, int index )
+        {
+            if ( index == segments.length )
+            {
+                return this;
+            }
+
+            String next = segments[index];
+            if ( doubleStar && DOUBLE_STAR.equals( next ) )
+            {
+                // "**/**" matches exactly what "**" does
+                return add( segments, index + 1 );
+            }
+
+            Node child;
+            if ( DOUBLE_STAR.equals( next ) )
+            {
+                if ( doubleStarChild == null )
+                {
+                    doubleStarChild = new Node( next );
+                }
+                child = doubleStarChild;
+            }
+            else
+            {
+                child = findChild( next );
+                if ( child == null )
+                {
+                    child = new Node( next );
+                    Node[] grown = new Node[children.length + 1];
+                    System.arraycopy( children, 0, grown, 0, children.length );
+                    grown[children.length] = child;
+                    children = grown;
+                }
+            }
+            return child.add( segments, index + 1 );
+        }
+
+        private Node findChild( String name )
+        {
+            for ( Node child : children )
+            {
+                if ( child.segment.equals( name ) )
+                {
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        boolean acceptsEmpty()
+        {
+            return terminal || ( doubleStarChild != null && doubleStarChild.acceptsEmpty() );
+        }
+
+        boolean matchesSegment( String path, int start, int end, boolean isCaseSensitive )
+        {
+            if ( literal )
+            {
+                return end - start == segmentChars.length
+                    && path.regionMatches( !isCaseSensitive, start, segment, 0, segmentChars.length );
+            }
+            return matchSegment( segmentChars, path, start, end, isCaseSensitive );
+        }
+    }
+}
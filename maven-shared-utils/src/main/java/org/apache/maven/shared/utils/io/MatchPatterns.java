@@ -19,8 +19,6 @@ package org.apache.maven.shared.utils.io;
  * under the License.
  */
 
-import java.io.File;
-
 import javax.annotation.Nonnull;
 
 /**
@@ -30,17 +28,18 @@ import javax.annotation.Nonnull;
  */
 public class MatchPatterns
 {
-    private final MatchPattern[] patterns;
+    private final MatchPatternTrie trie;
 
     private MatchPatterns( @Nonnull MatchPattern... patterns )
     {
-        this.patterns = patterns;
+        this.trie = new MatchPatternTrie( patterns );
     }
 
     /**
      * Checks these MatchPatterns against a specified string.
      * <p/>
-     * Uses far less string tokenization than any of the alternatives.
+     * The patterns are compiled into a single trie, so the name is not tokenized and all patterns are tested in one
+     * pass over it.
      *
      * @param name            The name to look for
      * @param isCaseSensitive If the comparison is case sensitive
@@ -48,32 +47,19 @@ public class MatchPatterns
      */
     public boolean matches( @Nonnull String name, boolean isCaseSensitive )
     {
-        String[] tokenized = MatchPattern.tokenizePathToString( name, File.separator );
-        for ( MatchPattern pattern : patterns )
-        {
-            if ( pattern.matchPath( name, tokenized, isCaseSensitive ) )
-            {
-                return true;
-            }
-        }
-        return false;
+        return trie.matches( name, isCaseSensitive );
     }
 
     /**
+     * Checks whether a directory with the specified name could contain anything matched by these MatchPatterns.
+     *
      * @param name The name.
      * @param isCaseSensitive being case sensetive.
      * @return true if any of the supplied patterns match start.
      */
     public boolean matchesPatternStart( @Nonnull String name, boolean isCaseSensitive )
     {
-        for ( MatchPattern includesPattern : patterns )
-        {
-            if ( includesPattern.matchPatternStart( name, isCaseSensitive ) )
-            {
-                return true;
-            }
-        }
-        return false;
+        return trie.couldHoldMatch( name, isCaseSensitive );
     }
 
     /**
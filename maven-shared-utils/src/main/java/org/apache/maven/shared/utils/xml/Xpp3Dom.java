@@ -45,9 +45,16 @@ public class Xpp3Dom
 
     private Map<String, String> attributes; // plexus: protected
 
-    final List<Xpp3Dom> childList; // plexus: protected
+    /**
+     * The children, <code>null</code> until the first child gets added.
+     */
+    List<Xpp3Dom> childList; // plexus: protected
 
-    final Map<String, Xpp3Dom> childMap; // plexus: protected
+    /**
+     * The children by name, <code>null</code> until the first child gets added. The value is the child itself if
+     * there is only one child of that name, otherwise the list of the children of that name in document order.
+     */
+    Map<String, Object> childMap; // plexus: protected
 
     private Xpp3Dom parent; // plexus: protected
 
@@ -93,8 +100,6 @@ public class Xpp3Dom
     public Xpp3Dom( String name )
     {
         this.name = name;
-        childList = new ArrayList<Xpp3Dom>();
-        childMap = new HashMap<String, Xpp3Dom>();
     }
 
     /**
@@ -115,10 +120,6 @@ public class Xpp3Dom
     {
         this.name = name;
 
-        int size = src.getChildCount();
-        childList = new ArrayList<Xpp3Dom>( size );
-        childMap = new HashMap<String, Xpp3Dom>();
-
         setValue( src.getValue() );
 
         for ( String attributeName : src.getAttributeNames() )
@@ -204,7 +205,7 @@ public class Xpp3Dom
      */
     public Xpp3Dom getChild( int i )
     {
-        return childList.get( i );
+        return getChildrenList().get( i );
     }
 
     /**
@@ -213,7 +214,19 @@ public class Xpp3Dom
      */
     public Xpp3Dom getChild( String nameParameter )
     {
-        return childMap.get( nameParameter );
+        Object children = childMap != null ? childMap.get( nameParameter ) : null;
+        if ( children instanceof Xpp3Dom )
+        {
+            return (Xpp3Dom) children;
+        }
+        return children != null ? lastChild( children ) : null;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private static Xpp3Dom lastChild( Object children )
+    {
+        List<Xpp3Dom> list = (List<Xpp3Dom>) children;
+        return list.get( list.size() - 1 );
     }
 
     /**
@@ -222,8 +235,23 @@ public class Xpp3Dom
     public void addChild( Xpp3Dom child )
     {
         child.setParent( this );
+        addSharedChild( child );
+    }
+
+    /**
+     * Adds a child without making this its parent, for trees sharing subtrees with other trees.
+     *
+     * @param child The child to be added.
+     */
+    void addSharedChild( Xpp3Dom child )
+    {
+        if ( childList == null )
+        {
+            childList = new ArrayList<Xpp3Dom>( 4 );
+            childMap = new HashMap<String, Object>();
+        }
         childList.add( child );
-        childMap.put( child.getName(), child );
+        indexChild( child );
     }
 
     /**
@@ -251,23 +279,21 @@ public class Xpp3Dom
         return children.toArray( new Xpp3Dom[children.size()] );
     }
 
+    @SuppressWarnings( "unchecked" )
     List<Xpp3Dom> getChildrenList( String nameParameter )
     {
-        if ( childList == null )
+        Object children = childMap != null ? childMap.get( nameParameter ) : null;
+        if ( children == null )
         {
             return Collections.emptyList();
         }
+        else if ( children instanceof Xpp3Dom )
+        {
+            return Collections.singletonList( (Xpp3Dom) children );
+        }
         else
         {
-            ArrayList<Xpp3Dom> children = new ArrayList<Xpp3Dom>();
-            for ( Xpp3Dom aChildList : childList )
-            {
-                if ( nameParameter.equals( aChildList.getName() ) )
-                {
-                    children.add( aChildList );
-                }
-            }
-            return children;
+            return new ArrayList<Xpp3Dom>( (List<Xpp3Dom>) children );
         }
     }
 
@@ -289,11 +315,68 @@ public class Xpp3Dom
      */
     public void removeChild( int i )
     {
-        Xpp3Dom child = childList.remove( i );
-        childMap.values().remove( child );
+        Xpp3Dom child = getChild( i );
+        childList.remove( i );
+        unindexChild( child );
         child.setParent( null );
     }
 
+    /**
+     * Removes all children, without resetting their parent.
+     */
+    void clearChildren()
+    {
+        if ( childList != null )
+        {
+            childList.clear();
+            childMap.clear();
+        }
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private void indexChild( Xpp3Dom child )
+    {
+        Object children = childMap.put( child.getName(), child );
+        if ( children instanceof Xpp3Dom )
+        {
+            List<Xpp3Dom> list = new ArrayList<Xpp3Dom>( 2 );
+            list.add( (Xpp3Dom) children );
+            list.add( child );
+            childMap.put( child.getName(), list );
+        }
+        else if ( children != null )
+        {
+            ( (List<Xpp3Dom>) children ).add( child );
+            childMap.put( child.getName(), children );
+        }
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private void unindexChild( Xpp3Dom child )
+    {
+        Object children = childMap.get( child.getName() );
+        if ( children == child )
+        {
+            childMap.remove( child.getName() );
+        }
+        else if ( children instanceof List )
+        {
+            List<Xpp3Dom> list = (List<Xpp3Dom>) children;
+            for ( int i = list.size() - 1; i >= 0; i-- )
+            {
+                if ( list.get( i ) == child )
+                {
+                    list.remove( i );
+                    break;
+                }
+            }
+            if ( list.size() == 1 )
+            {
+                childMap.put( child.getName(), list.get( 0 ) );
+            }
+        }
+    }
+
     /**
      * @return The current parent.
      */
@@ -358,7 +441,7 @@ public class Xpp3Dom
         return !( name == null ? dom.name != null : !name.equals( dom.name ) )
             && !( value == null ? dom.value != null : !value.equals( dom.value ) )
             && !( attributes == null ? dom.attributes != null : !attributes.equals( dom.attributes ) )
-            && !( childList == null ? dom.childList != null : !childList.equals( dom.childList ) );
+            && getChildrenList().equals( dom.getChildrenList() );
     }
 
     /** {@inheritDoc} */
@@ -368,7 +451,7 @@ public class Xpp3Dom
         result = 37 * result + ( name != null ? name.hashCode() : 0 );
         result = 37 * result + ( value != null ? value.hashCode() : 0 );
         result = 37 * result + ( attributes != null ? attributes.hashCode() : 0 );
-        result = 37 * result + ( childList != null ? childList.hashCode() : 0 );
+        result = 37 * result + getChildrenList().hashCode();
         return result;
     }
 
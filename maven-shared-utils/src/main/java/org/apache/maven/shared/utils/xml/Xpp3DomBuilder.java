@@ -30,6 +30,9 @@ import org.xml.sax.helpers.DefaultHandler;
 
 import javax.annotation.Nonnull;
 import javax.annotation.WillClose;
+import javax.xml.parsers.FactoryConfigurationError;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -38,14 +41,36 @@ import java.io.Reader;
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 /**
+ * Builds {@link Xpp3Dom}s with a SAX parser.
+ * <p/>
+ * Parsers are pooled, so building many small documents doesn't create a parser for each of them. The builder may be
+ * used concurrently and doesn't touch any system property.
+ *
  * @author Kristian Rosenvold
  */
 public class Xpp3DomBuilder
 {
     private static final boolean DEFAULT_TRIM = true;
 
+    /**
+     * The parser of the JDK, which is preferred over any parser on the class path.
+     */
+    private static final String JDK_SAX_PARSER_FACTORY =
+        "com.sun.org.apache.xerces.internal.jaxp.SAXParserFactoryImpl";
+
+    private static final int MAX_POOLED_READERS = 2 * Runtime.getRuntime().availableProcessors();
+
+    private static final BlockingQueue<XMLReader> XML_READERS = new ArrayBlockingQueue<XMLReader>(
+        MAX_POOLED_READERS );
+
+    private static final DefaultHandler NO_HANDLER = new DefaultHandler();
+
+    private static SAXParserFactory saxParserFactory;
+
     /**
      * @param reader {@link Reader}
      * @return the built dom.
@@ -116,9 +141,23 @@ public class Xpp3DomBuilder
         try
         {
             DocHandler ch = new DocHandler( trim );
-            XMLReader parser = createXmlReader();
-            parser.setContentHandler( ch );
-            parser.parse( inputSource );
+            XMLReader parser = acquireXmlReader();
+            boolean reusable = false;
+            try
+            {
+                parser.setContentHandler( ch );
+                parser.parse( inputSource );
+                reusable = true;
+            }
+            finally
+            {
+                // don't keep the handler and its document reachable from the pool
+                parser.setContentHandler( NO_HANDLER );
+                if ( reusable )
+                {
+                    XML_READERS.offer( parser );
+                }
+            }
             return ch;
         }
         catch ( IOException e )
@@ -131,52 +170,39 @@ public class Xpp3DomBuilder
         }
     }
 
-
-    private static XMLReader createXmlReader()
+    private static XMLReader acquireXmlReader()
         throws SAXException
     {
-        XMLReader comSunXmlReader = instantiate( "com.sun.org.apache.xerces.internal.parsers.SAXParser" );
-        if ( comSunXmlReader != null )
-        {
-            return comSunXmlReader;
-        }
+        XMLReader parser = XML_READERS.poll();
+        return parser != null ? parser : createXmlReader();
+    }
 
-        String key = "org.xml.sax.driver";
-        String oldParser = System.getProperty( key );
-        System.clearProperty( key ); // There's a "slight" problem with this an parallel maven: It does not work ;)
 
-        try
-        {
-            return org.xml.sax.helpers.XMLReaderFactory.createXMLReader();
-        }
-        finally
+    private static synchronized XMLReader createXmlReader()
+        throws SAXException
+    {
+        if ( saxParserFactory == null )
         {
-            if ( oldParser != null )
+            SAXParserFactory factory;
+            try
+            {
+                factory = SAXParserFactory.newInstance( JDK_SAX_PARSER_FACTORY, null );
+            }
+            catch ( FactoryConfigurationError e )
             {
-                System.setProperty( key, oldParser );
+                factory = SAXParserFactory.newInstance();
             }
+            factory.setNamespaceAware( true );
+            saxParserFactory = factory;
         }
 
-    }
-
-    private static XMLReader instantiate( String s )
-    {
         try
         {
-            Class<?> aClass = Thread.currentThread().getContextClassLoader().loadClass( s );
-            return (XMLReader) aClass.newInstance();
-        }
-        catch ( ClassNotFoundException e )
-        {
-            return  null;
-        }
-        catch ( InstantiationException e )
-        {
-            return  null;
+            return saxParserFactory.newSAXParser().getXMLReader();
         }
-        catch ( IllegalAccessException e )
+        catch ( ParserConfigurationException e )
         {
-            return  null;
+            throw new SAXException( e );
         }
     }
 
@@ -0,0 +1,133 @@
+package org.apache.maven.shared.utils.xml;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Memoizes {@link Xpp3DomUtils#mergeXpp3DomShared(Xpp3Dom, Xpp3Dom, Boolean) shared merges} by the identities of the
+ * merged trees, so merging the same configurations again, e.g. the plugin management of a parent into the executions
+ * of many modules, returns the tree of the first merge.
+ * <p/>
+ * The trees must not be modified while they are cached, neither the inputs nor the results. The cache keeps them
+ * reachable until it is {@link #clear() cleared} or discarded, so its lifetime should be bound to e.g. a build.
+ * This class may be used concurrently.
+ */
+public class Xpp3DomMergeCache
+{
+    private final ConcurrentMap<Key, Xpp3Dom> mergedTrees = new ConcurrentHashMap<Key, Xpp3Dom>();
+
+    /**
+     * @param dominant {@link Xpp3Dom}
+     * @param recessive {@link Xpp3Dom}
+     * @param childMergeOverride true/false.
+     * @return Merged dom, which must be treated as read-only.
+     * @see Xpp3DomUtils#mergeXpp3DomShared(Xpp3Dom, Xpp3Dom, Boolean)
+     */
+    public Xpp3Dom merge( Xpp3Dom dominant, Xpp3Dom recessive, Boolean childMergeOverride )
+    {
+        if ( dominant == null || recessive == null )
+        {
+            return Xpp3DomUtils.mergeXpp3DomShared( dominant, recessive, childMergeOverride );
+        }
+
+        Key key = new Key( dominant, recessive, childMergeOverride );
+        Xpp3Dom merged = mergedTrees.get( key );
+        if ( merged == null )
+        {
+            merged = Xpp3DomUtils.mergeXpp3DomShared( dominant, recessive, childMergeOverride );
+            Xpp3Dom previous = mergedTrees.putIfAbsent( key, merged );
+            if ( previous != null )
+            {
+                merged = previous;
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * @param dominant {@link Xpp3Dom}
+     * @param recessive {@link Xpp3Dom}
+     * @return Merged dom, which must be treated as read-only.
+     */
+    public Xpp3Dom merge( Xpp3Dom dominant, Xpp3Dom recessive )
+    {
+        return merge( dominant, recessive, null );
+    }
+
+    /**
+     * @return The number of cached merges.
+     */
+    public int size()
+    {
+        return mergedTrees.size();
+    }
+
+    /**
+     * Forgets all cached merges.
+     */
+    public void clear()
+    {
+        mergedTrees.clear();
+    }
+
+    /**
+     * The identities of the trees and the override of a merge.
+     */
+    private static final class Key
+    {
+        private final Xpp3Dom dominant;
+
+        private final Xpp3Dom recessive;
+
+        private final Boolean childMergeOverride;
+
+        private final int hashCode;
+
+        Key( Xpp3Dom dominant, Xpp3Dom recessive, Boolean childMergeOverride )
+        {
+            this.dominant = dominant;
+            this.recessive = recessive;
+            this.childMergeOverride = childMergeOverride;
+            this.hashCode = 31 * ( 31 * System.identityHashCode( dominant ) + System.identityHashCode( recessive ) )
+                + ( childMergeOverride != null ? childMergeOverride.hashCode() : 0 );
+        }
+
+        @Override
+        public boolean equals( Object obj )
+        {
+            if ( !( obj instanceof Key ) )
+            {
+                return false;
+            }
+            Key key = (Key) obj;
+            return dominant == key.dominant && recessive == key.recessive
+                && ( childMergeOverride == null ? key.childMergeOverride == null
+                                : childMergeOverride.equals( key.childMergeOverride ) );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+    }
+}
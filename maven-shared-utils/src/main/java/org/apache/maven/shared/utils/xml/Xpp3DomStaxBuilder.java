@@ -0,0 +1,252 @@
+package org.apache.maven.shared.utils.xml;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.shared.utils.io.IOUtil;
+import org.apache.maven.shared.utils.xml.pull.XmlPullParserException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.WillClose;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds {@link Xpp3Dom}s with a StAX parser, as an alternative to {@link Xpp3DomBuilder}.
+ * <p/>
+ * The document is pulled event by event straight into the tree, without a handler in between. Element and attribute
+ * names are interned, so the names of large or numerous trees are shared instead of being allocated for each
+ * element, and leaf elements don't allocate any child collection.
+ * <p/>
+ * Unlike {@link Xpp3DomBuilder}, which trims each chunk of text the SAX parser reports, the text of an element is
+ * trimmed as a whole, the way the Plexus builder does. Elements with <code>xml:space="preserve"</code> are never
+ * trimmed.
+ */
+public class Xpp3DomStaxBuilder
+{
+    private static final boolean DEFAULT_TRIM = true;
+
+    private static final String XML_SPACE = "xml:space";
+
+    private static final String PRESERVE = "preserve";
+
+    private static XMLInputFactory xmlInputFactory;
+
+    /**
+     * @param reader {@link Reader}
+     * @return the built dom.
+     * @throws XmlPullParserException in case of an error.
+     */
+    public static Xpp3Dom build( @WillClose @Nonnull Reader reader )
+        throws XmlPullParserException
+    {
+        return build( reader, DEFAULT_TRIM );
+    }
+
+    /**
+     * @param is {@link InputStream}
+     * @param encoding The encoding.
+     * @return the built dom.
+     * @throws XmlPullParserException in case of an error.
+     */
+    public static Xpp3Dom build( @WillClose InputStream is, @Nonnull String encoding )
+        throws XmlPullParserException
+    {
+        return build( is, encoding, DEFAULT_TRIM );
+    }
+
+    /**
+     * @param is {@link InputStream}
+     * @param encoding The encoding.
+     * @param trim true/false.
+     * @return the built dom.
+     * @throws XmlPullParserException in case of an error.
+     */
+    public static Xpp3Dom build( @WillClose InputStream is, @Nonnull String encoding, boolean trim )
+        throws XmlPullParserException
+    {
+        try
+        {
+            Reader reader = new InputStreamReader( is, encoding );
+            return build( reader, trim );
+        }
+        catch ( UnsupportedEncodingException e )
+        {
+            throw new RuntimeException( e );
+        }
+    }
+
+    /**
+     * @param reader {@link Reader}
+     * @param trim true/false.
+     * @return the built dom.
+     * @throws XmlPullParserException in case of an error.
+     */
+    public static Xpp3Dom build( @WillClose Reader reader, boolean trim )
+        throws XmlPullParserException
+    {
+        XMLStreamReader parser = null;
+        try
+        {
+            parser = createXmlStreamReader( reader );
+            Xpp3Dom dom = build( parser, trim );
+            parser.close();
+            parser = null;
+            return dom;
+        }
+        catch ( XMLStreamException e )
+        {
+            throw new XmlPullParserException( e );
+        }
+        finally
+        {
+            close( parser );
+            IOUtil.close( reader );
+        }
+    }
+
+    private static Xpp3Dom build( XMLStreamReader parser, boolean trim )
+        throws XMLStreamException
+    {
+        List<Element> stack = new ArrayList<Element>();
+        while ( parser.hasNext() )
+        {
+            switch ( parser.next() )
+            {
+                case XMLStreamConstants.START_ELEMENT:
+                    Element element = new Element( parser );
+                    if ( !stack.isEmpty() )
+                    {
+                        stack.get( stack.size() - 1 ).dom.addChild( element.dom );
+                    }
+                    stack.add( element );
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if ( !stack.isEmpty() )
+                    {
+                        stack.get( stack.size() - 1 ).appendText( parser );
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    Element ended = stack.remove( stack.size() - 1 );
+                    ended.end( trim );
+                    if ( stack.isEmpty() )
+                    {
+                        return ended.dom;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        throw new XmlPullParserException( "The document has no root element" );
+    }
+
+    private static synchronized XMLStreamReader createXmlStreamReader( Reader reader )
+        throws XMLStreamException
+    {
+        if ( xmlInputFactory == null )
+        {
+            XMLInputFactory factory = XMLInputFactory.newInstance();
+            factory.setProperty( XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE );
+            factory.setProperty( XMLInputFactory.IS_COALESCING, Boolean.FALSE );
+            xmlInputFactory = factory;
+        }
+        return xmlInputFactory.createXMLStreamReader( reader );
+    }
+
+    private static void close( XMLStreamReader parser )
+    {
+        if ( parser != null )
+        {
+            try
+            {
+                parser.close();
+            }
+            catch ( XMLStreamException e )
+            {
+                // ignore
+            }
+        }
+    }
+
+    /**
+     * An element which has been started but not yet ended.
+     */
+    private static final class Element
+    {
+        final Xpp3Dom dom;
+
+        private boolean spacePreserve;
+
+        private StringBuilder text;
+
+        Element( XMLStreamReader parser )
+        {
+            dom = new Xpp3Dom( parser.getLocalName().intern() );
+
+            int size = parser.getAttributeCount();
+            for ( int i = 0; i < size; i++ )
+            {
+                String prefix = parser.getAttributePrefix( i );
+                String localName = parser.getAttributeLocalName( i );
+                String name = prefix == null || prefix.length() == 0 ? localName : prefix + ':' + localName;
+                String value = parser.getAttributeValue( i );
+                dom.setAttribute( name.intern(), value );
+                spacePreserve = spacePreserve || ( XML_SPACE.equals( name ) && PRESERVE.equals( value ) );
+            }
+        }
+
+        void appendText( XMLStreamReader parser )
+        {
+            if ( text == null )
+            {
+                text = new StringBuilder( parser.getTextLength() );
+            }
+            text.append( parser.getTextCharacters(), parser.getTextStart(), parser.getTextLength() );
+        }
+
+        void end( boolean trim )
+        {
+            if ( dom.getChildCount() == 0 )
+            {
+                if ( text == null )
+                {
+                    dom.setValue( "" );
+                }
+                else
+                {
+                    String value = text.toString();
+                    dom.setValue( trim && !spacePreserve ? value.trim() : value );
+                }
+            }
+        }
+    }
+}
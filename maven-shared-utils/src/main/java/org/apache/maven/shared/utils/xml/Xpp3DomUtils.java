@@ -19,6 +19,7 @@ package org.apache.maven.shared.utils.xml;
  * under the License.
  */
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -100,7 +101,7 @@ public class Xpp3DomUtils
             else
             {
                 Xpp3Dom[] dominantChildren = dominant.getChildren();
-                dominant.childList.clear();
+                dominant.clearChildren();
                 for ( Xpp3Dom child : recessive )
                 {
                     dominant.addChild( new Xpp3Dom( child ) );
@@ -115,6 +116,197 @@ public class Xpp3DomUtils
         return dominant;
     }
 
+    /**
+     * Merges like {@link #mergeXpp3Dom(Xpp3Dom, Xpp3Dom, Boolean)}, but modifies neither of the trees. The result
+     * shares all subtrees the merge leaves unchanged with the dominant and recessive tree, and is the dominant tree
+     * itself if the recessive tree adds nothing to it.
+     * <p/>
+     * The result must be treated as read-only, as modifying it would modify the shared subtrees of its inputs as
+     * well. Shared nodes keep their parent in the input tree they come from.
+     *
+     * @param dominant {@link Xpp3Dom}
+     * @param recessive {@link Xpp3Dom}
+     * @param childMergeOverride true/false.
+     * @return Merged dom.
+     */
+    public static Xpp3Dom mergeXpp3DomShared( Xpp3Dom dominant, Xpp3Dom recessive, Boolean childMergeOverride )
+    {
+        return dominant != null ? mergeShared( dominant, recessive, childMergeOverride ) : recessive;
+    }
+
+    /**
+     * @param dominant {@link Xpp3Dom}
+     * @param recessive {@link Xpp3Dom}
+     * @return Merged dom.
+     * @see #mergeXpp3DomShared(Xpp3Dom, Xpp3Dom, Boolean)
+     */
+    public static Xpp3Dom mergeXpp3DomShared( Xpp3Dom dominant, Xpp3Dom recessive )
+    {
+        return mergeXpp3DomShared( dominant, recessive, null );
+    }
+
+    private static Xpp3Dom mergeShared( Xpp3Dom dominant, Xpp3Dom recessive, Boolean childMergeOverride )
+    {
+        if ( recessive == null || isCombineSelfOverride( dominant ) )
+        {
+            return dominant;
+        }
+
+        boolean changed = false;
+
+        String value = dominant.getValue();
+        if ( isEmpty( value ) && !equals( value, recessive.getValue() ) )
+        {
+            value = recessive.getValue();
+            changed = true;
+        }
+
+        Map<String, String> attributes = null;
+        for ( String attr : recessive.getAttributeNames() )
+        {
+            String dominantValue = dominant.getAttribute( attr );
+            if ( isEmpty( dominantValue ) && !equals( dominantValue, recessive.getAttribute( attr ) ) )
+            {
+                if ( attributes == null )
+                {
+                    attributes = new HashMap<String, String>();
+                }
+                attributes.put( attr, recessive.getAttribute( attr ) );
+                changed = true;
+            }
+        }
+
+        Xpp3Dom[] children = dominant.getChildren();
+        boolean[] created = null;
+        List<Xpp3Dom> appended = null;
+        if ( recessive.getChildCount() > 0 )
+        {
+            // the recessive tree may have contributed the combination mode
+            String combinationMode = dominant.getAttribute( Xpp3Dom.CHILDREN_COMBINATION_MODE_ATTRIBUTE );
+            if ( attributes != null && attributes.containsKey( Xpp3Dom.CHILDREN_COMBINATION_MODE_ATTRIBUTE ) )
+            {
+                combinationMode = attributes.get( Xpp3Dom.CHILDREN_COMBINATION_MODE_ATTRIBUTE );
+            }
+
+            boolean mergeChildren = childMergeOverride != null ? childMergeOverride
+                            : !Xpp3Dom.CHILDREN_COMBINATION_APPEND.equals( combinationMode );
+            if ( mergeChildren )
+            {
+                Map<String, Iterator<Integer>> commonChildren = getCommonChildPositions( dominant, recessive );
+                for ( Xpp3Dom recessiveChild : recessive )
+                {
+                    Iterator<Integer> it = commonChildren.get( recessiveChild.getName() );
+                    if ( it == null )
+                    {
+                        if ( appended == null )
+                        {
+                            appended = new ArrayList<Xpp3Dom>();
+                        }
+                        appended.add( recessiveChild );
+                        changed = true;
+                    }
+                    else if ( it.hasNext() )
+                    {
+                        int position = it.next();
+                        Xpp3Dom dominantChild = children[position];
+                        children[position] = mergeShared( dominantChild, recessiveChild, childMergeOverride );
+                        if ( children[position] != dominantChild )
+                        {
+                            if ( created == null )
+                            {
+                                created = new boolean[children.length];
+                            }
+                            created[position] = true;
+                            changed = true;
+                        }
+                    }
+                }
+            }
+            else
+            {
+                Xpp3Dom[] recessiveChildren = recessive.getChildren();
+                Xpp3Dom[] allChildren = new Xpp3Dom[recessiveChildren.length + children.length];
+                System.arraycopy( recessiveChildren, 0, allChildren, 0, recessiveChildren.length );
+                System.arraycopy( children, 0, allChildren, recessiveChildren.length, children.length );
+                children = allChildren;
+                changed = true;
+            }
+        }
+
+        if ( !changed )
+        {
+            return dominant;
+        }
+
+        Xpp3Dom merged = new Xpp3Dom( dominant.getName() );
+        merged.setValue( value );
+        for ( String attr : dominant.getAttributeNames() )
+        {
+            merged.setAttribute( attr, dominant.getAttribute( attr ) );
+        }
+        if ( attributes != null )
+        {
+            for ( Map.Entry<String, String> attribute : attributes.entrySet() )
+            {
+                merged.setAttribute( attribute.getKey(), attribute.getValue() );
+            }
+        }
+        for ( int i = 0; i < children.length; i++ )
+        {
+            if ( created != null && created[i] )
+            {
+                merged.addChild( children[i] );
+            }
+            else
+            {
+                merged.addSharedChild( children[i] );
+            }
+        }
+        if ( appended != null )
+        {
+            for ( Xpp3Dom child : appended )
+            {
+                merged.addSharedChild( child );
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Same as {@link #getCommonChildren(Xpp3Dom, Xpp3Dom)}, with the positions of the dominant children instead of
+     * the children.
+     */
+    private static Map<String, Iterator<Integer>> getCommonChildPositions( Xpp3Dom dominant, Xpp3Dom recessive )
+    {
+        Map<String, List<Integer>> positions = new HashMap<String, List<Integer>>();
+        for ( int i = 0; i < dominant.getChildCount(); i++ )
+        {
+            String name = dominant.getChild( i ).getName();
+            if ( recessive.getChild( name ) != null )
+            {
+                List<Integer> namePositions = positions.get( name );
+                if ( namePositions == null )
+                {
+                    namePositions = new ArrayList<Integer>( 1 );
+                    positions.put( name, namePositions );
+                }
+                namePositions.add( i );
+            }
+        }
+
+        Map<String, Iterator<Integer>> commonChildren = new HashMap<String, Iterator<Integer>>();
+        for ( Map.Entry<String, List<Integer>> entry : positions.entrySet() )
+        {
+            commonChildren.put( entry.getKey(), entry.getValue().iterator() );
+        }
+        return commonChildren;
+    }
+
+    private static boolean equals( String s1, String s2 )
+    {
+        return s1 == null ? s2 == null : s1.equals( s2 );
+    }
+
     private static Map<String, Iterator<Xpp3Dom>> getCommonChildren( Xpp3Dom dominant, Xpp3Dom recessive )
     {
         Map<String, Iterator<Xpp3Dom>> commonChildren = new HashMap<String, Iterator<Xpp3Dom>>();
@@ -23,6 +23,8 @@ import org.xml.sax.SAXException;
 
 import java.io.IOException;
 
+import javax.xml.stream.XMLStreamException;
+
 /**
  * 
  */
@@ -51,6 +53,14 @@ public class XmlPullParserException
         super( e );
     }
 
+    /**
+     * @param e The exception.
+     */
+    public XmlPullParserException( XMLStreamException e )
+    {
+        super( e );
+    }
+
     /**
      * @param message The message.
      */
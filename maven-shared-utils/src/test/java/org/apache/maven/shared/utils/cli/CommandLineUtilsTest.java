@@ -19,8 +19,10 @@ package org.apache.maven.shared.utils.cli;
  * under the License.
  */
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
@@ -72,6 +74,70 @@ public class CommandLineUtilsTest
         }
     }
 
+    public void testExecuteCommandLine()
+        throws Exception
+    {
+        if ( Os.isFamily( Os.FAMILY_WINDOWS ) )
+        {
+            return;
+        }
+
+        CommandLineUtils.StringStreamConsumer out = new CommandLineUtils.StringStreamConsumer();
+        CommandLineUtils.StringStreamConsumer err = new CommandLineUtils.StringStreamConsumer();
+        Commandline cl = new Commandline( "sh -c 'echo out; echo err >&2; exit 3'" );
+
+        assertEquals( 3, CommandLineUtils.executeCommandLine( cl, out, err ) );
+        assertEquals( "out", out.getOutput().trim() );
+        assertEquals( "err", err.getOutput().trim() );
+    }
+
+    public void testExecuteCommandLinesConcurrently()
+        throws Exception
+    {
+        if ( Os.isFamily( Os.FAMILY_WINDOWS ) )
+        {
+            return;
+        }
+
+        List<CommandLineCallable> callables = new ArrayList<CommandLineCallable>();
+        List<CommandLineUtils.StringStreamConsumer> outputs = new ArrayList<CommandLineUtils.StringStreamConsumer>();
+        for ( int i = 0; i < 20; i++ )
+        {
+            CommandLineUtils.StringStreamConsumer out = new CommandLineUtils.StringStreamConsumer();
+            outputs.add( out );
+            callables.add( CommandLineUtils.executeCommandLineAsCallable( new Commandline( "echo " + i ), null, out,
+                                                                          null, 10, null ) );
+        }
+
+        for ( int i = 0; i < callables.size(); i++ )
+        {
+            assertEquals( 0, callables.get( i ).call().intValue() );
+            assertEquals( String.valueOf( i ), outputs.get( i ).getOutput().trim() );
+        }
+    }
+
+    public void testTimeout()
+        throws Exception
+    {
+        if ( Os.isFamily( Os.FAMILY_WINDOWS ) )
+        {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        try
+        {
+            CommandLineUtils.executeCommandLine( new Commandline( "sleep 20" ), null, null, 1 );
+            fail( "The process should have timed out" );
+        }
+        catch ( CommandLineTimeOutException e )
+        {
+            // expected
+        }
+        assertTrue( System.currentTimeMillis() - start < 10000L );
+        assertFalse( Thread.currentThread().isInterrupted() );
+    }
+
     /**
      * Tests the splitting of a command line into distinct arguments.
      */
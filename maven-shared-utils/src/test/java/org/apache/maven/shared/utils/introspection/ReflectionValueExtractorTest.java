@@ -23,6 +23,10 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.maven.plugin.testing.stubs.MavenProjectStub;
 
@@ -266,6 +270,49 @@ public class ReflectionValueExtractorTest
         assertNull( ReflectionValueExtractor.evaluate("project", project, true) );
     }
 
+    public void testSameExpressionOnDifferentClasses()
+            throws Exception
+    {
+        Artifact artifact = new Artifact( "g0", "a0", "v0", "e0", "c0" );
+
+        assertEquals( "maven-core", ReflectionValueExtractor.evaluate( "x.artifactId", project ) );
+        assertEquals( "a0", ReflectionValueExtractor.evaluate( "x.artifactId", artifact ) );
+        assertEquals( "maven-core", ReflectionValueExtractor.evaluate( "x.artifactId", project ) );
+        assertNull( ReflectionValueExtractor.evaluate( "x.artifactId", new ValueHolder( "value" ) ) );
+    }
+
+    public void testEvaluateConcurrently()
+            throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool( 4 );
+        try
+        {
+            List<Future<Object>> results = new ArrayList<Future<Object>>();
+            for ( int i = 0; i < 400; i++ )
+            {
+                final String expression = ( i % 2 == 0 ) ? "project.dependencies[1].artifactId"
+                                : "project.dependenciesAsMap(dep1).artifactId";
+                results.add( executor.submit( new Callable<Object>()
+                {
+                    public Object call()
+                        throws Exception
+                    {
+                        return ReflectionValueExtractor.evaluate( expression, project );
+                    }
+                } ) );
+            }
+
+            for ( int i = 0; i < results.size(); i++ )
+            {
+                assertEquals( ( i % 2 == 0 ) ? "dep2" : "dep1", results.get( i ).get() );
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
     public void testArtifactMap()
             throws Exception
     {
@@ -352,6 +352,107 @@ public class DirectoryScannerTest
         FileUtils.deleteDirectory( folder2 );
     }
 
+    @Test
+    public void testParallelScanMatchesSequentialScan()
+        throws Exception
+    {
+        createTestData();
+        File rootDir = tempFolder.getRoot();
+        for ( int i = 0; i < 5; i++ )
+        {
+            File dir = new File( rootDir, "folder1/sub" + i + "/deeper" + i );
+            dir.mkdirs();
+            FileTestHelper.generateTestFile( new File( dir, "file" + i + ".txt" ), 10 + i );
+            FileTestHelper.generateTestFile( new File( dir, "file" + i + ".dat" ), 10 + i );
+        }
+
+        String[] includes = { "**/*.txt", "folder1/sub3/**" };
+        String[] excludes = { "**/deeper1/**" };
+
+        DirectoryScanner sequential = new DirectoryScanner();
+        TestScanConductor sequentialConductor = new TestScanConductor();
+        sequential.setBasedir( rootDir );
+        sequential.setIncludes( includes );
+        sequential.setExcludes( excludes );
+        sequential.setScanConductor( sequentialConductor );
+        sequential.scan();
+
+        DirectoryScanner parallel = new DirectoryScanner();
+        TestScanConductor parallelConductor = new TestScanConductor();
+        parallel.setBasedir( rootDir );
+        parallel.setIncludes( includes );
+        parallel.setExcludes( excludes );
+        parallel.setScanConductor( parallelConductor );
+        parallel.setParallelism( 4 );
+        parallel.scan();
+
+        assertEquals( Arrays.asList( sequential.getIncludedFiles() ), Arrays.asList( parallel.getIncludedFiles() ) );
+        assertEquals( Arrays.asList( sequential.getIncludedDirectories() ),
+                      Arrays.asList( parallel.getIncludedDirectories() ) );
+        assertEquals( Arrays.asList( sequential.getExcludedFiles() ), Arrays.asList( parallel.getExcludedFiles() ) );
+        assertEquals( Arrays.asList( sequential.getNotIncludedDirectories() ),
+                      Arrays.asList( parallel.getNotIncludedDirectories() ) );
+        assertEquals( sequentialConductor.visitedFiles, parallelConductor.visitedFiles );
+    }
+
+    @Test
+    public void testScanCache()
+        throws Exception
+    {
+        createTestData();
+        File rootDir = tempFolder.getRoot();
+        File cacheFile = new File( tempFolder.newFolder( "cache" ), "scan.cache" );
+        long past = System.currentTimeMillis() - 60000L;
+        rootDir.setLastModified( past );
+        new File( rootDir, "folder1" ).setLastModified( past );
+
+        DirectoryScanner ds = new DirectoryScanner();
+        ds.setBasedir( rootDir );
+        ds.setExcludes( "cache/**" );
+        ds.setScanCacheFile( cacheFile );
+        ds.scan();
+        String[] firstFiles = ds.getIncludedFiles();
+        assertEquals( firstFiles.length, ds.diffCachedIncludedFiles().getFilesAdded().length );
+        assertTrue( cacheFile.isFile() );
+
+        // a listing reused from the cache gives the same result
+        ds = new DirectoryScanner();
+        ds.setBasedir( rootDir );
+        ds.setExcludes( "cache/**" );
+        ds.setScanCacheFile( cacheFile );
+        ds.scan();
+        assertEquals( Arrays.asList( firstFiles ), Arrays.asList( ds.getIncludedFiles() ) );
+        assertEquals( 0, ds.diffCachedIncludedFiles().getFilesAdded().length );
+        assertEquals( 0, ds.diffCachedIncludedFiles().getFilesRemoved().length );
+
+        // an unchanged directory is not listed again, even if its content changed behind the cache's back
+        File folder1 = new File( rootDir, "folder1" );
+        FileTestHelper.generateTestFile( new File( folder1, "file9.txt" ), 15 );
+        folder1.setLastModified( past );
+        new File( rootDir, "file2.txt" ).delete();
+        rootDir.setLastModified( past + 1000L );
+
+        ds = new DirectoryScanner();
+        ds.setBasedir( rootDir );
+        ds.setExcludes( "cache/**" );
+        ds.setScanCacheFile( cacheFile );
+        ds.scan();
+        List<String> included = Arrays.asList( ds.getIncludedFiles() );
+        assertTrue( !included.contains( "file2.txt" ) );
+        assertTrue( !included.contains( "folder1" + File.separator + "file9.txt" ) );
+        DirectoryScanResult diff = ds.diffCachedIncludedFiles();
+        assertEquals( 0, diff.getFilesAdded().length );
+        assertEquals( Arrays.asList( "file2.txt" ), Arrays.asList( diff.getFilesRemoved() ) );
+
+        // another configuration doesn't use the cache
+        ds = new DirectoryScanner();
+        ds.setBasedir( rootDir );
+        ds.setExcludes( "cache/**", "**/*.dat" );
+        ds.setScanCacheFile( cacheFile );
+        ds.scan();
+        assertTrue( Arrays.asList( ds.getIncludedFiles() ).contains( "folder1" + File.separator + "file9.txt" ) );
+    }
+
     @Test
     public void testScanDiff()
         throws Exception
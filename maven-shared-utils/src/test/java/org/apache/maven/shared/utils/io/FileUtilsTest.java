@@ -449,6 +449,19 @@ public class FileUtilsTest
         assertTrue( Java7Support.isSymLink(  destination ));
     }
 
+    @Test
+    public void copyFileDoesNotCopyPermissions()
+        throws Exception
+    {
+        assumeFalse( Os.isFamily( Os.FAMILY_WINDOWS ) );
+        assumeTrue( testFile1.setExecutable( true ) );
+
+        File destination = new File( tempFolder.getRoot(), "copy-permissions.txt" );
+
+        FileUtils.copyFile( testFile1, destination );
+        assertFalse( destination.canExecute() );
+    }
+
 
 
     @Test
@@ -19,6 +19,8 @@ package org.apache.maven.shared.utils.io;
  * under the License.
  */
 
+import java.io.File;
+
 import org.junit.Test;
 
 import static org.junit.Assert.*;
@@ -37,4 +39,45 @@ public class MatchPatternsTest
         assertTrue( from.matches( "CDEF", true ) );
         assertFalse( from.matches( "XYZ", true ) );
     }
+
+    @Test
+    public void matchesLikeSinglePatterns()
+    {
+        String[] patterns = { "**/*.java", "src/main/**", "**/test/**/*Test.java", "a/?b/**/**/c*", "docs", "**",
+            "*.txt", File.separator + "abs/**", "**/CVS/**", "x/**/y/**/z" };
+        String[] paths = { "", "Foo.java", "src/main/Foo.java", "src/main", "src", "src/test/a/FooTest.java",
+            "test/FooTest.java", "a/xb/c", "a/xb/1/2/cde", "a/b/c", "docs", "docs/x", "README.TXT", "readme.txt",
+            "/abs/x", "abs/x", "lib/CVS/Entries", "x/y/z", "x/1/y/2/z", "x/z" };
+
+        for ( String pattern : patterns )
+        {
+            MatchPattern single = MatchPattern.fromString( pattern.replace( '/', File.separatorChar ) );
+            MatchPatterns compiled = MatchPatterns.from( pattern.replace( '/', File.separatorChar ) );
+            for ( String path : paths )
+            {
+                String name = path.replace( '/', File.separatorChar );
+                for ( boolean caseSensitive : new boolean[]{ true, false } )
+                {
+                    assertEquals( pattern + " vs " + path, single.matchPath( name, caseSensitive ),
+                                  compiled.matches( name, caseSensitive ) );
+                }
+            }
+        }
+    }
+
+    @Test
+    public void matchesPatternStart()
+    {
+        String s = File.separator;
+        MatchPatterns from = MatchPatterns.from( "src" + s + "main" + s + "**", "*.txt", "docs" + s + "*.html" );
+        assertTrue( from.matchesPatternStart( "", true ) );
+        assertTrue( from.matchesPatternStart( "src", true ) );
+        assertTrue( from.matchesPatternStart( "src" + s + "main" + s + "java", true ) );
+        assertTrue( from.matchesPatternStart( "docs", true ) );
+        assertFalse( from.matchesPatternStart( "docs" + s + "api", true ) );
+        assertFalse( from.matchesPatternStart( "target", true ) );
+        assertFalse( from.matchesPatternStart( "SRC", true ) );
+        assertTrue( from.matchesPatternStart( "SRC", false ) );
+        assertFalse( from.matchesPatternStart( s + "src", true ) );
+    }
 }
@@ -22,11 +22,21 @@ package org.apache.maven.shared.utils.xml;
 import org.apache.maven.shared.utils.StringUtils;
 import org.apache.maven.shared.utils.xml.pull.XmlPullParserException;
 
+import org.junit.Ignore;
 import org.junit.Test;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
 
 import java.io.IOException;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
@@ -112,6 +122,130 @@ public class Xpp3DomBuilderTest
         assertEquals( getExpectedString(), w.toString() );
     }
 
+    @Test
+    public void concurrentBuilds()
+        throws Exception
+    {
+        final String domString = createDomString();
+        final String expected = Xpp3DomBuilder.build( new StringReader( domString ) ).toString();
+
+        ExecutorService executor = Executors.newFixedThreadPool( 8 );
+        try
+        {
+            List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+            for ( int i = 0; i < 8; i++ )
+            {
+                results.add( executor.submit( new Callable<Integer>()
+                {
+                    public Integer call()
+                        throws Exception
+                    {
+                        int built = 0;
+                        for ( int j = 0; j < 250; j++ )
+                        {
+                            if ( j % 50 == 0 )
+                            {
+                                try
+                                {
+                                    Xpp3DomBuilder.build( new StringReader( "<newRoot>" + domString ) );
+                                    fail( "We're supposed to fail" );
+                                }
+                                catch ( XmlPullParserException e )
+                                {
+                                    // expected, the next parser must not be affected
+                                }
+                            }
+
+                            Xpp3Dom dom = Xpp3DomBuilder.build( new StringReader( domString ) );
+                            assertEquals( expected, dom.toString() );
+                            built++;
+                        }
+                        return built;
+                    }
+                } ) );
+            }
+
+            for ( Future<Integer> result : results )
+            {
+                assertEquals( 250, result.get().intValue() );
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void saxDriverPropertyIsIgnored()
+        throws Exception
+    {
+        String key = "org.xml.sax.driver";
+        String oldDriver = System.getProperty( key );
+        System.setProperty( key, "does.not.Exist" );
+        try
+        {
+            Xpp3Dom dom = Xpp3DomBuilder.build( new StringReader( createDomString() ) );
+
+            assertEquals( "element1value", dom.getChild( "element1" ).getValue() );
+            assertEquals( "does.not.Exist", System.getProperty( key ) );
+        }
+        finally
+        {
+            if ( oldDriver != null )
+            {
+                System.setProperty( key, oldDriver );
+            }
+            else
+            {
+                System.clearProperty( key );
+            }
+        }
+    }
+
+    @Ignore( "Enable this test to run performance checks" )
+    @Test
+    public void performanceTest()
+        throws Exception
+    {
+        String domString = createDomString();
+
+        int cycles = 20000;
+        for ( int i = 0; i < cycles; i++ )
+        {
+            Xpp3DomBuilder.build( new StringReader( domString ) );
+            parseWithNewReader( domString );
+        }
+
+        long start = System.currentTimeMillis();
+        for ( int i = 0; i < cycles; i++ )
+        {
+            parseWithNewReader( domString );
+        }
+        long unpooled = System.currentTimeMillis() - start;
+
+        start = System.currentTimeMillis();
+        for ( int i = 0; i < cycles; i++ )
+        {
+            Xpp3DomBuilder.build( new StringReader( domString ) );
+        }
+        long pooled = System.currentTimeMillis() - start;
+
+        System.out.println( "new parser per document: " + unpooled + " ms, pooled parsers: " + pooled + " ms" );
+    }
+
+    /**
+     * Parses the way the builder did before pooling, with a parser instantiated reflectively for each document.
+     */
+    private static void parseWithNewReader( String domString )
+        throws Exception
+    {
+        XMLReader parser =
+            (XMLReader) Class.forName( "com.sun.org.apache.xerces.internal.parsers.SAXParser" ).newInstance();
+        parser.setContentHandler( new DefaultHandler() );
+        parser.parse( new InputSource( new StringReader( domString ) ) );
+    }
+
     private static String getAttributeEncodedString()
     {
         StringBuilder domString = new StringBuilder();
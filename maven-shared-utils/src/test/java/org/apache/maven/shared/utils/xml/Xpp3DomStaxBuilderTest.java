@@ -0,0 +1,137 @@
+package org.apache.maven.shared.utils.xml;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.shared.utils.xml.pull.XmlPullParserException;
+
+import org.junit.Test;
+
+import java.io.StringReader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class Xpp3DomStaxBuilderTest
+{
+    @Test
+    public void sameTreeAsSaxBuilder()
+        throws Exception
+    {
+        String domString = createDomString();
+
+        Xpp3Dom expected = Xpp3DomBuilder.build( new StringReader( domString ) );
+        Xpp3Dom dom = Xpp3DomStaxBuilder.build( new StringReader( domString ) );
+
+        assertEquals( expected, dom );
+        assertEquals( expected.toString(), dom.toString() );
+    }
+
+    @Test
+    public void trimming()
+        throws Exception
+    {
+        String domString = createDomString();
+
+        Xpp3Dom dom = Xpp3DomStaxBuilder.build( new StringReader( domString ), true );
+
+        assertEquals( "element1value", dom.getChild( "element1" ).getValue() );
+
+        assertEquals( "  preserve space  ", dom.getChild( "element6" ).getValue() );
+
+        dom = Xpp3DomStaxBuilder.build( new StringReader( domString ), false );
+
+        assertEquals( " element1value\n ", dom.getChild( "element1" ).getValue() );
+
+        assertEquals( "  preserve space  ", dom.getChild( "element6" ).getValue() );
+    }
+
+    @Test
+    public void textIsTrimmedAsAWhole()
+        throws Exception
+    {
+        String domString = "<root><a> x &amp; y </a><b> <![CDATA[ c ]]> </b></root>";
+
+        Xpp3Dom dom = Xpp3DomStaxBuilder.build( new StringReader( domString ) );
+
+        assertEquals( "x & y", dom.getChild( "a" ).getValue() );
+        assertEquals( "c", dom.getChild( "b" ).getValue() );
+    }
+
+    @Test
+    public void contentAndAttributeEscaping()
+        throws Exception
+    {
+        String domString = "<root>\n  <a1 att=\"&lt;foo&gt;\">&quot;msg&quot;</a1>\n"
+            + "  <a2><![CDATA[<b>\"msg\"</b>]]></a2>\n</root>";
+
+        Xpp3Dom dom = Xpp3DomStaxBuilder.build( new StringReader( domString ) );
+
+        assertEquals( "<foo>", dom.getChild( "a1" ).getAttribute( "att" ) );
+        assertEquals( "\"msg\"", dom.getChild( "a1" ).getValue() );
+        assertEquals( "<b>\"msg\"</b>", dom.getChild( "a2" ).getValue() );
+    }
+
+    @Test
+    public void namesAreInterned()
+        throws Exception
+    {
+        Xpp3Dom dom = Xpp3DomStaxBuilder.build( new StringReader( createDomString() ) );
+
+        assertSame( "element2", dom.getChild( 1 ).getName() );
+        assertSame( "att2", dom.getChild( 1 ).getAttributeNames()[0] );
+    }
+
+    @Test
+    public void leafElementsHaveNoChildren()
+        throws Exception
+    {
+        Xpp3Dom dom = Xpp3DomStaxBuilder.build( new StringReader( createDomString() ) );
+        Xpp3Dom leaf = dom.getChild( "element5" );
+
+        assertEquals( 0, leaf.getChildCount() );
+        assertEquals( 0, leaf.getChildren().length );
+        assertNull( leaf.getChild( "element1" ) );
+        assertEquals( "", leaf.getValue() );
+        assertEquals( new Xpp3Dom( leaf ), leaf );
+    }
+
+    @Test( expected = XmlPullParserException.class )
+    public void malformedXml()
+    {
+        Xpp3DomStaxBuilder.build( new StringReader( "<newRoot>" + createDomString() ) );
+    }
+
+    private static String createDomString()
+    {
+        StringBuilder buf = new StringBuilder();
+        buf.append( "<root>\n" );
+        buf.append( " <element1> element1value\n </element1>\n" );
+        buf.append( " <element2 att2='attribute2&#10;nextline'>\n" );
+        buf.append( "  <element3 att3='attribute3'>element3value</element3>\n" );
+        buf.append( " </element2>\n" );
+        buf.append( " <element4></element4>\n" );
+        buf.append( " <element5/>\n" );
+        buf.append( " <element6 xml:space=\"preserve\">  preserve space  </element6>\n" );
+        buf.append( "</root>\n" );
+
+        return buf.toString();
+    }
+}
@@ -23,6 +23,8 @@ import java.io.IOException;
 import java.io.StringReader;
 import org.apache.maven.shared.utils.xml.Xpp3Dom;
 import org.apache.maven.shared.utils.xml.Xpp3DomBuilder;
+import org.apache.maven.shared.utils.xml.Xpp3DomMergeCache;
+import org.apache.maven.shared.utils.xml.Xpp3DomUtils;
 
 import org.junit.Test;
 
@@ -157,6 +159,24 @@ public class Xpp3DomTest
     }
 
 
+    @Test( expected = IndexOutOfBoundsException.class )
+    public void getChildOfLeaf()
+    {
+        new Xpp3Dom( "leaf" ).getChild( 0 );
+    }
+
+    @Test
+    public void equalsAfterRemovingAllChildren()
+    {
+        Xpp3Dom dom = new Xpp3Dom( "top" );
+        dom.addChild( new Xpp3Dom( "child" ) );
+        dom.removeChild( 0 );
+
+        assertEquals( new Xpp3Dom( "top" ), dom );
+        assertEquals( new Xpp3Dom( "top" ).hashCode(), dom.hashCode() );
+        assertNull( dom.getChild( "child" ) );
+    }
+
     @Test
     public void testEquals()
     {
@@ -262,6 +282,124 @@ public class Xpp3DomTest
         return Xpp3DomBuilder.build( new StringReader( stringContent ) );
     }
 
+    @Test
+    public void duplicatedChildrenAfterRemoval()
+        throws IOException, XmlPullParserException
+    {
+        Xpp3Dom dom = build( "<root><baz>x</baz><bar/><baz>y</baz></root>" );
+        assertEquals( 2, dom.getChildren( "baz" ).length );
+
+        dom.removeChild( 2 );
+        assertEquals( "x", dom.getChild( "baz" ).getValue() );
+        assertEquals( 1, dom.getChildren( "baz" ).length );
+
+        dom.removeChild( 0 );
+        assertNull( dom.getChild( "baz" ) );
+        assertEquals( 0, dom.getChildren( "baz" ).length );
+        assertEquals( "bar", dom.getChild( 0 ).getName() );
+    }
+
+    @Test
+    public void mergeDuplicatedChildrenInOrder()
+        throws IOException, XmlPullParserException
+    {
+        Xpp3Dom dominant = build( "<root><x>1</x><x/></root>" );
+        Xpp3Dom recessive = build( "<root><x>r1</x><x>r2</x><x>r3</x><y>r4</y></root>" );
+
+        Xpp3Dom result = mergeXpp3Dom( dominant, recessive );
+
+        assertEquals( 3, result.getChildCount() );
+        assertEquals( "1", result.getChild( 0 ).getValue() );
+        assertEquals( "r2", result.getChild( 1 ).getValue() );
+        assertEquals( "r4", result.getChild( "y" ).getValue() );
+    }
+
+    @Test
+    public void mergeWideConfiguration()
+    {
+        Xpp3Dom dominant = new Xpp3Dom( "configuration" );
+        Xpp3Dom recessive = new Xpp3Dom( "configuration" );
+        for ( int i = 0; i < 20000; i++ )
+        {
+            dominant.addChild( createElement( "include", "d" + i ) );
+            recessive.addChild( createElement( "include", "r" + i ) );
+            recessive.addChild( createElement( "exclude" + i, "r" + i ) );
+        }
+
+        Xpp3Dom result = mergeXpp3Dom( dominant, recessive );
+
+        assertEquals( 40000, result.getChildCount() );
+        assertEquals( 20000, result.getChildren( "include" ).length );
+        assertEquals( "d19999", result.getChild( "include" ).getValue() );
+        assertEquals( "r19999", result.getChild( "exclude19999" ).getValue() );
+    }
+
+    @Test
+    public void sharedMergeEqualsMerge()
+        throws IOException, XmlPullParserException
+    {
+        String[][] cases = {
+            { "<c><a>1</a><b/></c>", "<c><b>2</b><d>3</d></c>" },
+            { "<c combine.self='override'><a/></c>", "<c><b>2</b></c>" },
+            { "<c combine.children='append'><a>1</a></c>", "<c><a>2</a></c>" },
+            { "<c><a>1</a></c>", "<c combine.children='append'><a>2</a></c>" },
+            { "<c x=''><x>1</x><x/></c>", "<c x='y' z='w'><x>r1</x><x>r2</x><x>r3</x><y>r4</y></c>" },
+            { "<c><i><j>1</j></i></c>", "<c><i><j>2</j><k>3</k></i></c>" },
+            { "<c/>", "<c>v</c>" },
+        };
+
+        for ( String[] merge : cases )
+        {
+            Xpp3Dom dominant = build( merge[0] );
+            Xpp3Dom recessive = build( merge[1] );
+
+            Xpp3Dom shared = Xpp3DomUtils.mergeXpp3DomShared( dominant, recessive );
+
+            assertEquals( merge[0], mergeXpp3Dom( build( merge[0] ), build( merge[1] ) ), shared );
+            assertEquals( merge[0], build( merge[0] ), dominant );
+            assertEquals( merge[1], build( merge[1] ), recessive );
+        }
+    }
+
+    @Test
+    public void sharedMergeSharesUnchangedSubtrees()
+        throws IOException, XmlPullParserException
+    {
+        Xpp3Dom dominant = build( "<c><a><deep>x</deep></a><b/></c>" );
+        Xpp3Dom recessive = build( "<c><b>v</b><n><m/></n></c>" );
+
+        Xpp3Dom result = Xpp3DomUtils.mergeXpp3DomShared( dominant, recessive );
+
+        assertNotSame( dominant, result );
+        assertSame( dominant.getChild( "a" ), result.getChild( "a" ) );
+        assertSame( recessive.getChild( "n" ), result.getChild( "n" ) );
+        assertSame( dominant, dominant.getChild( "a" ).getParent() );
+        assertEquals( "v", result.getChild( "b" ).getValue() );
+        assertSame( result, result.getChild( "b" ).getParent() );
+        assertEquals( "", dominant.getChild( "b" ).getValue() );
+
+        assertSame( result, Xpp3DomUtils.mergeXpp3DomShared( result, recessive ) );
+    }
+
+    @Test
+    public void mergeCache()
+        throws IOException, XmlPullParserException
+    {
+        Xpp3Dom dominant = build( "<c><a>1</a></c>" );
+        Xpp3Dom recessive = build( "<c><b>2</b></c>" );
+        Xpp3DomMergeCache cache = new Xpp3DomMergeCache();
+
+        Xpp3Dom result = cache.merge( dominant, recessive );
+
+        assertSame( result, cache.merge( dominant, recessive ) );
+        assertNotSame( result, cache.merge( build( "<c><a>1</a></c>" ), recessive ) );
+        assertEquals( result, cache.merge( dominant, recessive, Boolean.TRUE ) );
+        assertEquals( 3, cache.size() );
+
+        cache.clear();
+        assertEquals( 0, cache.size() );
+    }
+
     @Test
     public void duplicatedChildren()
         throws IOException, XmlPullParserException